@@ -0,0 +1,44 @@
+#!/bin/bash
+
+# Closed-loop load on POST /api/deals at increasing client counts (no think time),
+# to compare platform threads (make up) with virtual threads (make up-virtual).
+# Usage: ./concurrency.sh [levels...]   default: 100 1000 5000
+
+LEVELS=${@:-100 1000 5000}
+DURATION=${DURATION:-60s}
+BASE_URL="http://localhost:8080"
+
+for VUS in $LEVELS; do
+  echo "Running ${VUS} concurrent clients for ${DURATION}..."
+  echo "================================="
+
+  docker run --rm -i \
+    --network="host" \
+    --ulimit nofile=65536:65536 \
+    grafana/k6 run --quiet --summary-trend-stats "avg,p(50),p(99),max" - <<EOF2
+import http from 'k6/http';
+import { check } from 'k6';
+
+export const options = {
+  scenarios: {
+    clients: { executor: 'constant-vus', vus: ${VUS}, duration: '${DURATION}' },
+  },
+};
+
+export default function() {
+  const res = http.post('${BASE_URL}/api/deals', JSON.stringify({
+    dealUniqueId: \`K6C_${VUS}_\${__VU}_\${__ITER}_\${Date.now()}\`,
+    fromCurrency: 'USD',
+    toCurrency: 'EUR',
+    dealAmount: 1000.50,
+    dealTimestamp: new Date().toISOString().slice(0, 19)
+  }), {
+    headers: { 'Content-Type': 'application/json' },
+  });
+
+  check(res, { 'status is 201': (r) => r.status === 201 });
+}
+EOF2
+done
+
+echo "✅ Concurrency sweep complete! Compare http_reqs (/s) and http_req_duration p(99) per level."
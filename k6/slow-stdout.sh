@@ -0,0 +1,52 @@
+#!/bin/bash
+
+# Fixed-rate POST /api/deals while the app's stdout is throttled (make k6-slow-stdout).
+# Request latency must not follow the log drain rate: with the default drop policy the
+# async appender sheds INFO/DEBUG instead of stalling request threads.
+# Fails when p(99) exceeds P99_MS.
+
+RATE=${RATE:-200}
+DURATION=${DURATION:-60s}
+P99_MS=${P99_MS:-250}
+BASE_URL="http://localhost:8080"
+
+echo "POST /api/deals at ${RATE}/s for ${DURATION} with slow stdout (p99 < ${P99_MS}ms)..."
+echo "================================="
+
+docker run --rm -i \
+  --network="host" \
+  grafana/k6 run --quiet --summary-trend-stats "avg,p(50),p(99),max" - <<EOF2
+import http from 'k6/http';
+import { check } from 'k6';
+
+export const options = {
+  scenarios: {
+    deals: {
+      executor: 'constant-arrival-rate',
+      rate: ${RATE},
+      timeUnit: '1s',
+      duration: '${DURATION}',
+      preAllocatedVUs: 50,
+      maxVUs: 500,
+    },
+  },
+  thresholds: {
+    http_req_duration: ['p(99)<${P99_MS}'],
+    checks: ['rate>0.99'],
+  },
+};
+
+export default function() {
+  const res = http.post('${BASE_URL}/api/deals', JSON.stringify({
+    dealUniqueId: \`K6S_\${__VU}_\${__ITER}_\${Date.now()}\`,
+    fromCurrency: 'USD',
+    toCurrency: 'EUR',
+    dealAmount: 1000.50,
+    dealTimestamp: new Date().toISOString().slice(0, 19)
+  }), {
+    headers: { 'Content-Type': 'application/json' },
+  });
+
+  check(res, { 'status is 201': (r) => r.status === 201 });
+}
+EOF2
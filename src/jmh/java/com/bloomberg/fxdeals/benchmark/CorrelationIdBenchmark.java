@@ -0,0 +1,40 @@
+package com.bloomberg.fxdeals.benchmark;
+
+import com.bloomberg.fxdeals.correlation.CorrelationId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one request correlation id from several request threads at once:
+ * UUID.randomUUID() (shared SecureRandom) against CorrelationId.generate()
+ * (ThreadLocalRandom).
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dbench.args="CorrelationIdBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class CorrelationIdBenchmark {
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String generate() {
+        return CorrelationId.generate();
+    }
+}
@@ -0,0 +1,157 @@
+package com.bloomberg.fxdeals.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Insert throughput of the deals table before and after the switch from IDENTITY
+ * to a pooled sequence, for single and batched writes.
+ *
+ * Replays at JDBC level what Hibernate does for each strategy:
+ * IDENTITY - one INSERT ... RETURNING id round trip per entity, no batching possible.
+ * SEQUENCE - one nextval per 50 entities (pooled-lo), rows sent as a JDBC batch that
+ *            reWriteBatchedInserts turns into multi-row INSERTs.
+ *
+ * Needs a running Postgres (make up); uses scratch tables and drops them afterwards.
+ *   mvn -Pbenchmark test-compile exec:exec -Dbench.args="DealIdGenerationBenchmark"
+ * Connection settings: -Dbench.db.url, -Dbench.db.user, -Dbench.db.password
+ * (passed through -Dbench.args="-jvmArgs -Dbench.db.url=... DealIdGenerationBenchmark").
+ * The "rows" secondary result is the number to compare (rows/s).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class DealIdGenerationBenchmark {
+
+    private static final int ALLOCATION_SIZE = 50;
+    private static final AtomicLong UNIQUE_IDS = new AtomicLong();
+
+    @Param({"IDENTITY", "SEQUENCE"})
+    public String strategy;
+
+    @Param({"1", "500"})
+    public int batchSize;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private PreparedStatement nextBlock;
+    private long nextId;
+    private long blockEnd;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("user", System.getProperty("bench.db.user", "fxuser"));
+        props.setProperty("password", System.getProperty("bench.db.password", "fxpass"));
+        props.setProperty("reWriteBatchedInserts", "true");
+        connection = DriverManager.getConnection(
+            System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5432/fxdb"), props);
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS bench_deals");
+            ddl.execute("DROP SEQUENCE IF EXISTS bench_deals_id_seq");
+            if ("IDENTITY".equals(strategy)) {
+                ddl.execute("CREATE TABLE bench_deals (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+                    + " deal_unique_id VARCHAR(255) NOT NULL UNIQUE, from_currency VARCHAR(255) NOT NULL,"
+                    + " to_currency VARCHAR(255) NOT NULL, deal_amount NUMERIC(38, 2) NOT NULL,"
+                    + " deal_timestamp TIMESTAMP(6) NOT NULL)");
+                insert = connection.prepareStatement("INSERT INTO bench_deals (deal_unique_id, from_currency,"
+                    + " to_currency, deal_amount, deal_timestamp) VALUES (?, ?, ?, ?, ?) RETURNING id");
+            } else {
+                ddl.execute("CREATE SEQUENCE bench_deals_id_seq INCREMENT BY " + ALLOCATION_SIZE);
+                ddl.execute("CREATE TABLE bench_deals (id BIGINT PRIMARY KEY,"
+                    + " deal_unique_id VARCHAR(255) NOT NULL UNIQUE, from_currency VARCHAR(255) NOT NULL,"
+                    + " to_currency VARCHAR(255) NOT NULL, deal_amount NUMERIC(38, 2) NOT NULL,"
+                    + " deal_timestamp TIMESTAMP(6) NOT NULL)");
+                insert = connection.prepareStatement("INSERT INTO bench_deals (id, deal_unique_id, from_currency,"
+                    + " to_currency, deal_amount, deal_timestamp) VALUES (?, ?, ?, ?, ?, ?)");
+                nextBlock = connection.prepareStatement("SELECT nextval('bench_deals_id_seq')");
+            }
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS bench_deals");
+            ddl.execute("DROP SEQUENCE IF EXISTS bench_deals_id_seq");
+        }
+        connection.close();
+    }
+
+    /**
+     * One transaction of {@code batchSize} deals, as a service method saving them would do.
+     */
+    @Benchmark
+    public void insertDeals(Rows rows) throws SQLException {
+        if ("IDENTITY".equals(strategy)) {
+            for (int i = 0; i < batchSize; i++) {
+                bind(1);
+                try (ResultSet generated = insert.executeQuery()) {
+                    generated.next();
+                }
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                insert.setLong(1, allocateId());
+                bind(2);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        rows.rows += batchSize;
+    }
+
+    private void bind(int firstIndex) throws SQLException {
+        insert.setString(firstIndex, "BENCH_" + UNIQUE_IDS.incrementAndGet());
+        insert.setString(firstIndex + 1, "USD");
+        insert.setString(firstIndex + 2, "EUR");
+        insert.setBigDecimal(firstIndex + 3, new BigDecimal("1000.50"));
+        insert.setTimestamp(firstIndex + 4, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private long allocateId() throws SQLException {
+        if (nextId == blockEnd) {
+            try (ResultSet rs = nextBlock.executeQuery()) {
+                rs.next();
+                nextId = rs.getLong(1);
+                blockEnd = nextId + ALLOCATION_SIZE;
+            }
+        }
+        return nextId++;
+    }
+}
@@ -0,0 +1,148 @@
+package com.bloomberg.fxdeals.benchmark;
+
+import com.bloomberg.fxdeals.dto.DealPage;
+import com.bloomberg.fxdeals.dto.DealResponse;
+import com.bloomberg.fxdeals.dto.StreamingDealPage;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.pagination.KeysetCursor;
+import com.bloomberg.fxdeals.repository.DealRowCallback;
+import com.bloomberg.fxdeals.service.DealMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to the last byte of a GET /api/deals page of {@code rows} deals, from the column
+ * values the driver hands over to the bytes on the response stream.
+ *
+ * <p>{@code dtoPage} is the former path: an entity per row, then a List of DealResponse,
+ * then Jackson walking the DealPage by reflection. {@code streamingPage} writes each row
+ * straight to the generator through {@link StreamingDealPage}. Both read the same
+ * pre-built column values and write to a counting sink, so the difference is the
+ * per-row objects and the bean serialization; run with {@code -prof gc} for bytes
+ * allocated per page.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dbench.args="DealPageSerializationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealPageSerializationBenchmark {
+
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY", "CHF"};
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private long[] ids;
+    private String[] dealUniqueIds;
+    private String[] fromCurrencies;
+    private String[] toCurrencies;
+    private BigDecimal[] amounts;
+    private LocalDateTime[] timestamps;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        // One extra row, as the controller asks for, to decide hasMore
+        int total = rows + 1;
+        ids = new long[total];
+        dealUniqueIds = new String[total];
+        fromCurrencies = new String[total];
+        toCurrencies = new String[total];
+        amounts = new BigDecimal[total];
+        timestamps = new LocalDateTime[total];
+        LocalDateTime start = LocalDateTime.of(2024, 2, 16, 0, 0);
+        for (int i = 0; i < total; i++) {
+            ids[i] = i + 1;
+            dealUniqueIds[i] = "DEAL-" + i;
+            fromCurrencies[i] = CURRENCIES[i % CURRENCIES.length];
+            toCurrencies[i] = CURRENCIES[(i + 1) % CURRENCIES.length];
+            amounts[i] = BigDecimal.valueOf(100_000 + i * 37L, 2);
+            timestamps[i] = start.plusSeconds(i);
+        }
+    }
+
+    @Benchmark
+    public long dtoPage() throws IOException {
+        List<Deal> deals = new ArrayList<>();
+        for (int i = 0; i <= rows; i++) {
+            Deal deal = new Deal();
+            deal.setId(ids[i]);
+            deal.setDealUniqueId(dealUniqueIds[i]);
+            deal.setFromCurrency(fromCurrencies[i]);
+            deal.setToCurrency(toCurrencies[i]);
+            deal.setDealAmount(amounts[i]);
+            deal.setDealTimestamp(timestamps[i]);
+            deals.add(deal);
+        }
+        String nextCursor = null;
+        if (deals.size() > rows) {
+            deals = deals.subList(0, rows);
+            nextCursor = KeysetCursor.encode(deals.get(rows - 1).getId());
+        }
+        List<DealResponse> responses = deals.stream().map(DealMapper::toResponse).toList();
+
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, new DealPage(responses, nextCursor));
+        return out.count;
+    }
+
+    @Benchmark
+    public long streamingPage() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, new StreamingDealPage(rows, this::readRows));
+        return out.count;
+    }
+
+    private void readRows(DealRowCallback callback) {
+        try {
+            for (int i = 0; i <= rows; i++) {
+                callback.row(ids[i], dealUniqueIds[i], fromCurrencies[i], toCurrencies[i], amounts[i], timestamps[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.bloomberg.fxdeals.benchmark;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson binding of a POST /api/deals body to {@link DealRequest}, with the mapper
+ * configured the way Spring Boot configures it for the message converters.
+ *
+ * mapper: ObjectMapper.readValue per call, as MappingJackson2HttpMessageConverter does.
+ * reader: a pre-built ObjectReader, as the NDJSON ingestion parser does.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dbench.args="DealRequestDeserializationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealRequestDeserializationBenchmark {
+
+    private static final byte[] BODY = ("{\"dealUniqueId\":\"DEAL-000123\",\"fromCurrency\":\"USD\","
+        + "\"toCurrency\":\"EUR\",\"dealAmount\":1000.50,\"dealTimestamp\":\"2024-02-16T10:30:00\"}")
+        .getBytes(StandardCharsets.UTF_8);
+
+    private ObjectMapper objectMapper;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reader = objectMapper.readerFor(DealRequest.class);
+    }
+
+    @Benchmark
+    public DealRequest mapper() throws IOException {
+        return objectMapper.readValue(BODY, DealRequest.class);
+    }
+
+    @Benchmark
+    public DealRequest reader() throws IOException {
+        return reader.readValue(BODY);
+    }
+}
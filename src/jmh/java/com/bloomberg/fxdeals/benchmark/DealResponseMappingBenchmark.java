@@ -0,0 +1,53 @@
+package com.bloomberg.fxdeals.benchmark;
+
+import com.bloomberg.fxdeals.dto.DealResponse;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.service.DealMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code Deal} to {@code DealResponse} mapping as done by {@link DealMapper} for every
+ * created deal and looked-up deal. Pages of GET /api/deals skip it, see
+ * {@link DealPageSerializationBenchmark}.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dbench.args="DealResponseMappingBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealResponseMappingBenchmark {
+
+    private Deal deal;
+
+    @Setup
+    public void setUp() {
+        deal = new Deal();
+        deal.setId(1L);
+        deal.setDealUniqueId("DEAL-000123");
+        deal.setFromCurrency("USD");
+        deal.setToCurrency("EUR");
+        deal.setDealAmount(new BigDecimal("1000.50"));
+        deal.setDealTimestamp(LocalDateTime.of(2024, 2, 16, 10, 30));
+    }
+
+    @Benchmark
+    public DealResponse toResponse() {
+        return DealMapper.toResponse(deal);
+    }
+}
@@ -0,0 +1,105 @@
+package com.bloomberg.fxdeals.benchmark;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.validation.DealValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link DealValidator#validate} for a valid deal and for each way it can be
+ * rejected. Rejections include building the IllegalArgumentException, which is what
+ * a request with that defect pays.
+ *
+ * validate: the current bitset/scan implementation.
+ * legacy:   the previous regex + Set + trim() implementation ({@link LegacyDealValidator}).
+ * With -prof gc, gc.alloc.rate.norm for branch=VALID is ~0 B/op for validate.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dbench.args="DealValidatorBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealValidatorBenchmark {
+
+    public enum Case {
+        VALID,
+        MISSING_ID,
+        MISSING_FROM_CURRENCY,
+        MISSING_TO_CURRENCY,
+        MISSING_AMOUNT,
+        NON_POSITIVE_AMOUNT,
+        MISSING_TIMESTAMP,
+        INVALID_FROM_CURRENCY,
+        INVALID_TO_CURRENCY,
+        TIMESTAMP_OUT_OF_WINDOW
+    }
+
+    @Param
+    public Case branch;
+
+    private DealRequest request;
+
+    @Setup
+    public void setUp() {
+        request = request(branch);
+    }
+
+    @Benchmark
+    public Object validate() {
+        try {
+            DealValidator.validate(request);
+            return request;
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object legacy() {
+        try {
+            LegacyDealValidator.validate(request);
+            return request;
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    static DealRequest request(Case branch) {
+        DealRequest request = new DealRequest();
+        request.setDealUniqueId("DEAL-000123");
+        request.setFromCurrency("USD");
+        request.setToCurrency("EUR");
+        request.setDealAmount(new BigDecimal("1000.50"));
+        request.setDealTimestamp(LocalDateTime.now().minusHours(1));
+
+        switch (branch) {
+            case MISSING_ID -> request.setDealUniqueId("   ");
+            case MISSING_FROM_CURRENCY -> request.setFromCurrency(null);
+            case MISSING_TO_CURRENCY -> request.setToCurrency("");
+            case MISSING_AMOUNT -> request.setDealAmount(null);
+            case NON_POSITIVE_AMOUNT -> request.setDealAmount(BigDecimal.ZERO);
+            case MISSING_TIMESTAMP -> request.setDealTimestamp(null);
+            case INVALID_FROM_CURRENCY -> request.setFromCurrency("usd");
+            case INVALID_TO_CURRENCY -> request.setToCurrency("XYZ");
+            case TIMESTAMP_OUT_OF_WINDOW -> request.setDealTimestamp(LocalDateTime.now().minusDays(45));
+            case VALID -> { }
+        }
+        return request;
+    }
+}
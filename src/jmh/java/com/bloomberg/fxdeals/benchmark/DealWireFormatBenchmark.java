@@ -0,0 +1,106 @@
+package com.bloomberg.fxdeals.benchmark;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.format.DealBinaryCodec;
+import com.bloomberg.fxdeals.format.DealBinaryMessageConverter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse cost of a POST /api/deals/batch body of {@code deals} deals through the message
+ * converter each content type goes through: JSON via Boot's Jackson converter,
+ * application/x-fxdeal via {@link DealBinaryMessageConverter}. Both end in the same
+ * {@code List<DealRequest>}. The body sizes are printed at setup.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dbench.args="DealWireFormatBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealWireFormatBenchmark {
+
+    private static final Type DEAL_LIST = new TypeReference<List<DealRequest>>() { }.getType();
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY", "CHF"};
+    // fxdeals.binary.max-body-bytes default; both body sizes stay well under it
+    private static final int MAX_BODY_BYTES = 8 * 1024 * 1024;
+
+    @Param({"1", "500"})
+    public int deals;
+
+    private MappingJackson2HttpMessageConverter jsonConverter;
+    private DealBinaryMessageConverter binaryConverter;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonConverter = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        binaryConverter = new DealBinaryMessageConverter(MAX_BODY_BYTES);
+
+        List<DealRequest> requests = new ArrayList<>(deals);
+        LocalDateTime start = LocalDateTime.of(2024, 2, 16, 10, 30);
+        for (int i = 0; i < deals; i++) {
+            DealRequest request = new DealRequest();
+            request.setDealUniqueId("DEAL-" + (100_000 + i));
+            request.setFromCurrency(CURRENCIES[i % CURRENCIES.length]);
+            request.setToCurrency(CURRENCIES[(i + 1) % CURRENCIES.length]);
+            request.setDealAmount(BigDecimal.valueOf(100_000 + i * 37L, 2));
+            request.setDealTimestamp(start.plusSeconds(i * 7L).plusNanos(i % 3 * 250_000_000L));
+            requests.add(request);
+        }
+        json = jsonConverter.getObjectMapper().writeValueAsBytes(requests);
+        binary = DealBinaryCodec.encode(requests);
+        System.out.printf("%n%d deals: JSON %d bytes, binary %d bytes%n", deals, json.length, binary.length);
+    }
+
+    @Benchmark
+    public Object json() throws IOException {
+        return jsonConverter.read(DEAL_LIST, null, body(json));
+    }
+
+    @Benchmark
+    public Object binary() throws IOException {
+        return binaryConverter.read(DEAL_LIST, null, body(binary));
+    }
+
+    private static HttpInputMessage body(byte[] bytes) {
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(bytes);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return HttpHeaders.EMPTY;
+            }
+        };
+    }
+}
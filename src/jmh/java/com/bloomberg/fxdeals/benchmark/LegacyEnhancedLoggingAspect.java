@@ -1,4 +1,4 @@
-package com.bloomberg.fxdeals.aspect;
+package com.bloomberg.fxdeals.benchmark;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -8,17 +8,19 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
-import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.UUID;
 
+/**
+ * EnhancedLoggingAspect as it was before it was folded into the @Loggable LoggingAspect,
+ * kept verbatim as a baseline for LoggingAspectBenchmark.
+ */
 @Aspect
-@Component
-public class EnhancedLoggingAspect {
+public class LegacyEnhancedLoggingAspect {
 
-    private static final Logger log = LoggerFactory.getLogger(EnhancedLoggingAspect.class);
+    private static final Logger log = LoggerFactory.getLogger(LegacyEnhancedLoggingAspect.class);
 
     @Pointcut("@within(org.springframework.stereotype.Service) || " +
               "@within(org.springframework.web.bind.annotation.RestController) || " +
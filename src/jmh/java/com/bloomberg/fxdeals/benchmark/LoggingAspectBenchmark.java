@@ -0,0 +1,144 @@
+package com.bloomberg.fxdeals.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.bloomberg.fxdeals.aspect.LogLevel;
+import com.bloomberg.fxdeals.aspect.Loggable;
+import com.bloomberg.fxdeals.aspect.LoggingAspect;
+import com.bloomberg.fxdeals.model.Deal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead the logging aspects add to one call on a @Service bean, measured through
+ * the same Spring AOP proxy the application uses. Log events are fully formatted with
+ * a console-style pattern and written to a discarding stream at INFO, so the numbers
+ * include message building and encoding but not terminal I/O.
+ *
+ * NONE:     plain proxy, no advice (baseline)
+ * LEGACY:   the former LoggingAspect and EnhancedLoggingAspect, both advising every call
+ * LOGGABLE: the @Loggable-driven LoggingAspect
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dbench.args="LoggingAspectBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingAspectBenchmark {
+
+    public enum Advice { NONE, LEGACY, LOGGABLE }
+
+    @Param
+    public Advice advice;
+
+    private DealStore store;
+    private Deal deal;
+    private List<Deal> deals;
+
+    @Service
+    public static class DealStore {
+
+        @Loggable
+        public Deal createDeal(Deal deal) {
+            return deal;
+        }
+
+        @Loggable(LogLevel.DEBUG)
+        public Deal getDeal(Deal deal) {
+            return deal;
+        }
+
+        @Loggable(sampleRate = 0.01)
+        public List<Deal> getDeals(List<Deal> deals) {
+            return deals;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        discardLogOutput();
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new DealStore());
+        factory.setProxyTargetClass(true);
+        if (advice == Advice.LEGACY) {
+            factory.addAspect(new LegacyLoggingAspect());
+            factory.addAspect(new LegacyEnhancedLoggingAspect());
+        }
+        if (advice == Advice.LOGGABLE) {
+            factory.addAspect(new LoggingAspect());
+        }
+        store = factory.getProxy();
+
+        deal = new Deal();
+        deal.setId(1L);
+        deal.setDealUniqueId("DEAL-000123");
+        deal.setFromCurrency("USD");
+        deal.setToCurrency("EUR");
+        deal.setDealAmount(new BigDecimal("1000.50"));
+        deal.setDealTimestamp(LocalDateTime.of(2024, 2, 16, 10, 30));
+        deals = Collections.nCopies(100, deal);
+    }
+
+    /** A write call, logged at INFO with arguments and result. */
+    @Benchmark
+    public Deal create() {
+        return store.createDeal(deal);
+    }
+
+    /** A read call: legacy logs entry at INFO, @Loggable is at DEBUG (disabled). */
+    @Benchmark
+    public Deal get() {
+        return store.getDeal(deal);
+    }
+
+    /** A 100-deal list result: legacy prints it, @Loggable samples 1% and logs its size. */
+    @Benchmark
+    public List<Deal> list() {
+        return store.getDeals(deals);
+    }
+
+    private static void discardLogOutput() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5level [%15.15thread] %-40.40logger{39} : %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+    }
+}
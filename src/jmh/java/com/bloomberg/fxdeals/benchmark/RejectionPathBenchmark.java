@@ -0,0 +1,146 @@
+package com.bloomberg.fxdeals.benchmark;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.dto.DealResponse;
+import com.bloomberg.fxdeals.dto.ErrorResponse;
+import com.bloomberg.fxdeals.exception.DealValidationException;
+import com.bloomberg.fxdeals.exception.DuplicateDealException;
+import com.bloomberg.fxdeals.exception.GlobalExceptionHandler;
+import com.bloomberg.fxdeals.validation.DealValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of turning a POST /api/deals body into the bytes of its response,
+ * for a traffic mix with {@code invalidPercent} of rejected deals (spread over every
+ * rejection reason) and, separately, for duplicates.
+ *
+ * legacy:  regex validator throwing IllegalArgumentException with a stack trace;
+ *          duplicates as RuntimeException matched on "already exists"; every error
+ *          body serialized by Jackson.
+ * current: DealValidator + stackless DealValidationException / DuplicateDealException,
+ *          answered by GlobalExceptionHandler from pre-rendered bodies.
+ * Success responses are serialized by Jackson in both.
+ *
+ * Stack traces here are only a few frames deep; under Tomcat and Spring MVC they are
+ * ~100, so the legacy numbers understate what production paid.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dbench.args="RejectionPathBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RejectionPathBenchmark {
+
+    private static final DealValidatorBenchmark.Case[] REJECTIONS = {
+        DealValidatorBenchmark.Case.MISSING_ID,
+        DealValidatorBenchmark.Case.MISSING_FROM_CURRENCY,
+        DealValidatorBenchmark.Case.MISSING_TO_CURRENCY,
+        DealValidatorBenchmark.Case.MISSING_AMOUNT,
+        DealValidatorBenchmark.Case.NON_POSITIVE_AMOUNT,
+        DealValidatorBenchmark.Case.MISSING_TIMESTAMP,
+        DealValidatorBenchmark.Case.INVALID_FROM_CURRENCY,
+        DealValidatorBenchmark.Case.INVALID_TO_CURRENCY,
+        DealValidatorBenchmark.Case.TIMESTAMP_OUT_OF_WINDOW
+    };
+
+    @Param({"0", "90"})
+    public int invalidPercent;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private ObjectMapper objectMapper;
+    private DealRequest[] mix;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        // 100 requests; the invalid ones are interleaved so branch prediction cannot
+        // learn a long run of the same outcome
+        mix = new DealRequest[100];
+        int invalid = 0;
+        for (int i = 0; i < mix.length; i++) {
+            boolean reject = (i * invalidPercent) / 100 != ((i + 1) * invalidPercent) / 100;
+            mix[i] = DealValidatorBenchmark.request(reject
+                ? REJECTIONS[invalid++ % REJECTIONS.length]
+                : DealValidatorBenchmark.Case.VALID);
+        }
+    }
+
+    @Benchmark
+    public byte[] legacy() throws IOException {
+        DealRequest request = nextRequest();
+        try {
+            LegacyDealValidator.validate(request);
+            return objectMapper.writeValueAsBytes(toResponse(request));
+        } catch (IllegalArgumentException e) {
+            return objectMapper.writeValueAsBytes(new ErrorResponse(400, "BAD_REQUEST", e.getMessage()));
+        }
+    }
+
+    @Benchmark
+    public byte[] current() throws IOException {
+        DealRequest request = nextRequest();
+        try {
+            DealValidator.validate(request);
+            return objectMapper.writeValueAsBytes(toResponse(request));
+        } catch (DealValidationException e) {
+            return handler.handleValidation(e).getBody();
+        }
+    }
+
+    @Benchmark
+    public byte[] legacyDuplicate() throws IOException {
+        try {
+            throw new RuntimeException("Deal already exists with ID: " + mix[0].getDealUniqueId());
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("already exists")) {
+                return objectMapper.writeValueAsBytes(new ErrorResponse(409, "CONFLICT", e.getMessage()));
+            }
+            throw e;
+        }
+    }
+
+    @Benchmark
+    public byte[] currentDuplicate() {
+        try {
+            throw new DuplicateDealException(mix[0].getDealUniqueId());
+        } catch (DuplicateDealException e) {
+            return handler.handleDuplicate(e).getBody();
+        }
+    }
+
+    private DealRequest nextRequest() {
+        DealRequest request = mix[next];
+        next = next + 1 == mix.length ? 0 : next + 1;
+        return request;
+    }
+
+    private static DealResponse toResponse(DealRequest request) {
+        DealResponse response = new DealResponse();
+        response.setDealUniqueId(request.getDealUniqueId());
+        response.setFromCurrency(request.getFromCurrency());
+        response.setToCurrency(request.getToCurrency());
+        response.setDealAmount(request.getDealAmount());
+        response.setDealTimestamp(request.getDealTimestamp());
+        return response;
+    }
+}
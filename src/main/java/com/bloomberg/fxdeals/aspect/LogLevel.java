@@ -0,0 +1,5 @@
+package com.bloomberg.fxdeals.aspect;
+
+public enum LogLevel {
+    INFO, DEBUG, WARN, ERROR
+}
@@ -5,14 +5,20 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Marks a bean method, or every public method of a bean, for {@link LoggingAspect}.
+ * An annotation on the method wins over one on the class.
+ */
 @Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Loggable {
     LogLevel value() default LogLevel.INFO;
     boolean logParams() default true;
     boolean logResult() default true;
-}
 
-enum LogLevel {
-    INFO, DEBUG, WARN, ERROR
-}
\ No newline at end of file
+    /**
+     * Fraction of successful calls that are logged, from 0.0 to 1.0. Failures are
+     * always logged.
+     */
+    double sampleRate() default 1.0;
+}
@@ -1,105 +1,184 @@
 package com.bloomberg.fxdeals.aspect;
 
+import com.bloomberg.fxdeals.exception.DuplicateDealException;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-import java.util.UUID;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Logs calls to methods and beans annotated with {@link Loggable}: one line per call,
+ * at the annotation's level, with the duration measured by System.nanoTime.
+ *
+ * The annotation is resolved once per method and cached. When the level is disabled,
+ * or the call is not sampled, the advice only reads the clock; arguments and results
+ * are turned into text only for lines that are actually written, and collections,
+ * arrays and long strings are summarised instead of printed in full.
+ */
 @Aspect
 @Component
 public class LoggingAspect {
 
-    private static final Logger log = LoggerFactory.getLogger(LoggingAspect.class);
+    private static final int MAX_VALUE_LENGTH = 200;
 
-   
-    @Pointcut("within(@org.springframework.web.bind.annotation.RestController *)")
-    public void controllerMethods() {}
+    private final Map<Method, Settings> settingsByMethod = new ConcurrentHashMap<>();
 
-  
-    @Pointcut("within(@org.springframework.stereotype.Service *)")
-    public void serviceMethods() {}
-
-    
-    @Pointcut("within(@org.springframework.stereotype.Repository *)")
-    public void repositoryMethods() {}
+    @Around("@annotation(com.bloomberg.fxdeals.aspect.Loggable) || @within(com.bloomberg.fxdeals.aspect.Loggable)")
+    public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
 
- 
-    @Pointcut("within(com.bloomberg.fxdeals.validation.*)")
-    public void validationMethods() {}
+        Settings settings = settingsFor(joinPoint);
+        boolean enabled = settings.isEnabled() && settings.sampled();
 
-   
-    @Around("controllerMethods() || serviceMethods() || repositoryMethods() || validationMethods()")
-    public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        
-        
-        String correlationId = UUID.randomUUID().toString();
-        MDC.put("correlationId", correlationId);
-        
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
-        String fullMethodName = className + "." + methodName;
-        
-       
-        Object[] args = joinPoint.getArgs();
-        String arguments = args.length > 0 ? Arrays.toString(args) : "no arguments";
-        
-        
-        log.info("→ Entering: {}() | Args: {}", fullMethodName, arguments);
-        
-        
-        if (className.contains("Service") || className.contains("Validator")) {
-            log.debug("→ {} called with: {}", fullMethodName, arguments);
-        }
-        
-        long startTime = System.currentTimeMillis();
-        
+        long start = System.nanoTime();
         try {
-            
             Object result = joinPoint.proceed();
-            
-            long duration = System.currentTimeMillis() - startTime;
-            
-            
-            if (methodName.contains("create") || methodName.contains("save")) {
-                log.info("✓ {} completed successfully in {}ms | Result: {}", 
-                    fullMethodName, duration, result);
-            } else {
-                log.debug("✓ {} completed in {}ms", fullMethodName, duration);
+            if (enabled) {
+                long micros = (System.nanoTime() - start) / 1_000;
+                settings.log("{}({}) completed in {}µs{}", settings.name,
+                    settings.logParams ? describeArgs(joinPoint.getArgs()) : "..", micros,
+                    settings.logResult ? " -> " + describe(result) : "");
             }
-            
             return result;
-            
-        } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            
-          
-            log.error("✗ {} failed after {}ms | Error: {}", 
-                fullMethodName, duration, e.getMessage(), e);
-            
-         
+        } catch (IllegalArgumentException | DuplicateDealException e) {
+            // Rejected input: answered by GlobalExceptionHandler, no stack trace needed
+            if (settings.isEnabled()) {
+                long micros = (System.nanoTime() - start) / 1_000;
+                settings.log("{} rejected after {}µs: {}", settings.name, micros, e.getMessage());
+            }
+            throw e;
+        } catch (Throwable e) {
+            long micros = (System.nanoTime() - start) / 1_000;
+            settings.logger.error("{}({}) failed after {}µs", settings.name,
+                describeArgs(joinPoint.getArgs()), micros, e);
             throw e;
-            
-        } finally {
-            MDC.clear();
         }
     }
 
-   
-    @Around("validationMethods() && execution(* *(..))")
-    public Object logValidation(ProceedingJoinPoint joinPoint) throws Throwable {
-        try {
-            return joinPoint.proceed();
-        } catch (IllegalArgumentException e) {
-            log.warn("Validation failed in {}: {}", 
-                joinPoint.getSignature().getName(), e.getMessage());
-            throw e;
+    private Settings settingsFor(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Settings settings = settingsByMethod.get(method);
+        if (settings == null) {
+            settings = settingsByMethod.computeIfAbsent(method,
+                m -> Settings.resolve(m, AopUtils.getTargetClass(joinPoint.getTarget())));
+        }
+        return settings;
+    }
+
+    static String describeArgs(Object[] args) {
+        if (args.length == 0) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(describe(args[i]));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Short text for a logged value: sizes for collections and arrays, type names for
+     * streams, and at most {@value #MAX_VALUE_LENGTH} chars of anything else.
+     */
+    static String describe(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Collection<?> collection) {
+            return value.getClass().getSimpleName() + "[size=" + collection.size() + "]";
+        }
+        if (value instanceof Map<?, ?> map) {
+            return value.getClass().getSimpleName() + "[size=" + map.size() + "]";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        if (value instanceof java.io.InputStream || value instanceof java.io.OutputStream
+                || value instanceof java.io.Reader || value instanceof java.io.Writer) {
+            return value.getClass().getSimpleName();
+        }
+        String text = String.valueOf(value);
+        return text.length() <= MAX_VALUE_LENGTH ? text : text.substring(0, MAX_VALUE_LENGTH) + "...";
+    }
+
+    /**
+     * The effective {@link Loggable} of one method on one target class.
+     */
+    private static final class Settings {
+
+        private final Logger logger;
+        private final String name;
+        private final LogLevel level;
+        private final boolean logParams;
+        private final boolean logResult;
+        private final double sampleRate;
+
+        private Settings(Class<?> targetClass, Method method, Loggable loggable) {
+            this.logger = LoggerFactory.getLogger(targetClass);
+            this.name = targetClass.getSimpleName() + "." + method.getName();
+            this.level = loggable.value();
+            this.logParams = loggable.logParams();
+            this.logResult = loggable.logResult();
+            this.sampleRate = loggable.sampleRate();
+        }
+
+        static Settings resolve(Method method, Class<?> targetClass) {
+            Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+            Loggable loggable = AnnotatedElementUtils.findMergedAnnotation(specific, Loggable.class);
+            if (loggable == null) {
+                loggable = AnnotatedElementUtils.findMergedAnnotation(targetClass, Loggable.class);
+            }
+            if (loggable == null) {
+                loggable = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), Loggable.class);
+            }
+            return new Settings(targetClass, specific, loggable);
+        }
+
+        boolean isEnabled() {
+            switch (level) {
+                case DEBUG:
+                    return logger.isDebugEnabled();
+                case WARN:
+                    return logger.isWarnEnabled();
+                case ERROR:
+                    return logger.isErrorEnabled();
+                default:
+                    return logger.isInfoEnabled();
+            }
+        }
+
+        boolean sampled() {
+            return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        }
+
+        void log(String format, Object... args) {
+            switch (level) {
+                case DEBUG:
+                    logger.debug(format, args);
+                    break;
+                case WARN:
+                    logger.warn(format, args);
+                    break;
+                case ERROR:
+                    logger.error(format, args);
+                    break;
+                default:
+                    logger.info(format, args);
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.bloomberg.fxdeals.cache;
+
+import com.bloomberg.fxdeals.dto.DealResponse;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of GET /api/deals/{dealUniqueId}, so repeated point
+ * lookups are answered from memory.
+ *
+ * <p>Misses are cached too, as an empty Optional with a shorter TTL, so polling for an
+ * unknown id does not reach Postgres on every call. Writers keep it correct: a deal
+ * created through POST /api/deals is put in directly, and ids stored by the bulk paths
+ * are invalidated rather than loaded, so a large import does not evict the hot set.
+ *
+ * <p>Entries are futures (an {@link AsyncCache}) so that a lookup runs on the calling
+ * thread, outside the map's per-bin lock: a synchronous cache would run it inside
+ * {@code ConcurrentHashMap.compute}, holding a monitor for the whole database round
+ * trip, which pins a virtual thread's carrier and blocks other ids in the same bin.
+ *
+ * <p>Hits, misses and evictions are published as cache.* meters tagged cache=deals.
+ */
+@Component
+@Profile("!reactive")
+public class DealLookupCache {
+
+    static final String NAME = "deals";
+
+    private final AsyncCache<String, Optional<DealResponse>> cache;
+
+    public DealLookupCache(MeterRegistry registry,
+                           @Value("${fxdeals.cache.max-size:100000}") long maxSize,
+                           @Value("${fxdeals.cache.ttl-ms:600000}") long ttlMillis,
+                           @Value("${fxdeals.cache.negative-ttl-ms:5000}") long negativeTtlMillis) {
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        long negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, Optional<DealResponse>>() {
+                @Override
+                public long expireAfterCreate(String key, Optional<DealResponse> value, long currentTime) {
+                    return value.isPresent() ? ttlNanos : negativeTtlNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Optional<DealResponse> value, long currentTime,
+                                              long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Optional<DealResponse> value, long currentTime,
+                                            long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+    }
+
+    /**
+     * The cached lookup, or the result of {@code loader} (cached either way). Concurrent
+     * calls for the same missing id share one load, run by the first of them; the
+     * others wait for it without holding any lock. A failed load is not cached.
+     */
+    public Optional<DealResponse> get(String dealUniqueId, Function<String, Optional<DealResponse>> loader) {
+        CompletableFuture<Optional<DealResponse>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<DealResponse>> cached = cache.get(dealUniqueId, (id, executor) -> created);
+        if (cached == created) {
+            try {
+                created.complete(loader.apply(dealUniqueId));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public void put(DealResponse deal) {
+        cache.put(deal.getDealUniqueId(), CompletableFuture.completedFuture(Optional.of(deal)));
+    }
+
+    /**
+     * Drops ids that were just stored, including cached misses for them.
+     */
+    public void invalidateAll(Collection<String> dealUniqueIds) {
+        if (!dealUniqueIds.isEmpty()) {
+            cache.synchronous().invalidateAll(dealUniqueIds);
+        }
+    }
+
+    /**
+     * Drops every cached miss, for writers that do not know which ids they stored, and
+     * every lookup still running, as it may have read before the write. Cached deals
+     * stay, since a write never changes a stored deal.
+     */
+    public void invalidateMisses() {
+        cache.asMap().values().removeIf(DealLookupCache::isMissOrLoading);
+    }
+
+    private static boolean isMissOrLoading(CompletableFuture<Optional<DealResponse>> lookup) {
+        return !lookup.isDone() || lookup.isCompletedExceptionally() || lookup.join().isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+package com.bloomberg.fxdeals.cache;
+
+import com.bloomberg.fxdeals.repository.DealRepository;
+import com.bloomberg.fxdeals.repository.IssuedIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the stored deals, used as the ETag of the listing endpoints so a client
+ * polling an unchanged page gets 304 without a query or a serialized body.
+ *
+ * <p>Writers on this instance call {@link #advance()} once their deals are committed.
+ * Writes made by other instances are picked up by polling deals_id_seq every
+ * {@code fxdeals.etag.poll-interval-ms}. The sequence moves when a row takes its id,
+ * before that row commits, so once it has moved the tag keeps changing on every poll
+ * until no transaction that was running at that point is left, one more time on the
+ * poll that sees them all finished. A remote insert is therefore seen within one poll
+ * interval of its commit, however long the transaction took (a bulk load takes its ids
+ * well before it commits). A long transaction anywhere in the database only delays the
+ * 304s, never serves a stale page.
+ *
+ * <p>Another instance adds its deals to deal_volume_rollups only at its next rollup
+ * flush, and a rebuild rewrites the table without inserting a deal, so
+ * {@link #statsEtag()} also follows deal_rollup_version_seq, which both move, and
+ * settles on it the same way.
+ *
+ * <p>Tags carry a random per-process prefix: they only ever match on the instance that
+ * issued them, and a restart invalidates them all.
+ */
+@Component
+@Profile("!reactive")
+public class DealsWatermark {
+
+    private static final Logger log = LoggerFactory.getLogger(DealsWatermark.class);
+
+    private final DealRepository dealRepository;
+    private final String instance = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+    private final AtomicLong localWrites = new AtomicLong();
+    private final SequenceWatch deals = new SequenceWatch();
+    private final SequenceWatch rollups = new SequenceWatch();
+
+    public DealsWatermark(DealRepository dealRepository) {
+        this.dealRepository = dealRepository;
+    }
+
+    /**
+     * Marks that deals were just committed by this instance.
+     */
+    public void advance() {
+        localWrites.incrementAndGet();
+    }
+
+    /**
+     * The current tag, unquoted. Equal tags mean no deal was stored in between.
+     */
+    public String etag() {
+        return instance + '-' + deals.generation + '-' + localWrites.get();
+    }
+
+    /**
+     * The current tag of the volume stats, unquoted. Equal tags mean neither a deal nor
+     * a rollup row was stored in between.
+     */
+    public String statsEtag() {
+        return instance + '-' + deals.generation + '.' + rollups.generation + '-' + localWrites.get();
+    }
+
+    @Scheduled(fixedDelayString = "${fxdeals.etag.poll-interval-ms:1000}")
+    public void poll() {
+        IssuedIds issued;
+        try {
+            issued = dealRepository.issuedIds();
+        } catch (RuntimeException e) {
+            // Remote writes cannot be ruled out, so no tag may match until the next poll
+            deals.generation++;
+            rollups.generation++;
+            log.debug("Reading deals_id_seq failed: {}", e.getMessage());
+            return;
+        }
+        deals.observe(issued.lastIssuedId(), issued);
+        rollups.observe(issued.lastRollupVersion(), issued);
+    }
+
+    /**
+     * One polled sequence and the generation it drives. Written by the polling thread only.
+     */
+    private static final class SequenceWatch {
+
+        private volatile long generation;
+        private long lastValue = -1;
+        // Transactions below this may still hold values up to lastValue uncommitted
+        private long horizon;
+        private boolean settling;
+
+        void observe(long value, IssuedIds issued) {
+            if (value != lastValue) {
+                lastValue = value;
+                horizon = issued.nextTransactionId();
+                settling = true;
+                generation++;
+            } else if (settling) {
+                // Also on the poll that finds them all done, as its tag must not match a
+                // page read while the last of them was still uncommitted
+                settling = issued.oldestRunningTransactionId() < horizon;
+                generation++;
+            }
+        }
+    }
+}
@@ -1,27 +1,90 @@
 package com.bloomberg.fxdeals.controller;
 
+import com.bloomberg.fxdeals.cache.DealsWatermark;
+import com.bloomberg.fxdeals.dto.BatchDealResponse;
+import com.bloomberg.fxdeals.dto.DealPage;
 import com.bloomberg.fxdeals.dto.DealRequest;
 import com.bloomberg.fxdeals.dto.DealResponse;
+import com.bloomberg.fxdeals.dto.DealSearchCriteria;
+import com.bloomberg.fxdeals.dto.IngestionReport;
+import com.bloomberg.fxdeals.dto.StreamingDealPage;
+import com.bloomberg.fxdeals.dto.VolumeBucket;
+import com.bloomberg.fxdeals.exception.DealNotFoundException;
+import com.bloomberg.fxdeals.exception.DealValidationException;
+import com.bloomberg.fxdeals.format.DealFileFormat;
+import com.bloomberg.fxdeals.journal.DealJournal;
+import com.bloomberg.fxdeals.metrics.DealMetrics;
+import com.bloomberg.fxdeals.model.CurrencyCodes;
 import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.pagination.KeysetCursor;
+import com.bloomberg.fxdeals.pagination.SearchCursor;
+import com.bloomberg.fxdeals.repository.DealSearchRow;
+import com.bloomberg.fxdeals.rollup.DealVolumeRollups;
+import com.bloomberg.fxdeals.rollup.Granularity;
+import com.bloomberg.fxdeals.service.DealExportService;
+import com.bloomberg.fxdeals.service.DealIngestionService;
+import com.bloomberg.fxdeals.service.DealMapper;
 import com.bloomberg.fxdeals.service.DealService;
 import com.bloomberg.fxdeals.validation.DealValidator;
+import com.bloomberg.fxdeals.validation.ValidationResult;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/deals")
 public class DealController {
 
     private final DealService dealService;
+    private final DealIngestionService dealIngestionService;
+    private final DealExportService dealExportService;
+    private final DealMetrics metrics;
+    private final DealVolumeRollups rollups;
+    private final DealsWatermark watermark;
+    // Only present with fxdeals.ingest.mode=journal
+    private final DealJournal dealJournal;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxStatsBuckets;
 
     @Autowired
-    public DealController(DealService dealService) {
+    public DealController(DealService dealService,
+                          DealIngestionService dealIngestionService,
+                          DealExportService dealExportService,
+                          DealMetrics metrics,
+                          DealVolumeRollups rollups,
+                          DealsWatermark watermark,
+                          ObjectProvider<DealJournal> dealJournal,
+                          @Value("${fxdeals.pagination.default-size:100}") int defaultPageSize,
+                          @Value("${fxdeals.pagination.max-size:1000}") int maxPageSize,
+                          @Value("${fxdeals.rollups.max-buckets:10000}") int maxStatsBuckets) {
         this.dealService = dealService;
+        this.dealIngestionService = dealIngestionService;
+        this.dealExportService = dealExportService;
+        this.metrics = metrics;
+        this.rollups = rollups;
+        this.watermark = watermark;
+        this.dealJournal = dealJournal.getIfAvailable();
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxStatsBuckets = maxStatsBuckets;
     }
     @GetMapping("/health")
     public ResponseEntity<String> health() {
@@ -30,45 +93,202 @@ public class DealController {
     @PostMapping
     public ResponseEntity<DealResponse> createDeal(@RequestBody DealRequest request) {
 
-      
-        DealValidator.validate(request);
+        ValidationResult validation = DealValidator.check(request);
+        if (!validation.isValid()) {
+            metrics.rejected(validation);
+            throw new DealValidationException(validation);
+        }
+
+        if (dealJournal != null) {
+            // Acknowledged once journaled; JournalFlusher writes it to the database later.
+            Deal deal = DealMapper.toDeal(request);
+            dealJournal.append(deal);
+            return new ResponseEntity<>(DealMapper.toResponse(deal), HttpStatus.ACCEPTED);
+        }
 
-      
         Deal deal = dealService.createDeal(request);
 
-    
-        DealResponse response = new DealResponse();
-        response.setDealUniqueId(deal.getDealUniqueId());
-        response.setFromCurrency(deal.getFromCurrency());
-        response.setToCurrency(deal.getToCurrency());
-        response.setDealAmount(deal.getDealAmount());
-        response.setDealTimestamp(deal.getDealTimestamp());
-
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return new ResponseEntity<>(DealMapper.toResponse(deal), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchDealResponse> createDeals(@RequestBody List<DealRequest> requests) {
+
+        // Validation is per item here: one bad row must not reject the whole batch.
+        BatchDealResponse response = dealService.createDeals(requests);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/ingest")
+    public ResponseEntity<IngestionReport> ingestDeals(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) MediaType contentType,
+            @RequestParam(defaultValue = "false") boolean copy,
+            @RequestParam(defaultValue = "false") boolean backfill,
+            InputStream body) throws IOException {
+
+        // The body is read line by line by the service, never bound as a whole.
+        DealFileFormat format = DealFileFormat.fromMediaType(contentType)
+            .orElseThrow(() -> new IllegalArgumentException(
+                "Unsupported Content-Type. Use application/x-ndjson or text/csv"));
+        if (backfill && !copy) {
+            throw new IllegalArgumentException("backfill=true requires copy=true");
+        }
+
+        IngestionReport report = copy
+            ? dealIngestionService.bulkLoad(body, format, backfill)
+            : dealIngestionService.ingest(body, format);
+
+        return ResponseEntity.ok(report);
     }
 
     @GetMapping
-    public ResponseEntity<List<DealResponse>> getAllDeals() {
-        
-        
-        List<Deal> deals = dealService.getAllDeals();
-        
-       
-        List<DealResponse> responses = deals.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<StreamingDealPage> getDeals(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) {
+
+        int requested = size == null ? defaultPageSize : size;
+        if (requested <= 0) {
+            throw new IllegalArgumentException("size must be greater than 0");
+        }
+        int pageSize = Math.min(requested, maxPageSize);
+        long after = KeysetCursor.decode(cursor);
+        if (notModified(request, watermark.etag())) {
+            return null;
+        }
+
+        // Rows are written to the response as Jackson serializes the page. One extra
+        // row tells us whether another page exists without a count query.
+        return ResponseEntity.ok(new StreamingDealPage(pageSize,
+            callback -> dealService.forEachDealAfter(after, pageSize + 1, callback)));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<DealPage> searchDeals(
+            @RequestParam(required = false) String fromCurrency,
+            @RequestParam(required = false) String toCurrency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) {
+
+        // The window bounds the partitions and index ranges a search can touch.
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to are required");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (fromCurrency != null && !CurrencyCodes.isSupported(fromCurrency)
+                || toCurrency != null && !CurrencyCodes.isSupported(toCurrency)) {
+            throw new IllegalArgumentException("Unsupported currency");
+        }
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("size must be greater than 0");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+        SearchCursor after = SearchCursor.decode(cursor);
+        if (notModified(request, watermark.etag())) {
+            return null;
+        }
+
+        DealSearchCriteria criteria = new DealSearchCriteria(fromCurrency, toCurrency, from, to, minAmount, maxAmount);
+        // One extra row tells us whether another page exists without a count query.
+        List<DealSearchRow> rows = dealService.searchDeals(criteria, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            DealSearchRow last = rows.get(pageSize - 1);
+            nextCursor = new SearchCursor(last.deal().getDealTimestamp(), last.id()).encode();
+        }
+
+        List<DealResponse> responses = new ArrayList<>(rows.size());
+        for (DealSearchRow row : rows) {
+            responses.add(row.deal());
+        }
+
+        return ResponseEntity.ok(new DealPage(responses, nextCursor));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<VolumeBucket>> getStats(
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(required = false) String fromCurrency,
+            @RequestParam(required = false) String toCurrency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            WebRequest request) {
+
+        Granularity bucketSize = Granularity.fromName(granularity)
+            .orElseThrow(() -> new IllegalArgumentException("Unsupported granularity. Use minute, hour or day"));
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to are required");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (fromCurrency != null && !CurrencyCodes.isSupported(fromCurrency)
+                || toCurrency != null && !CurrencyCodes.isSupported(toCurrency)) {
+            throw new IllegalArgumentException("Unsupported currency");
+        }
+        // Cost is one row per bucket, so bound the buckets rather than the deals
+        if (bucketSize.bucketsBetween(from, to) > maxStatsBuckets) {
+            throw new IllegalArgumentException("Too many buckets; use a shorter window or a larger granularity");
+        }
+        if (notModified(request, watermark.statsEtag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok(rollups.find(bucketSize, fromCurrency, toCurrency, from, to));
+    }
+
+    @GetMapping("/{dealUniqueId}")
+    public ResponseEntity<DealResponse> getDeal(@PathVariable String dealUniqueId) {
+
+        DealResponse deal = dealService.findDeal(dealUniqueId)
+            .orElseThrow(() -> new DealNotFoundException(dealUniqueId));
+
+        return ResponseEntity.ok(deal);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDeals(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        DealFileFormat fileFormat = DealFileFormat.fromName(format)
+            .orElseThrow(() -> new IllegalArgumentException("Unsupported format. Use ndjson or csv"));
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+
+        // Rows are written from the database cursor on the async thread, as they are read.
+        StreamingResponseBody body = out -> dealExportService.export(fileFormat, from, to, out);
+
+        return ResponseEntity.ok()
+            .contentType(fileFormat.getMediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"deals." + fileFormat.name().toLowerCase() + "\"")
+            .body(body);
     }
     
     
-    private DealResponse convertToResponse(Deal deal) {
-        DealResponse response = new DealResponse();
-        response.setDealUniqueId(deal.getDealUniqueId());
-        response.setFromCurrency(deal.getFromCurrency());
-        response.setToCurrency(deal.getToCurrency());
-        response.setDealAmount(deal.getDealAmount());
-        response.setDealTimestamp(deal.getDealTimestamp());
-        return response;
+    /**
+     * Sets the ETag to a watermark tag and answers 304 when If-None-Match still holds it.
+     * The tag is taken before the read, so a write that lands in between is at worst
+     * served under the older tag and fetched again on the next poll.
+     */
+    private boolean notModified(WebRequest request, String etag) {
+        return request.checkNotModified(etag);
     }
 }
\ No newline at end of file
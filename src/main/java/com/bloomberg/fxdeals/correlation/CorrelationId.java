@@ -0,0 +1,67 @@
+package com.bloomberg.fxdeals.correlation;
+
+import org.slf4j.MDC;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The id that ties together every log line and the error body of one request. It is
+ * taken from the X-Correlation-Id request header when the caller sends a usable one,
+ * otherwise generated, and kept in the MDC under {@value #MDC_KEY} while the request
+ * is handled.
+ */
+public final class CorrelationId {
+
+    public static final String HEADER = "X-Correlation-Id";
+    public static final String MDC_KEY = "correlationId";
+
+    // Caller-supplied ids end up in logs and response headers: keep them short and inert
+    private static final int MAX_LENGTH = 64;
+
+    private CorrelationId() {
+    }
+
+    /**
+     * The id of the request being handled on this thread, or null outside a request.
+     */
+    public static String current() {
+        return MDC.get(MDC_KEY);
+    }
+
+    /**
+     * A random version 4 UUID drawn from ThreadLocalRandom. Unlike UUID.randomUUID()
+     * it never touches the shared SecureRandom, so it neither blocks on entropy nor
+     * contends between request threads; a correlation id needs to be unique, not
+     * unguessable.
+     */
+    public static String generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    /**
+     * {@code incoming} if it is a usable id (1-64 chars of letters, digits and
+     * {@code - _ . :}), otherwise a newly generated one.
+     */
+    public static String fromHeader(String incoming) {
+        return isValid(incoming) ? incoming : generate();
+    }
+
+    static boolean isValid(String value) {
+        if (value == null || value.isEmpty() || value.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == ':';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
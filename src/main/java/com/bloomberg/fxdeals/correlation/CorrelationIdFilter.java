@@ -0,0 +1,63 @@
+package com.bloomberg.fxdeals.correlation;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Assigns each request its {@link CorrelationId}, first thing, so that every log line
+ * written while handling it carries the same id. The id is echoed in the response
+ * header before the body is written, which keeps it there for streamed responses too.
+ * Work handed to the application task executor keeps the id through
+ * {@link MdcTaskDecorator}.
+ *
+ * <p>The id is also kept as a request attribute and put back in the MDC on the async
+ * and error dispatches of the same request, which OncePerRequestFilter would skip: an
+ * export that fails after its handler returned is answered on such a dispatch, and its
+ * error body must carry the id the header already announced.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    static final String ATTRIBUTE = CorrelationIdFilter.class.getName() + ".ID";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String correlationId = (String) request.getAttribute(ATTRIBUTE);
+        if (correlationId == null) {
+            correlationId = CorrelationId.fromHeader(request.getHeader(CorrelationId.HEADER));
+            request.setAttribute(ATTRIBUTE, correlationId);
+            response.setHeader(CorrelationId.HEADER, correlationId);
+        }
+
+        MDC.put(CorrelationId.MDC_KEY, correlationId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(CorrelationId.MDC_KEY);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bloomberg.fxdeals.correlation;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * The reactive counterpart of {@link CorrelationIdFilter}. A request hops between
+ * event-loop threads, so the id travels in the Reactor context under
+ * {@link CorrelationId#MDC_KEY} instead of the MDC.
+ */
+@Component
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReactiveCorrelationIdFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String correlationId = CorrelationId.fromHeader(
+            exchange.getRequest().getHeaders().getFirst(CorrelationId.HEADER));
+        exchange.getResponse().getHeaders().set(CorrelationId.HEADER, correlationId);
+
+        return chain.filter(exchange)
+            .contextWrite(context -> context.put(CorrelationId.MDC_KEY, correlationId));
+    }
+}
@@ -0,0 +1,37 @@
+package com.bloomberg.fxdeals.dto;
+
+import java.util.List;
+
+public class BatchDealResponse {
+
+    private final int received;
+    private final int created;
+    private final int duplicates;
+    private final int invalid;
+    private final List<BatchDealResult> results;
+
+    public BatchDealResponse(List<BatchDealResult> results) {
+        int createdCount = 0;
+        int duplicateCount = 0;
+        int invalidCount = 0;
+        for (BatchDealResult result : results) {
+            switch (result.getStatus()) {
+                case CREATED -> createdCount++;
+                case DUPLICATE -> duplicateCount++;
+                case INVALID -> invalidCount++;
+            }
+        }
+        this.received = results.size();
+        this.created = createdCount;
+        this.duplicates = duplicateCount;
+        this.invalid = invalidCount;
+        this.results = results;
+    }
+
+
+    public int getReceived() { return received; }
+    public int getCreated() { return created; }
+    public int getDuplicates() { return duplicates; }
+    public int getInvalid() { return invalid; }
+    public List<BatchDealResult> getResults() { return results; }
+}
@@ -0,0 +1,37 @@
+package com.bloomberg.fxdeals.dto;
+
+public class BatchDealResult {
+
+    public enum Status { CREATED, DUPLICATE, INVALID }
+
+    private final int index;
+    private final String dealUniqueId;
+    private final Status status;
+    private final String message;
+
+    public BatchDealResult(int index, String dealUniqueId, Status status, String message) {
+        this.index = index;
+        this.dealUniqueId = dealUniqueId;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BatchDealResult created(int index, String dealUniqueId) {
+        return new BatchDealResult(index, dealUniqueId, Status.CREATED, null);
+    }
+
+    public static BatchDealResult duplicate(int index, String dealUniqueId) {
+        return new BatchDealResult(index, dealUniqueId, Status.DUPLICATE,
+            "Deal already exists with ID: " + dealUniqueId);
+    }
+
+    public static BatchDealResult invalid(int index, String dealUniqueId, String message) {
+        return new BatchDealResult(index, dealUniqueId, Status.INVALID, message);
+    }
+
+
+    public int getIndex() { return index; }
+    public String getDealUniqueId() { return dealUniqueId; }
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,19 @@
+package com.bloomberg.fxdeals.dto;
+
+import java.util.List;
+
+public class DealPage {
+
+    private final List<DealResponse> items;
+    private final String nextCursor;
+
+    public DealPage(List<DealResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+
+    public List<DealResponse> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return nextCursor != null; }
+}
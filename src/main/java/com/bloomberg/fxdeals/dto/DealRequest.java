@@ -52,4 +52,10 @@ public class DealRequest {
     public void setDealTimestamp(LocalDateTime dealTimestamp) {
         this.dealTimestamp = dealTimestamp;
     }
-}
\ No newline at end of file
+
+    @Override
+    public String toString() {
+        return "DealRequest{dealUniqueId='" + dealUniqueId + "', " + fromCurrency + "/" + toCurrency
+            + " " + dealAmount + " at " + dealTimestamp + "}";
+    }
+}
@@ -0,0 +1,16 @@
+package com.bloomberg.fxdeals.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Filters of GET /api/deals/search. The time window [from, to) is required; a null
+ * currency or amount bound leaves that filter out of the query.
+ */
+public record DealSearchCriteria(String fromCurrency,
+                                 String toCurrency,
+                                 LocalDateTime from,
+                                 LocalDateTime to,
+                                 BigDecimal minAmount,
+                                 BigDecimal maxAmount) {
+}
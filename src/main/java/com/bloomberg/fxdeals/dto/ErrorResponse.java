@@ -1,5 +1,8 @@
 package com.bloomberg.fxdeals.dto;
 
+import com.bloomberg.fxdeals.correlation.CorrelationId;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 
 public class ErrorResponse {
@@ -8,12 +11,22 @@ public class ErrorResponse {
     private int status;
     private String error;
     private String message;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String correlationId;
 
+    /**
+     * Takes the correlation id of the request handled on the current thread.
+     */
     public ErrorResponse(int status, String error, String message) {
+        this(status, error, message, CorrelationId.current());
+    }
+
+    public ErrorResponse(int status, String error, String message, String correlationId) {
         this.timestamp = LocalDateTime.now();
         this.status = status;
         this.error = error;
         this.message = message;
+        this.correlationId = correlationId;
     }
 
 
@@ -21,4 +34,5 @@ public class ErrorResponse {
     public int getStatus() { return status; }
     public String getError() { return error; }
     public String getMessage() { return message; }
+    public String getCorrelationId() { return correlationId; }
 }
\ No newline at end of file
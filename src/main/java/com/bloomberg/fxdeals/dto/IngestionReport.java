@@ -0,0 +1,68 @@
+package com.bloomberg.fxdeals.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public class IngestionReport {
+
+    public static class RejectedLine {
+
+        private final long line;
+        private final String message;
+
+        public RejectedLine(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+    }
+
+    private final long rowsRead;
+    private final long created;
+    private final long duplicates;
+    private final long rejected;
+    private final List<RejectedLine> rejectedLines;
+    private final boolean rejectedLinesTruncated;
+    // Only the COPY bulk load knows the lines of skipped duplicates
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final List<Long> duplicateLines;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Boolean duplicateLinesTruncated;
+    private final long elapsedMillis;
+    private final long rowsPerSecond;
+
+    public IngestionReport(long rowsRead, long created, long duplicates, long rejected,
+                           List<RejectedLine> rejectedLines, long elapsedNanos) {
+        this(rowsRead, created, duplicates, rejected, rejectedLines, null, elapsedNanos);
+    }
+
+    public IngestionReport(long rowsRead, long created, long duplicates, long rejected,
+                           List<RejectedLine> rejectedLines, List<Long> duplicateLines, long elapsedNanos) {
+        this.rowsRead = rowsRead;
+        this.created = created;
+        this.duplicates = duplicates;
+        this.rejected = rejected;
+        this.rejectedLines = rejectedLines;
+        this.rejectedLinesTruncated = rejectedLines.size() < rejected;
+        this.duplicateLines = duplicateLines;
+        this.duplicateLinesTruncated = duplicateLines == null ? null : duplicateLines.size() < duplicates;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+        this.rowsPerSecond = elapsedNanos > 0 ? rowsRead * 1_000_000_000L / elapsedNanos : rowsRead;
+    }
+
+
+    public long getRowsRead() { return rowsRead; }
+    public long getCreated() { return created; }
+    public long getDuplicates() { return duplicates; }
+    public long getRejected() { return rejected; }
+    public List<RejectedLine> getRejectedLines() { return rejectedLines; }
+    public boolean isRejectedLinesTruncated() { return rejectedLinesTruncated; }
+    public List<Long> getDuplicateLines() { return duplicateLines; }
+    public Boolean getDuplicateLinesTruncated() { return duplicateLinesTruncated; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public long getRowsPerSecond() { return rowsPerSecond; }
+}
@@ -0,0 +1,89 @@
+package com.bloomberg.fxdeals.dto;
+
+import com.bloomberg.fxdeals.format.DealJson;
+import com.bloomberg.fxdeals.pagination.KeysetCursor;
+import com.bloomberg.fxdeals.repository.DealRowCallback;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A {@link DealPage} that is not built in memory: when Jackson serializes it, the page
+ * query runs and every row is written to the response generator as it is read, with
+ * no entity, DTO or list in between. The JSON is the same as DealPage's.
+ *
+ * <p>The source is asked for one row more than the page size; that row only decides
+ * nextCursor and hasMore, which therefore come after items.
+ */
+public class StreamingDealPage implements JsonSerializable {
+
+    /**
+     * Runs the page query, handing each row to the callback.
+     */
+    @FunctionalInterface
+    public interface RowSource {
+        void forEach(DealRowCallback callback);
+    }
+
+    private final int pageSize;
+    private final RowSource rows;
+
+    public StreamingDealPage(int pageSize, RowSource rows) {
+        this.pageSize = pageSize;
+        this.rows = rows;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        ItemWriter items = new ItemWriter(generator);
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("items");
+        try {
+            rows.forEach(items);
+        } catch (UncheckedIOException e) {
+            // The client went away mid-page
+            throw e.getCause();
+        }
+        generator.writeEndArray();
+        generator.writeStringField("nextCursor", items.hasMore ? KeysetCursor.encode(items.lastId) : null);
+        generator.writeBooleanField("hasMore", items.hasMore);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(generator, serializers);
+    }
+
+    private final class ItemWriter implements DealRowCallback {
+
+        private final JsonGenerator generator;
+        private final DealJson json = new DealJson();
+        private int written;
+        private long lastId;
+        private boolean hasMore;
+
+        ItemWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void row(long id, String dealUniqueId, String fromCurrency, String toCurrency,
+                        BigDecimal dealAmount, LocalDateTime dealTimestamp) throws IOException {
+            if (written == pageSize) {
+                hasMore = true;
+                return;
+            }
+            json.write(generator, dealUniqueId, fromCurrency, toCurrency, dealAmount, dealTimestamp);
+            lastId = id;
+            written++;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.bloomberg.fxdeals.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Deal count and total notional of one currency pair in one time bucket.
+ */
+public class VolumeBucket {
+
+    private final String fromCurrency;
+    private final String toCurrency;
+    private final LocalDateTime bucketStart;
+    private final long dealCount;
+    private final BigDecimal totalAmount;
+
+    public VolumeBucket(String fromCurrency, String toCurrency, LocalDateTime bucketStart,
+                        long dealCount, BigDecimal totalAmount) {
+        this.fromCurrency = fromCurrency;
+        this.toCurrency = toCurrency;
+        this.bucketStart = bucketStart;
+        this.dealCount = dealCount;
+        this.totalAmount = totalAmount;
+    }
+
+    public String getFromCurrency() { return fromCurrency; }
+    public String getToCurrency() { return toCurrency; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public long getDealCount() { return dealCount; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+}
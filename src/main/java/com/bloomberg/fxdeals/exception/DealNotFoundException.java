@@ -0,0 +1,19 @@
+package com.bloomberg.fxdeals.exception;
+
+/**
+ * No deal is stored under the requested dealUniqueId; answered with 404. Stackless
+ * for the same reason as {@link DealValidationException}.
+ */
+public class DealNotFoundException extends RuntimeException {
+
+    private final String dealUniqueId;
+
+    public DealNotFoundException(String dealUniqueId) {
+        super("Deal not found with ID: " + dealUniqueId, null, false, false);
+        this.dealUniqueId = dealUniqueId;
+    }
+
+    public String getDealUniqueId() {
+        return dealUniqueId;
+    }
+}
@@ -0,0 +1,28 @@
+package com.bloomberg.fxdeals.exception;
+
+import com.bloomberg.fxdeals.validation.ValidationResult;
+
+/**
+ * A deal broke a validation rule. Carries no stack trace: it is an expected outcome
+ * answered with 400, and filling in the trace used to be most of the cost of a
+ * rejected request. Still an IllegalArgumentException, so existing handlers and
+ * callers treat it as before.
+ */
+public class DealValidationException extends IllegalArgumentException {
+
+    private final ValidationResult result;
+
+    public DealValidationException(ValidationResult result) {
+        super(result.getMessage());
+        this.result = result;
+    }
+
+    public ValidationResult getResult() {
+        return result;
+    }
+
+    @Override
+    public Throwable fillInStackTrace() {
+        return this;
+    }
+}
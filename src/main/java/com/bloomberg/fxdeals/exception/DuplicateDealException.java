@@ -0,0 +1,19 @@
+package com.bloomberg.fxdeals.exception;
+
+/**
+ * A deal with the same dealUniqueId is already stored; answered with 409. Stackless
+ * for the same reason as {@link DealValidationException}.
+ */
+public class DuplicateDealException extends RuntimeException {
+
+    private final String dealUniqueId;
+
+    public DuplicateDealException(String dealUniqueId) {
+        super("Deal already exists with ID: " + dealUniqueId, null, false, false);
+        this.dealUniqueId = dealUniqueId;
+    }
+
+    public String getDealUniqueId() {
+        return dealUniqueId;
+    }
+}
@@ -1,15 +1,63 @@
 package com.bloomberg.fxdeals.exception;
 
+import com.bloomberg.fxdeals.correlation.CorrelationId;
 import com.bloomberg.fxdeals.dto.ErrorResponse;
+import com.bloomberg.fxdeals.journal.JournalFullException;
+import com.bloomberg.fxdeals.validation.ValidationResult;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Rejections are answered from pre-rendered bodies: no Jackson, no string matching
+    private static final Map<ValidationResult, ErrorBodyTemplate> VALIDATION_BODIES = new EnumMap<>(ValidationResult.class);
+    private static final ErrorBodyTemplate DUPLICATE_BODY =
+        new ErrorBodyTemplate(HttpStatus.CONFLICT, "CONFLICT", "Deal already exists with ID: ");
+    private static final ErrorBodyTemplate NOT_FOUND_BODY =
+        new ErrorBodyTemplate(HttpStatus.NOT_FOUND, "NOT_FOUND", "Deal not found with ID: ");
+    private static final HttpHeaders JSON_HEADERS;
+
+
+    static {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        JSON_HEADERS = HttpHeaders.readOnlyHttpHeaders(headers);
+
+        for (ValidationResult result : ValidationResult.values()) {
+            if (!result.isValid()) {
+                VALIDATION_BODIES.put(result,
+                    new ErrorBodyTemplate(HttpStatus.BAD_REQUEST, "BAD_REQUEST", result.getMessage()));
+            }
+        }
+    }
+
+    @ExceptionHandler(DealValidationException.class)
+    public ResponseEntity<byte[]> handleValidation(DealValidationException ex) {
+        ErrorBodyTemplate template = VALIDATION_BODIES.get(ex.getResult());
+        return new ResponseEntity<>(template.render(CorrelationId.current()), JSON_HEADERS, template.getStatus());
+    }
+
+    @ExceptionHandler(DuplicateDealException.class)
+    public ResponseEntity<byte[]> handleDuplicate(DuplicateDealException ex) {
+        byte[] body = DUPLICATE_BODY.render(ex.getDealUniqueId(), CorrelationId.current());
+        return new ResponseEntity<>(body, JSON_HEADERS, DUPLICATE_BODY.getStatus());
+    }
+
+    @ExceptionHandler(DealNotFoundException.class)
+    public ResponseEntity<byte[]> handleNotFound(DealNotFoundException ex) {
+        byte[] body = NOT_FOUND_BODY.render(ex.getDealUniqueId(), CorrelationId.current());
+        return new ResponseEntity<>(body, JSON_HEADERS, NOT_FOUND_BODY.getStatus());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex) {
         ErrorResponse error = new ErrorResponse(
@@ -20,19 +68,30 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(PayloadTooLargeException.class)
+    public ResponseEntity<ErrorResponse> handlePayloadTooLarge(PayloadTooLargeException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.PAYLOAD_TOO_LARGE.value(),
+            "PAYLOAD_TOO_LARGE",
+            ex.getMessage()
+        );
+        return new ResponseEntity<>(error, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(JournalFullException.class)
+    public ResponseEntity<ErrorResponse> handleJournalFull(JournalFullException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "SERVICE_UNAVAILABLE",
+            ex.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(error);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntime(RuntimeException ex) {
-        
-        if (ex.getMessage() != null && ex.getMessage().contains("already exists")) {
-            ErrorResponse error = new ErrorResponse(
-                HttpStatus.CONFLICT.value(),
-                "CONFLICT",
-                ex.getMessage()
-            );
-            return new ResponseEntity<>(error, HttpStatus.CONFLICT);
-        }
-        
-        
         ErrorResponse error = new ErrorResponse(
             HttpStatus.INTERNAL_SERVER_ERROR.value(),
             "INTERNAL_ERROR",
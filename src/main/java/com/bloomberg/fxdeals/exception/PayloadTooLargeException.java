@@ -0,0 +1,16 @@
+package com.bloomberg.fxdeals.exception;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * A request body is over the size its converter buffers; answered with 413. Still an
+ * {@link HttpMessageNotReadableException}, so anything that does not know this type
+ * treats it as an unreadable body.
+ */
+public class PayloadTooLargeException extends HttpMessageNotReadableException {
+
+    public PayloadTooLargeException(String message, HttpInputMessage inputMessage) {
+        super(message, inputMessage);
+    }
+}
@@ -0,0 +1,99 @@
+package com.bloomberg.fxdeals.format;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses comma separated deals in the column order of {@link DealFileFormat#CSV_HEADER}.
+ * Fields may be wrapped in double quotes, with "" standing for a literal quote.
+ */
+public class CsvDealLineParser implements DealLineParser {
+
+    private static final int COLUMNS = 5;
+
+    @Override
+    public boolean isHeader(String line, long lineNumber) {
+        return lineNumber == 1 && line.trim().equalsIgnoreCase(DealFileFormat.CSV_HEADER);
+    }
+
+    @Override
+    public DealRequest parse(String line) {
+        List<String> fields = split(line);
+        if (fields.size() != COLUMNS) {
+            throw new IllegalArgumentException(
+                "Expected " + COLUMNS + " columns but found " + fields.size());
+        }
+
+        DealRequest request = new DealRequest();
+        request.setDealUniqueId(emptyToNull(fields.get(0)));
+        request.setFromCurrency(emptyToNull(fields.get(1)));
+        request.setToCurrency(emptyToNull(fields.get(2)));
+        request.setDealAmount(parseAmount(emptyToNull(fields.get(3))));
+        request.setDealTimestamp(parseTimestamp(emptyToNull(fields.get(4))));
+        return request;
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number format for amount");
+        }
+    }
+
+    private static LocalDateTime parseTimestamp(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(
+                "Invalid timestamp format. Use: yyyy-MM-ddTHH:mm:ss (e.g., 2024-02-16T10:30:00)");
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,63 @@
+package com.bloomberg.fxdeals.format;
+
+import com.bloomberg.fxdeals.model.Deal;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes {@link DealFileFormat#CSV_HEADER} followed by one line per deal, so an
+ * export can be fed straight back into {@link CsvDealLineParser}.
+ */
+public class CsvDealRecordWriter implements DealRecordWriter {
+
+    private final Writer writer;
+
+    public CsvDealRecordWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(DealFileFormat.CSV_HEADER);
+        writer.write('\n');
+    }
+
+    @Override
+    public void write(Deal deal) throws IOException {
+        appendLine(writer, deal);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Appends one CSV line, newline included. Shared with the reactive export, which
+     * renders each deal into its own buffer instead of a single writer.
+     */
+    public static void appendLine(Appendable out, Deal deal) throws IOException {
+        appendField(out, deal.getDealUniqueId());
+        out.append(',');
+        out.append(deal.getFromCurrency());
+        out.append(',');
+        out.append(deal.getToCurrency());
+        out.append(',');
+        out.append(deal.getDealAmount().toPlainString());
+        out.append(',');
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(deal.getDealTimestamp(), out);
+        out.append('\n');
+    }
+
+    private static void appendField(Appendable out, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        out.append(value.replace("\"", "\"\""));
+        out.append('"');
+    }
+}
@@ -0,0 +1,135 @@
+package com.bloomberg.fxdeals.format;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+import org.springframework.http.MediaType;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Binary deal record accepted by POST /api/deals and /api/deals/batch with
+ * {@code Content-Type: application/x-fxdeal}. A body holds one record, or for the
+ * batch any number of records back to back. Big-endian:
+ *
+ * <pre>
+ * u16   idLength
+ * bytes dealUniqueId    UTF-8, idLength bytes
+ * 3     fromCurrency    ASCII
+ * 3     toCurrency      ASCII
+ * u8    amountScale     dealAmount = amountUnscaled / 10^amountScale
+ * i64   amountUnscaled
+ * i64   dealTimestamp   microseconds since 1970-01-01T00:00:00, on the same
+ *                       zone-less clock as the JSON dealTimestamp
+ * </pre>
+ *
+ * Every record is 25 bytes plus the id. Unlike JSON, no field can be missing; the
+ * values still go through DealValidator. Text that is not valid UTF-8 (or ASCII for
+ * the currencies) is refused rather than replaced, so a deal is never stored under an
+ * id the client did not send.
+ */
+public final class DealBinaryCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-fxdeal";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    static final int FIXED_BYTES = 2 + 3 + 3 + 1 + 8 + 8;
+
+    private static final long MICROS_PER_SECOND = 1_000_000;
+
+    private DealBinaryCodec() {
+    }
+
+    public static byte[] encode(List<DealRequest> deals) {
+        byte[][] ids = new byte[deals.size()][];
+        int size = 0;
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = deals.get(i).getDealUniqueId().getBytes(StandardCharsets.UTF_8);
+            size += FIXED_BYTES + ids[i].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (int i = 0; i < ids.length; i++) {
+            put(buffer, ids[i], deals.get(i));
+        }
+        return buffer.array();
+    }
+
+    public static byte[] encode(DealRequest deal) {
+        return encode(List.of(deal));
+    }
+
+    /**
+     * Reads one record starting at the buffer's position, leaving it just past the
+     * record.
+     *
+     * @throws BufferUnderflowException if the record is cut short
+     * @throws CharacterCodingException if the id or a currency is not valid text
+     */
+    public static DealRequest decode(ByteBuffer buffer) throws CharacterCodingException {
+        DealRequest deal = new DealRequest();
+        int idLength = Short.toUnsignedInt(buffer.getShort());
+        deal.setDealUniqueId(getString(buffer, idLength, StandardCharsets.UTF_8));
+        deal.setFromCurrency(getString(buffer, 3, StandardCharsets.US_ASCII));
+        deal.setToCurrency(getString(buffer, 3, StandardCharsets.US_ASCII));
+        int scale = Byte.toUnsignedInt(buffer.get());
+        deal.setDealAmount(BigDecimal.valueOf(buffer.getLong(), scale));
+        long micros = buffer.getLong();
+        deal.setDealTimestamp(LocalDateTime.ofEpochSecond(
+            Math.floorDiv(micros, MICROS_PER_SECOND),
+            (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1000,
+            ZoneOffset.UTC));
+        return deal;
+    }
+
+    private static void put(ByteBuffer buffer, byte[] id, DealRequest deal) {
+        if (id.length > 0xFFFF) {
+            throw new IllegalArgumentException("dealUniqueId too long: " + id.length + " bytes");
+        }
+        buffer.putShort((short) id.length);
+        buffer.put(id);
+        putCurrency(buffer, deal.getFromCurrency());
+        putCurrency(buffer, deal.getToCurrency());
+        BigDecimal amount = deal.getDealAmount();
+        if (amount.scale() < 0) {
+            amount = amount.setScale(0);
+        }
+        if (amount.scale() > 0xFF || amount.unscaledValue().bitLength() > 63) {
+            throw new IllegalArgumentException("dealAmount does not fit the binary record: " + amount);
+        }
+        buffer.put((byte) amount.scale());
+        buffer.putLong(amount.unscaledValue().longValue());
+        LocalDateTime timestamp = deal.getDealTimestamp();
+        buffer.putLong(Math.addExact(
+            Math.multiplyExact(timestamp.toEpochSecond(ZoneOffset.UTC), MICROS_PER_SECOND),
+            timestamp.getNano() / 1000));
+    }
+
+    private static void putCurrency(ByteBuffer buffer, String currency) {
+        if (currency.length() != 3) {
+            throw new IllegalArgumentException("Currency must be 3 letters: " + currency);
+        }
+        for (int i = 0; i < 3; i++) {
+            buffer.put((byte) currency.charAt(i));
+        }
+    }
+
+    private static String getString(ByteBuffer buffer, int length, Charset charset) throws CharacterCodingException {
+        if (buffer.remaining() < length) {
+            throw new BufferUnderflowException();
+        }
+        String value = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT)
+            .decode(buffer.slice(buffer.position(), length))
+            .toString();
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
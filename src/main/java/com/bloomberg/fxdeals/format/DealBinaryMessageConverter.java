@@ -0,0 +1,123 @@
+package com.bloomberg.fxdeals.format;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.exception.PayloadTooLargeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads {@link DealBinaryCodec} bodies into the same {@code DealRequest} and
+ * {@code List<DealRequest>} the JSON converter produces, so the handlers do not know
+ * which one was used, and writes those types back for clients sending them. The
+ * endpoints answer with response DTOs, so responses stay JSON.
+ *
+ * <p>A body is buffered whole before it is decoded, so it is refused with 413 past
+ * {@code fxdeals.binary.max-body-bytes}: up front when Content-Length says so,
+ * otherwise once one byte more than the limit has been read.
+ */
+@Component
+@Profile("!reactive")
+public class DealBinaryMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final int maxBodyBytes;
+
+    public DealBinaryMessageConverter(@Value("${fxdeals.binary.max-body-bytes:8388608}") int maxBodyBytes) {
+        super(DealBinaryCodec.MEDIA_TYPE);
+        // read() asks for one byte past the limit to tell a full body from a longer one
+        if (maxBodyBytes <= 0 || maxBodyBytes == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                "fxdeals.binary.max-body-bytes must be between 1 and " + (Integer.MAX_VALUE - 1));
+        }
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == DealRequest.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return (type == DealRequest.class || isDealRequestList(type)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (type == DealRequest.class || isDealRequestList(type)) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        long declared = inputMessage.getHeaders().getContentLength();
+        if (declared > maxBodyBytes) {
+            throw tooLarge(inputMessage);
+        }
+        byte[] bytes = inputMessage.getBody().readNBytes(maxBodyBytes + 1);
+        if (bytes.length > maxBodyBytes) {
+            throw tooLarge(inputMessage);
+        }
+        ByteBuffer body = ByteBuffer.wrap(bytes);
+        try {
+            if (type == DealRequest.class) {
+                DealRequest deal = DealBinaryCodec.decode(body);
+                if (body.hasRemaining()) {
+                    throw new HttpMessageNotReadableException("Trailing bytes after the deal record", inputMessage);
+                }
+                return deal;
+            }
+            List<DealRequest> deals = new ArrayList<>();
+            while (body.hasRemaining()) {
+                deals.add(DealBinaryCodec.decode(body));
+            }
+            return deals;
+        } catch (BufferUnderflowException e) {
+            throw new HttpMessageNotReadableException("Truncated deal record", e, inputMessage);
+        } catch (DateTimeException e) {
+            throw new HttpMessageNotReadableException("dealTimestamp out of range in deal record", e, inputMessage);
+        } catch (CharacterCodingException e) {
+            throw new HttpMessageNotReadableException("dealUniqueId or currency is not valid text in deal record", e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        byte[] body = value instanceof DealRequest deal
+            ? DealBinaryCodec.encode(deal)
+            : DealBinaryCodec.encode((List<DealRequest>) value);
+        outputMessage.getHeaders().setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+
+    private PayloadTooLargeException tooLarge(HttpInputMessage inputMessage) {
+        return new PayloadTooLargeException(
+            "Deal records body is larger than " + maxBodyBytes + " bytes", inputMessage);
+    }
+
+    private static boolean isDealRequestList(Type type) {
+        return type instanceof ParameterizedType parameterized
+            && parameterized.getRawType() == List.class
+            && parameterized.getActualTypeArguments()[0] == DealRequest.class;
+    }
+}
@@ -0,0 +1,50 @@
+package com.bloomberg.fxdeals.format;
+
+import org.springframework.http.MediaType;
+
+import java.util.Optional;
+
+/**
+ * Line-oriented file formats accepted by the streaming endpoints.
+ */
+public enum DealFileFormat {
+
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    public static final String CSV_HEADER = "dealUniqueId,fromCurrency,toCurrency,dealAmount,dealTimestamp";
+
+    private final MediaType mediaType;
+
+    DealFileFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Looks a format up by name, ignoring case (e.g. "ndjson", "csv").
+     */
+    public static Optional<DealFileFormat> fromName(String name) {
+        for (DealFileFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static Optional<DealFileFormat> fromMediaType(MediaType mediaType) {
+        if (mediaType == null) {
+            return Optional.empty();
+        }
+        for (DealFileFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(mediaType)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
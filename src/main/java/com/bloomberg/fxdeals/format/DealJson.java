@@ -0,0 +1,78 @@
+package com.bloomberg.fxdeals.format;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes the JSON object of one deal field by field. The output matches what Jackson
+ * produces for {@link com.bloomberg.fxdeals.dto.DealResponse}, so writers that skip the
+ * DTO still send the same bytes.
+ *
+ * <p>Timestamps are formatted into a reused buffer rather than through
+ * DateTimeFormatter, which allocates a builder and a String per call; one instance per
+ * writer, not thread-safe.
+ */
+public final class DealJson {
+
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private final char[] timestamp = new char[29];
+
+    public void write(JsonGenerator generator, String dealUniqueId, String fromCurrency, String toCurrency,
+                      BigDecimal dealAmount, LocalDateTime dealTimestamp) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("dealUniqueId", dealUniqueId);
+        generator.writeStringField("fromCurrency", fromCurrency);
+        generator.writeStringField("toCurrency", toCurrency);
+        generator.writeFieldName("dealAmount");
+        generator.writeNumber(dealAmount);
+        generator.writeFieldName("dealTimestamp");
+        writeTimestamp(generator, dealTimestamp);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Same text as {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}: seconds always, the
+     * fraction only when non-zero and without trailing zeros.
+     */
+    private void writeTimestamp(JsonGenerator generator, LocalDateTime value) throws IOException {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            // Signed and five-digit years; never an accepted deal timestamp
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        digits(year, 0, 4);
+        timestamp[4] = '-';
+        digits(value.getMonthValue(), 5, 2);
+        timestamp[7] = '-';
+        digits(value.getDayOfMonth(), 8, 2);
+        timestamp[10] = 'T';
+        digits(value.getHour(), 11, 2);
+        timestamp[13] = ':';
+        digits(value.getMinute(), 14, 2);
+        timestamp[16] = ':';
+        digits(value.getSecond(), 17, 2);
+        int length = 19;
+        int nano = value.getNano();
+        if (nano != 0) {
+            timestamp[19] = '.';
+            digits(nano, 20, 9);
+            length = timestamp.length;
+            while (timestamp[length - 1] == '0') {
+                length--;
+            }
+        }
+        generator.writeString(timestamp, 0, length);
+    }
+
+    private void digits(int value, int offset, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            timestamp[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
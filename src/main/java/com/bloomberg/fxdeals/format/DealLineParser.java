@@ -0,0 +1,21 @@
+package com.bloomberg.fxdeals.format;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+
+/**
+ * Turns one line of an upstream file into a {@link DealRequest}.
+ *
+ * Implementations throw {@link IllegalArgumentException} for a malformed line so
+ * that the caller can reject that line and carry on with the rest of the file.
+ */
+public interface DealLineParser {
+
+    /**
+     * @return true if the line is a header that carries no deal and should be skipped
+     */
+    default boolean isHeader(String line, long lineNumber) {
+        return false;
+    }
+
+    DealRequest parse(String line);
+}
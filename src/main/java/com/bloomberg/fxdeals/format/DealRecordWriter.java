@@ -0,0 +1,18 @@
+package com.bloomberg.fxdeals.format;
+
+import com.bloomberg.fxdeals.model.Deal;
+
+import java.io.IOException;
+
+/**
+ * Writes deals one at a time to an output stream in one of the {@link DealFileFormat}s.
+ */
+public interface DealRecordWriter {
+
+    void write(Deal deal) throws IOException;
+
+    /**
+     * Flushes anything still buffered. Does not close the underlying stream.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,27 @@
+package com.bloomberg.fxdeals.format;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+public class NdjsonDealLineParser implements DealLineParser {
+
+    private final ObjectReader reader;
+
+    public NdjsonDealLineParser(ObjectReader reader) {
+        this.reader = reader.forType(DealRequest.class);
+    }
+
+    @Override
+    public DealRequest parse(String line) {
+        try {
+            DealRequest request = reader.readValue(line);
+            if (request == null) {
+                throw new IllegalArgumentException("deal is required");
+            }
+            return request;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+}
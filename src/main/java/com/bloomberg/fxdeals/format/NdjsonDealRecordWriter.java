@@ -0,0 +1,33 @@
+package com.bloomberg.fxdeals.format;
+
+import com.bloomberg.fxdeals.model.Deal;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class NdjsonDealRecordWriter implements DealRecordWriter {
+
+    private final JsonGenerator generator;
+    private final DealJson json = new DealJson();
+
+    public NdjsonDealRecordWriter(JsonFactory jsonFactory, OutputStream out) throws IOException {
+        this.generator = jsonFactory.createGenerator(out)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+    }
+
+    @Override
+    public void write(Deal deal) throws IOException {
+        json.write(generator, deal.getDealUniqueId(), deal.getFromCurrency(), deal.getToCurrency(),
+            deal.getDealAmount(), deal.getDealTimestamp());
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.writeRaw('\n');
+        generator.close();
+    }
+}
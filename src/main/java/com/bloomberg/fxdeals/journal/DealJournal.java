@@ -0,0 +1,404 @@
+package com.bloomberg.fxdeals.journal;
+
+import com.bloomberg.fxdeals.format.CsvDealRecordWriter;
+import com.bloomberg.fxdeals.format.DealFileFormat;
+import com.bloomberg.fxdeals.model.Deal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of accepted deals, written by request threads
+ * and drained into Postgres by {@link JournalFlusher}.
+ *
+ * <p>The journal is a sequence of fixed-size segment files. Each record is
+ * {@code [i32 length][i32 crc32][payload]}, with the payload encoded by
+ * {@link DealJournalCodec}; a length of {@code -1} closes a segment early and a length
+ * of {@code 0} is unwritten space. A separate checkpoint file holds the position up to
+ * which records are known to be in the database. On startup, everything after the
+ * checkpoint is handed to the flusher again; a torn record at the tail (bad length or
+ * CRC) marks the end of the journal.
+ *
+ * <p>A record is in the page cache, and so survives a crash of the JVM, as soon as
+ * {@link #append} returns. Surviving a crash of the host as well needs an msync:
+ * either per append ({@code sync-on-append}) or periodically through {@link #force()}.
+ *
+ * <p>Positions are packed as {@code segment << 32 | offset}, so they compare in
+ * journal order.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "fxdeals.ingest.mode", havingValue = "journal")
+public class DealJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(DealJournal.class);
+
+    static final int HEADER_SIZE = 8;
+    static final int END_OF_SEGMENT = -1;
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int CHECKPOINT_SIZE = 12;
+    private static final String DEAD_LETTER_FILE = "dead-letter.csv";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean syncOnAppend;
+
+    // Guards the write side: appends, segment rolls and the checkpoint file
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+
+    // Every segment from the checkpoint's onwards, shared between writer and flusher
+    private final ConcurrentSkipListMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    private final FileChannel checkpointChannel;
+
+    private long writeSegment;
+    private MappedByteBuffer writeBuffer;
+    private int writeOffset;
+
+    // End of the last complete record; the flusher never reads past it
+    private volatile long published;
+    private volatile long checkpoint;
+
+    public DealJournal(@Value("${fxdeals.journal.dir:./data/journal}") String directory,
+                       @Value("${fxdeals.journal.segment-size:67108864}") int segmentSize,
+                       @Value("${fxdeals.journal.max-segments:16}") int maxSegments,
+                       @Value("${fxdeals.journal.sync-on-append:false}") boolean syncOnAppend) {
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.syncOnAppend = syncOnAppend;
+        try {
+            Files.createDirectories(this.directory);
+            this.checkpointChannel = FileChannel.open(this.directory.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open deal journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Appends the deal and publishes it to the flusher.
+     *
+     * @throws JournalFullException if the unflushed backlog already spans {@code max-segments}
+     */
+    public void append(Deal deal) {
+        byte[] payload = DealJournalCodec.encode(deal);
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Deal too large for a journal segment");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            if (writeOffset + recordSize > writeBuffer.capacity()) {
+                roll();
+            }
+            writeBuffer.putInt(writeOffset + 4, (int) crc.getValue());
+            writeBuffer.put(writeOffset + HEADER_SIZE, payload);
+            // Length last: a non-zero length is what makes the record visible on recovery
+            writeBuffer.putInt(writeOffset, payload.length);
+            if (syncOnAppend) {
+                writeBuffer.force(writeOffset, recordSize);
+            }
+            writeOffset += recordSize;
+            published = position(writeSegment, writeOffset);
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads up to {@code maxRecords} published deals starting at {@code from}.
+     */
+    JournalBatch read(long from, int maxRecords) {
+        long limit = published;
+        long position = from;
+        List<Deal> deals = new ArrayList<>(Math.min(maxRecords, 1024));
+        long[] positionsAfter = new long[Math.min(maxRecords, 1024)];
+
+        while (deals.size() < maxRecords && position < limit) {
+            long segment = segmentOf(position);
+            int offset = offsetOf(position);
+            ByteBuffer buffer = segments.get(segment);
+
+            if (offset + HEADER_SIZE > buffer.capacity() || buffer.getInt(offset) == END_OF_SEGMENT) {
+                position = position(segment + 1, 0);
+                continue;
+            }
+            int length = buffer.getInt(offset);
+            ByteBuffer payload = buffer.slice(offset + HEADER_SIZE, length);
+            if (crc(payload) != buffer.getInt(offset + 4)) {
+                throw new IllegalStateException("Corrupt journal record at segment " + segment + " offset " + offset);
+            }
+            position = position(segment, offset + HEADER_SIZE + length);
+            if (deals.size() == positionsAfter.length) {
+                positionsAfter = Arrays.copyOf(positionsAfter, Math.min(maxRecords, positionsAfter.length * 2));
+            }
+            positionsAfter[deals.size()] = position;
+            deals.add(DealJournalCodec.decode(payload));
+        }
+        return new JournalBatch(deals, positionsAfter, position);
+    }
+
+    /**
+     * Waits until something is published after {@code position}, or the timeout elapses.
+     */
+    void awaitRecords(long position, long timeout, TimeUnit unit) throws InterruptedException {
+        lock.lock();
+        try {
+            if (published <= position) {
+                appended.await(timeout, unit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wakes a flusher blocked in {@link #awaitRecords}, e.g. on shutdown.
+     */
+    void wakeUp() {
+        lock.lock();
+        try {
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that everything before {@code position} is stored in the database and
+     * deletes the segments that are now entirely behind it.
+     */
+    void commit(long position) {
+        lock.lock();
+        try {
+            ByteBuffer record = ByteBuffer.allocate(CHECKPOINT_SIZE);
+            record.putLong(position);
+            record.putInt(crc(ByteBuffer.wrap(record.array(), 0, 8)));
+            record.flip();
+            checkpointChannel.write(record, 0);
+            checkpointChannel.force(false);
+            checkpoint = position;
+
+            long checkpointSegment = segmentOf(position);
+            for (Long segment : segments.headMap(checkpointSegment).keySet()) {
+                segments.remove(segment);
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write journal checkpoint", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the segment being written to disk.
+     */
+    public void force() {
+        MappedByteBuffer buffer;
+        lock.lock();
+        try {
+            buffer = writeBuffer;
+        } finally {
+            lock.unlock();
+        }
+        // msync outside the lock, so appends are not held up by the disk
+        buffer.force();
+    }
+
+    /**
+     * Appends a deal the database refused to dead-letter.csv next to the segments, in the
+     * export CSV format so it can be corrected and posted to /api/deals/ingest. Synced
+     * before returning, as the checkpoint is about to move past the deal's record.
+     * Called by the flusher thread only.
+     */
+    public void deadLetter(Deal deal) {
+        Path file = directory.resolve(DEAD_LETTER_FILE);
+        StringBuilder lines = new StringBuilder();
+        try {
+            if (!Files.exists(file)) {
+                lines.append(DealFileFormat.CSV_HEADER).append('\n');
+            }
+            CsvDealRecordWriter.appendLine(lines, deal);
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + file, e);
+        }
+    }
+
+    long getCheckpoint() {
+        return checkpoint;
+    }
+
+    long getPublished() {
+        return published;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            writeBuffer.force();
+            checkpointChannel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll() {
+        if (writeSegment + 1 - segmentOf(checkpoint) >= maxSegments) {
+            throw new JournalFullException("Deal journal is full: " + maxSegments + " segments are waiting to be flushed");
+        }
+        if (writeOffset + 4 <= writeBuffer.capacity()) {
+            writeBuffer.putInt(writeOffset, END_OF_SEGMENT);
+        }
+        writeBuffer.force();
+        try {
+            writeBuffer = map(writeSegment + 1, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create journal segment", e);
+        }
+        writeSegment++;
+        writeOffset = 0;
+        segments.put(writeSegment, writeBuffer);
+    }
+
+    private void recover() throws IOException {
+        TreeSet<Long> existing = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                .forEach(name -> existing.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()))));
+        }
+
+        long start = readCheckpoint();
+        if (start < 0) {
+            start = position(existing.isEmpty() ? 0 : existing.first(), 0);
+        }
+        checkpoint = start;
+
+        for (Long segment : existing) {
+            if (segment < segmentOf(start)) {
+                Files.deleteIfExists(segmentPath(segment));
+            } else {
+                segments.put(segment, map(segment, (int) Files.size(segmentPath(segment))));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(segmentOf(start), map(segmentOf(start), segmentSize));
+        }
+
+        Map.Entry<Long, MappedByteBuffer> last = segments.lastEntry();
+        writeSegment = last.getKey();
+        writeBuffer = last.getValue();
+        writeOffset = findEnd(writeBuffer, writeSegment == segmentOf(start) ? offsetOf(start) : 0);
+        published = position(writeSegment, writeOffset);
+
+        if (published > checkpoint) {
+            log.info("Deal journal has unflushed records from segment {} offset {}; they will be replayed",
+                segmentOf(checkpoint), offsetOf(checkpoint));
+        }
+    }
+
+    /**
+     * Scans a segment for the end of its last complete record, cutting off a torn tail.
+     */
+    private static int findEnd(MappedByteBuffer buffer, int offset) {
+        while (offset + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length == 0 || length == END_OF_SEGMENT) {
+                return offset;
+            }
+            if (length < 0 || offset + HEADER_SIZE + length > buffer.capacity()
+                    || crc(buffer.slice(offset + HEADER_SIZE, length)) != buffer.getInt(offset + 4)) {
+                log.warn("Discarding torn deal journal record at offset {}", offset);
+                buffer.putInt(offset, 0);
+                return offset;
+            }
+            offset += HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (checkpointChannel.size() < CHECKPOINT_SIZE) {
+            return -1;
+        }
+        ByteBuffer record = ByteBuffer.allocate(CHECKPOINT_SIZE);
+        checkpointChannel.read(record, 0);
+        long position = record.getLong(0);
+        // A damaged checkpoint only costs a longer replay: inserts skip stored deals
+        return crc(ByteBuffer.wrap(record.array(), 0, 8)) == record.getInt(8) ? position : -1;
+    }
+
+    private MappedByteBuffer map(long segment, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%016d%s", segment, SEGMENT_SUFFIX));
+    }
+
+    private static int crc(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    static long position(long segment, int offset) {
+        return segment << 32 | offset;
+    }
+
+    static long segmentOf(long position) {
+        return position >>> 32;
+    }
+
+    static int offsetOf(long position) {
+        return (int) position;
+    }
+}
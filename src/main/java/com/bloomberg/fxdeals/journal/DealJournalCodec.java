@@ -0,0 +1,81 @@
+package com.bloomberg.fxdeals.journal;
+
+import com.bloomberg.fxdeals.model.Deal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary form of a deal inside a journal record. Strings and the unscaled amount are
+ * length-prefixed; the timestamp is stored as UTC epoch seconds plus nanos.
+ *
+ * <pre>
+ * u16 idLen   | id bytes (UTF-8)
+ * u16 fromLen | from bytes
+ * u16 toLen   | to bytes
+ * i32 amountScale | u16 unscaledLen | unscaled bytes (two's complement, big-endian)
+ * i64 epochSecond | i32 nano
+ * </pre>
+ */
+public final class DealJournalCodec {
+
+    private DealJournalCodec() {
+    }
+
+    public static byte[] encode(Deal deal) {
+        byte[] id = deal.getDealUniqueId().getBytes(StandardCharsets.UTF_8);
+        byte[] from = deal.getFromCurrency().getBytes(StandardCharsets.UTF_8);
+        byte[] to = deal.getToCurrency().getBytes(StandardCharsets.UTF_8);
+        byte[] unscaled = deal.getDealAmount().unscaledValue().toByteArray();
+        LocalDateTime timestamp = deal.getDealTimestamp();
+
+        ByteBuffer buffer = ByteBuffer.allocate(
+            2 + id.length + 2 + from.length + 2 + to.length + 4 + 2 + unscaled.length + 8 + 4);
+        putBytes(buffer, id);
+        putBytes(buffer, from);
+        putBytes(buffer, to);
+        buffer.putInt(deal.getDealAmount().scale());
+        putBytes(buffer, unscaled);
+        buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(timestamp.getNano());
+        return buffer.array();
+    }
+
+    /**
+     * Reads one deal starting at the buffer's position, leaving it just past the record.
+     */
+    public static Deal decode(ByteBuffer buffer) {
+        Deal deal = new Deal();
+        deal.setDealUniqueId(getString(buffer));
+        deal.setFromCurrency(getString(buffer));
+        deal.setToCurrency(getString(buffer));
+        int scale = buffer.getInt();
+        deal.setDealAmount(new BigDecimal(new BigInteger(getBytes(buffer)), scale));
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        deal.setDealTimestamp(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+        return deal;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Field too long for the journal: " + bytes.length + " bytes");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        return new String(getBytes(buffer), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,29 @@
+package com.bloomberg.fxdeals.journal;
+
+import com.bloomberg.fxdeals.model.Deal;
+
+import java.util.List;
+
+/**
+ * Deals read from the journal together with the position just past the last of them,
+ * which becomes the checkpoint once they are stored, and the position just past each
+ * one, for a checkpoint partway through.
+ */
+class JournalBatch {
+
+    private final List<Deal> deals;
+    private final long[] positionsAfter;
+    private final long endPosition;
+
+    JournalBatch(List<Deal> deals, long[] positionsAfter, long endPosition) {
+        this.deals = deals;
+        this.positionsAfter = positionsAfter;
+        this.endPosition = endPosition;
+    }
+
+
+    List<Deal> getDeals() { return deals; }
+    long getEndPosition() { return endPosition; }
+    long positionAfter(int index) { return positionsAfter[index]; }
+    boolean isEmpty() { return deals.isEmpty(); }
+}
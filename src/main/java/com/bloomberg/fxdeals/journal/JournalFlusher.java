@@ -0,0 +1,258 @@
+package com.bloomberg.fxdeals.journal;
+
+import com.bloomberg.fxdeals.cache.DealLookupCache;
+import com.bloomberg.fxdeals.cache.DealsWatermark;
+import com.bloomberg.fxdeals.metrics.DealMetrics;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.repository.DealRepository;
+import com.bloomberg.fxdeals.repository.InsertedDeals;
+import com.bloomberg.fxdeals.rollup.DealVolumeRollups;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the {@link DealJournal} into Postgres on a single background thread.
+ *
+ * <p>Records are read from the checkpoint onwards in batches of up to
+ * {@code fxdeals.journal.batch-size} and stored with
+ * {@link DealRepository#insertIgnoringDuplicates}; only then does the checkpoint move.
+ * After a crash the same batch may be written twice, which the ON CONFLICT insert
+ * turns into a no-op, so replay needs no bookkeeping beyond the checkpoint. Duplicates
+ * of deals already in the database are dropped here, after the client got its 202.
+ *
+ * <p>A batch the database refuses because of its data, not because it is unreachable,
+ * is retried one deal at a time. Deals that are still refused are written to the
+ * journal's dead-letter file and skipped, so that one bad record cannot hold the
+ * checkpoint back and fill the journal. If the database goes away partway through,
+ * the checkpoint is moved past the deals already handled, so the retry neither counts
+ * them again as duplicates nor dead-letters them twice.
+ *
+ * <p>It starts before and stops after the web server, and on shutdown keeps draining
+ * until the journal is empty or {@code fxdeals.journal.shutdown-timeout-ms} runs out.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "fxdeals.ingest.mode", havingValue = "journal")
+public class JournalFlusher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalFlusher.class);
+
+    private final DealJournal journal;
+    private final DealRepository dealRepository;
+    private final DealMetrics metrics;
+    private final DealVolumeRollups rollups;
+    private final DealLookupCache lookupCache;
+    private final DealsWatermark watermark;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long retryBackoffMillis;
+    private final long shutdownTimeoutMillis;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public JournalFlusher(DealJournal journal,
+                          DealRepository dealRepository,
+                          DealMetrics metrics,
+                          DealVolumeRollups rollups,
+                          DealLookupCache lookupCache,
+                          DealsWatermark watermark,
+                          @Value("${fxdeals.journal.batch-size:5000}") int batchSize,
+                          @Value("${fxdeals.journal.flush-interval-ms:50}") long flushIntervalMillis,
+                          @Value("${fxdeals.journal.retry-backoff-ms:1000}") long retryBackoffMillis,
+                          @Value("${fxdeals.journal.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.journal = journal;
+        this.dealRepository = dealRepository;
+        this.metrics = metrics;
+        this.rollups = rollups;
+        this.lookupCache = lookupCache;
+        this.watermark = watermark;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "journal-flusher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        journal.wakeUp();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Below the web server's phases: up before requests arrive, down after they stop
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        long position = journal.getCheckpoint();
+        long lastForce = System.nanoTime();
+
+        while (running) {
+            try {
+                if (System.nanoTime() - lastForce >= TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis)) {
+                    journal.force();
+                    lastForce = System.nanoTime();
+                }
+                JournalBatch batch = journal.read(position, batchSize);
+                if (batch.isEmpty()) {
+                    journal.awaitRecords(position, flushIntervalMillis, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                position = flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Journal flush failed, retrying in {} ms: {}", retryBackoffMillis, e.getMessage());
+                // A one-by-one retry may have checkpointed part of the batch
+                position = journal.getCheckpoint();
+                sleepQuietly(retryBackoffMillis);
+            }
+        }
+        drain(position);
+    }
+
+    /**
+     * Writes one batch to the database and moves the checkpoint past it.
+     *
+     * @return the new checkpoint
+     */
+    long flush(JournalBatch batch) {
+        List<Deal> deals = batch.getDeals();
+        InsertedDeals inserted;
+        try {
+            inserted = dealRepository.insertIgnoringDuplicates(deals);
+        } catch (RuntimeException e) {
+            if (!isRefusedData(e)) {
+                throw e;
+            }
+            log.warn("Journal batch of {} deals refused by the database, retrying one by one: {}",
+                deals.size(), e.getMessage());
+            inserted = new InsertedDeals();
+            deals = flushOneByOne(batch, inserted);
+        }
+        journal.commit(batch.getEndPosition());
+        stored(deals, inserted);
+        return batch.getEndPosition();
+    }
+
+    /**
+     * Inserts the batch one deal at a time, adding the stored ids to {@code inserted}
+     * and dead-lettering the ones the database refuses. When the database cannot be
+     * reached, the checkpoint is moved past the deals handled so far before rethrowing.
+     *
+     * @return the deals that were not dead-lettered
+     */
+    private List<Deal> flushOneByOne(JournalBatch batch, InsertedDeals inserted) {
+        List<Deal> deals = batch.getDeals();
+        List<Deal> kept = new ArrayList<>(deals.size());
+        for (int i = 0; i < deals.size(); i++) {
+            Deal deal = deals.get(i);
+            try {
+                inserted.addAll(dealRepository.insertIgnoringDuplicates(List.of(deal)));
+                kept.add(deal);
+            } catch (RuntimeException e) {
+                if (!isRefusedData(e)) {
+                    // The retry resumes at this deal, not at the start of the batch
+                    if (i > 0) {
+                        journal.commit(batch.positionAfter(i - 1));
+                        stored(kept, inserted);
+                    }
+                    throw e;
+                }
+                journal.deadLetter(deal);
+                metrics.deadLettered();
+                log.error("Journaled deal {} refused by the database, moved to the dead-letter file: {}",
+                    deal.getDealUniqueId(), e.getMessage());
+            }
+        }
+        return kept;
+    }
+
+    private void stored(List<Deal> deals, InsertedDeals inserted) {
+        int duplicates = deals.size() - inserted.size();
+        metrics.created(inserted.size());
+        metrics.duplicate(duplicates);
+        rollups.record(deals, inserted);
+        lookupCache.invalidateAll(inserted.ids());
+        if (!inserted.isEmpty()) {
+            watermark.advance();
+        }
+        if (duplicates > 0) {
+            log.info("Journal flush skipped {} deals that were already stored", duplicates);
+        }
+    }
+
+    /**
+     * Whether the database refused the data itself (SQLSTATE class 22, data exception,
+     * or 23, integrity constraint violation), which no retry can fix, as opposed to the
+     * statement not getting through.
+     */
+    static boolean isRefusedData(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                && (sqlException.getSQLState().startsWith("22") || sqlException.getSQLState().startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drain(long position) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        try {
+            JournalBatch batch = journal.read(position, batchSize);
+            while (!batch.isEmpty() && System.nanoTime() < deadline) {
+                position = flush(batch);
+                batch = journal.read(position, batchSize);
+            }
+            if (!batch.isEmpty()) {
+                log.warn("Stopped with unflushed journal records; they will be replayed on the next start");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Journal drain on shutdown failed; records will be replayed on the next start", e);
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
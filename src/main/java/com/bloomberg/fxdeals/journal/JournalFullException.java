@@ -0,0 +1,12 @@
+package com.bloomberg.fxdeals.journal;
+
+/**
+ * Thrown when the unflushed part of the journal has reached its segment limit, i.e.
+ * the database has fallen too far behind to keep accepting deals.
+ */
+public class JournalFullException extends RuntimeException {
+
+    public JournalFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,88 @@
+package com.bloomberg.fxdeals.metrics;
+
+import com.bloomberg.fxdeals.validation.ValidationResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Outcome counters for every deal the service is given, whichever endpoint it came
+ * through: created, duplicate, or rejected with the reason as a tag. Request latency,
+ * repository call time and connection pool waits are timed by Spring Boot itself
+ * (http.server.requests, spring.data.repository.invocations, hikaricp.connections.*).
+ *
+ * Counters are registered up front so that recording one is a lookup-free increment
+ * and every reason shows up in Prometheus at zero before it first happens.
+ */
+@Component
+public class DealMetrics {
+
+    static final String CREATED = "fxdeals.deals.created";
+    static final String DUPLICATE = "fxdeals.deals.duplicate";
+    static final String REJECTED = "fxdeals.deals.rejected";
+    static final String DEAD_LETTERED = "fxdeals.deals.dead.lettered";
+
+    private final Counter created;
+    private final Counter duplicate;
+    private final Map<ValidationResult, Counter> rejectedByReason = new EnumMap<>(ValidationResult.class);
+    private final Counter missing;
+    private final Counter unparseable;
+    private final Counter deadLettered;
+
+    public DealMetrics(MeterRegistry registry) {
+        this.created = Counter.builder(CREATED)
+            .description("Deals written to the database")
+            .register(registry);
+        this.duplicate = Counter.builder(DUPLICATE)
+            .description("Deals skipped because their deal unique id already exists")
+            .register(registry);
+        for (ValidationResult result : ValidationResult.values()) {
+            if (!result.isValid()) {
+                rejectedByReason.put(result, rejected(registry, result.name().toLowerCase(Locale.ROOT)));
+            }
+        }
+        this.missing = rejected(registry, "missing_deal");
+        this.unparseable = rejected(registry, "unparseable");
+        this.deadLettered = Counter.builder(DEAD_LETTERED)
+            .description("Journaled deals the database refused, moved to the dead-letter file")
+            .register(registry);
+    }
+
+    private static Counter rejected(MeterRegistry registry, String reason) {
+        return Counter.builder(REJECTED)
+            .description("Deals rejected before reaching the database")
+            .tag("reason", reason)
+            .register(registry);
+    }
+
+    public void created(long count) {
+        created.increment(count);
+    }
+
+    public void duplicate(long count) {
+        duplicate.increment(count);
+    }
+
+    public void rejected(ValidationResult result) {
+        rejectedByReason.get(result).increment();
+    }
+
+    /** A null entry in a batch. */
+    public void missing() {
+        missing.increment();
+    }
+
+    /** An ingest line that could not be parsed into a deal. */
+    public void unparseable() {
+        unparseable.increment();
+    }
+
+    /** A journaled deal, already acknowledged with 202, that the database refused. */
+    public void deadLettered() {
+        deadLettered.increment();
+    }
+}
@@ -0,0 +1,22 @@
+package com.bloomberg.fxdeals.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps the alphabetic currency code the API uses to the SMALLINT stored in the
+ * deals table, which references the currencies table (see V3__currency_codes.sql).
+ */
+@Converter
+public class CurrencyCodeConverter implements AttributeConverter<String, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(String currency) {
+        return currency == null ? null : CurrencyCodes.toNumeric(currency);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short code) {
+        return code == null ? null : CurrencyCodes.toAlpha(code);
+    }
+}
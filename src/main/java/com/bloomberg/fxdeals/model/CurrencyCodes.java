@@ -0,0 +1,98 @@
+package com.bloomberg.fxdeals.model;
+
+/**
+ * The supported currencies and the SMALLINT each one is stored as: its ISO 4217 numeric
+ * code. Must match the rows of the currencies table (V3__currency_codes.sql).
+ *
+ * Both directions are array lookups without allocation, so checking and converting a
+ * code on every request, bind or row read costs next to nothing.
+ */
+public final class CurrencyCodes {
+
+    private static final String[] ALPHA = {
+        "USD", "EUR", "GBP", "JPY", "CHF", "CAD", "AUD", "CNY",
+        "INR", "BRL", "ZAR", "SGD", "NZD", "MXN", "HKD", "NOK",
+        "SEK", "DKK", "PLN", "TRY", "RUB", "KRW", "IDR", "MYR"
+    };
+
+    private static final short[] NUMERIC = {
+        840, 978, 826, 392, 756, 124, 36, 156,
+        356, 986, 710, 702, 554, 484, 344, 578,
+        752, 208, 985, 949, 643, 410, 360, 458
+    };
+
+    // Indexed by packed alphabetic code AAA..ZZZ (26^3); 0 means not supported
+    private static final short[] NUMERIC_BY_ALPHA = new short[26 * 26 * 26];
+    // ISO 4217 numeric codes are three digits
+    private static final String[] ALPHA_BY_NUMERIC = new String[1000];
+
+    static {
+        for (int i = 0; i < ALPHA.length; i++) {
+            NUMERIC_BY_ALPHA[alphaIndex(ALPHA[i])] = NUMERIC[i];
+            ALPHA_BY_NUMERIC[NUMERIC[i]] = ALPHA[i];
+        }
+    }
+
+    private CurrencyCodes() {
+    }
+
+    /**
+     * The alphabetic codes of all supported currencies.
+     */
+    public static String[] alphaCodes() {
+        return ALPHA.clone();
+    }
+
+    public static boolean isSupported(String alpha) {
+        return numericOrZero(alpha) != 0;
+    }
+
+    /**
+     * The stored code of a supported alphabetic code such as "USD".
+     *
+     * @throws IllegalArgumentException if the currency is not supported
+     */
+    public static short toNumeric(String alpha) {
+        short numeric = numericOrZero(alpha);
+        if (numeric == 0) {
+            throw new IllegalArgumentException("Unsupported currency: " + alpha);
+        }
+        return numeric;
+    }
+
+    /**
+     * The alphabetic code stored as {@code numeric}.
+     *
+     * @throws IllegalArgumentException if no supported currency has that code
+     */
+    public static String toAlpha(short numeric) {
+        String alpha = numeric >= 0 && numeric < ALPHA_BY_NUMERIC.length ? ALPHA_BY_NUMERIC[numeric] : null;
+        if (alpha == null) {
+            throw new IllegalArgumentException("Unknown currency code: " + numeric);
+        }
+        return alpha;
+    }
+
+    private static short numericOrZero(String alpha) {
+        if (alpha == null || alpha.length() != 3) {
+            return 0;
+        }
+        int index = alphaIndex(alpha);
+        return index < 0 ? 0 : NUMERIC_BY_ALPHA[index];
+    }
+
+    /**
+     * Packs an upper-case three-letter code into 0..17575, or -1 if any char is not A-Z.
+     */
+    private static int alphaIndex(String alpha) {
+        int index = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = alpha.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26) {
+                return -1;
+            }
+            index = index * 26 + letter;
+        }
+        return index;
+    }
+}
@@ -1,23 +1,31 @@
 package com.bloomberg.fxdeals.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Stored deals never change, and are only written through DealRepositoryCustom
 @Entity
+@Immutable
 @Table(name = "deals")
 public class Deal {
 
+    // Must match the INCREMENT BY of deals_id_seq (see V2__deals_id_sequence.sql)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deals_id_seq")
+    @SequenceGenerator(name = "deals_id_seq", sequenceName = "deals_id_seq", allocationSize = 50)
     private Long id;
 
-    @Column(name = "deal_unique_id", nullable = false, unique = true)
+    // Unique across all partitions through the deal_keys table (V4__partition_deals_by_month.sql)
+    @Column(name = "deal_unique_id", nullable = false)
     private String dealUniqueId;
 
+    @Convert(converter = CurrencyCodeConverter.class)
     @Column(name = "from_currency", nullable = false)
     private String fromCurrency;
 
+    @Convert(converter = CurrencyCodeConverter.class)
     @Column(name = "to_currency", nullable = false)
     private String toCurrency;
 
@@ -76,4 +84,10 @@ public class Deal {
     public void setDealTimestamp(LocalDateTime dealTimestamp) {
         this.dealTimestamp = dealTimestamp;
     }
-}
\ No newline at end of file
+
+    @Override
+    public String toString() {
+        return "Deal{id=" + id + ", dealUniqueId='" + dealUniqueId + "', " + fromCurrency + "/" + toCurrency
+            + " " + dealAmount + " at " + dealTimestamp + "}";
+    }
+}
@@ -0,0 +1,40 @@
+package com.bloomberg.fxdeals.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque page token carrying the last id a client has seen. Clients must hand it
+ * back unchanged; the encoding is not part of the API contract.
+ */
+public final class KeysetCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return ENCODER.encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the id to continue after, or 0 for the first page
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            long lastId = Long.parseLong(new String(DECODER.decode(cursor), StandardCharsets.US_ASCII));
+            if (lastId < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            // Base64 and number format errors are both IllegalArgumentExceptions
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
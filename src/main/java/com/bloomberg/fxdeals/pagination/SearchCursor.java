@@ -0,0 +1,45 @@
+package com.bloomberg.fxdeals.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque page token for search results, which are ordered by (dealTimestamp, id):
+ * carries both values of the last row a client has seen. Like {@link KeysetCursor},
+ * the encoding is not part of the API contract.
+ */
+public record SearchCursor(LocalDateTime timestamp, long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        return ENCODER.encodeToString((timestamp + "_" + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the position to continue after, or null for the first page
+     */
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String text = new String(DECODER.decode(cursor), StandardCharsets.US_ASCII);
+            int separator = text.indexOf('_');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            long id = Long.parseLong(text.substring(separator + 1));
+            if (id < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SearchCursor(LocalDateTime.parse(text.substring(0, separator)), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Base64 and number format errors are both IllegalArgumentExceptions
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
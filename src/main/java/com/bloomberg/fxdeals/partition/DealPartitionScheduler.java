@@ -0,0 +1,53 @@
+package com.bloomberg.fxdeals.partition;
+
+import com.bloomberg.fxdeals.repository.DealRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps monthly partitions of the deals table created ahead of time, so that an insert
+ * never lands on a month without one. Runs at startup and then every
+ * {@code fxdeals.partitions.check-interval-ms}; creating a partition that already
+ * exists is a no-op, so several instances can run it side by side.
+ */
+@Component
+@Profile("!reactive")
+public class DealPartitionScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(DealPartitionScheduler.class);
+
+    private final DealRepository dealRepository;
+    private final int monthsAhead;
+
+    public DealPartitionScheduler(DealRepository dealRepository,
+                                  @Value("${fxdeals.partitions.months-ahead:3}") int monthsAhead) {
+        if (monthsAhead < 1) {
+            throw new IllegalArgumentException("fxdeals.partitions.months-ahead must be at least 1");
+        }
+        this.dealRepository = dealRepository;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(fixedDelayString = "${fxdeals.partitions.check-interval-ms:3600000}")
+    public void createUpcomingPartitions() {
+        createPartitions(LocalDate.now());
+    }
+
+    void createPartitions(LocalDate today) {
+        PartitionWindow window = PartitionWindow.around(today, monthsAhead);
+        try {
+            int created = dealRepository.createPartitions(window.from(), window.to());
+            if (created > 0) {
+                log.info("Created {} deal partition(s), now covering up to {}", created, window.to().toLocalDate());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Creating deal partitions failed, retrying on the next run: {}", e.getMessage());
+        }
+    }
+}
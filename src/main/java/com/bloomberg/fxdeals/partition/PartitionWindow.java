@@ -0,0 +1,17 @@
+package com.bloomberg.fxdeals.partition;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The months the deals table must have partitions for: from the start of last month,
+ * which still receives deals inside the validator's 30-day window, to the start of the
+ * month {@code monthsAhead} after this one.
+ */
+public record PartitionWindow(LocalDateTime from, LocalDateTime to) {
+
+    public static PartitionWindow around(LocalDate today, int monthsAhead) {
+        LocalDateTime thisMonth = today.withDayOfMonth(1).atStartOfDay();
+        return new PartitionWindow(thisMonth.minusMonths(1), thisMonth.plusMonths(monthsAhead));
+    }
+}
@@ -0,0 +1,211 @@
+package com.bloomberg.fxdeals.reactive;
+
+import com.bloomberg.fxdeals.correlation.CorrelationId;
+import com.bloomberg.fxdeals.dto.DealPage;
+import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.dto.DealResponse;
+import com.bloomberg.fxdeals.dto.ErrorResponse;
+import com.bloomberg.fxdeals.format.CsvDealRecordWriter;
+import com.bloomberg.fxdeals.format.DealFileFormat;
+import com.bloomberg.fxdeals.metrics.DealMetrics;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.pagination.KeysetCursor;
+import com.bloomberg.fxdeals.service.DealMapper;
+import com.bloomberg.fxdeals.validation.DealValidator;
+import com.bloomberg.fxdeals.validation.ValidationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.UnsupportedMediaTypeStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * WebFlux handlers behind the reactive profile. Paths, parameters, status codes and
+ * bodies match {@code DealController}, so clients cannot tell which stack served them;
+ * the only difference is that nothing here blocks a thread while waiting on Postgres.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveDealHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveDealHandler.class);
+
+    private final ReactiveDealRepository dealRepository;
+    private final DealMetrics metrics;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public ReactiveDealHandler(ReactiveDealRepository dealRepository,
+                               DealMetrics metrics,
+                               @Value("${fxdeals.pagination.default-size:100}") int defaultPageSize,
+                               @Value("${fxdeals.pagination.max-size:1000}") int maxPageSize) {
+        this.dealRepository = dealRepository;
+        this.metrics = metrics;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public Mono<ServerResponse> health(ServerRequest request) {
+        return ServerResponse.ok().bodyValue("Deals endpoint working!");
+    }
+
+    public Mono<ServerResponse> createDeal(ServerRequest request) {
+        return request.bodyToMono(DealRequest.class)
+            .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Invalid request format")))
+            .flatMap(dealRequest -> {
+                ValidationResult validation = DealValidator.check(dealRequest);
+                if (!validation.isValid()) {
+                    metrics.rejected(validation);
+                    return error(HttpStatus.BAD_REQUEST, "BAD_REQUEST", validation.getMessage());
+                }
+                Deal deal = DealMapper.toDeal(dealRequest);
+
+                return dealRepository.insertIfAbsent(deal)
+                    .flatMap(id -> {
+                        metrics.created(1);
+                        return ServerResponse.status(HttpStatus.CREATED)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(DealMapper.toResponse(deal));
+                    })
+                    .switchIfEmpty(Mono.defer(() -> {
+                        metrics.duplicate(1);
+                        return error(HttpStatus.CONFLICT, "CONFLICT",
+                            "Deal already exists with ID: " + dealRequest.getDealUniqueId());
+                    }));
+            })
+            .onErrorResume(this::handleError);
+    }
+
+    public Mono<ServerResponse> getDeals(ServerRequest request) {
+        return Mono.fromCallable(() -> {
+                int pageSize = request.queryParam("size").map(Integer::parseInt).orElse(defaultPageSize);
+                if (pageSize <= 0) {
+                    throw new IllegalArgumentException("size must be greater than 0");
+                }
+                return Math.min(pageSize, maxPageSize);
+            })
+            .flatMap(pageSize -> {
+                long afterId = KeysetCursor.decode(request.queryParam("cursor").orElse(null));
+
+                // One extra row tells us whether another page exists without a count query.
+                return dealRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageSize + 1)
+                    .collectList()
+                    .flatMap(deals -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(toPage(deals, pageSize)));
+            })
+            .onErrorResume(this::handleError);
+    }
+
+    public Mono<ServerResponse> exportDeals(ServerRequest request) {
+        return Mono.fromCallable(() -> ExportQuery.from(request))
+            .flatMap(query -> {
+                Flux<Deal> deals = dealRepository.streamByDealTimestampRange(query.from, query.to);
+
+                ServerResponse.BodyBuilder response = ServerResponse.ok()
+                    .contentType(query.format.getMediaType())
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"deals." + query.format.name().toLowerCase() + "\"");
+
+                // Rows go out as the driver hands them over; demand from the client
+                // connection is what pulls the next fetch from Postgres.
+                return switch (query.format) {
+                    case NDJSON -> response.body(deals.map(DealMapper::toResponse), DealResponse.class);
+                    case CSV -> response.body(
+                        Flux.just(DealFileFormat.CSV_HEADER + "\n").concatWith(deals.map(ReactiveDealHandler::csvLine)),
+                        String.class);
+                };
+            })
+            .onErrorResume(this::handleError);
+    }
+
+    private DealPage toPage(List<Deal> deals, int pageSize) {
+        String nextCursor = null;
+        if (deals.size() > pageSize) {
+            deals = deals.subList(0, pageSize);
+            nextCursor = KeysetCursor.encode(deals.get(pageSize - 1).getId());
+        }
+        return new DealPage(deals.stream().map(DealMapper::toResponse).toList(), nextCursor);
+    }
+
+    private Mono<ServerResponse> handleError(Throwable ex) {
+        if (ex instanceof ServerWebInputException || ex instanceof DecodingException) {
+            return error(HttpStatus.BAD_REQUEST, "BAD_REQUEST", "Invalid request format");
+        }
+        if (ex instanceof UnsupportedMediaTypeStatusException) {
+            // application/x-fxdeal is only read on the servlet stack
+            return error(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "UNSUPPORTED_MEDIA_TYPE", "Request body must be JSON");
+        }
+        if (ex instanceof NumberFormatException) {
+            return error(HttpStatus.BAD_REQUEST, "BAD_REQUEST", "size must be a number");
+        }
+        if (ex instanceof DateTimeParseException) {
+            return error(HttpStatus.BAD_REQUEST, "BAD_REQUEST",
+                "Invalid timestamp format. Use: yyyy-MM-ddTHH:mm:ss (e.g., 2024-02-16T10:30:00)");
+        }
+        if (ex instanceof IllegalArgumentException) {
+            return error(HttpStatus.BAD_REQUEST, "BAD_REQUEST", ex.getMessage());
+        }
+        log.error("Reactive deal request failed", ex);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "An unexpected error occurred");
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String error, String message) {
+        // No MDC on the event loop: ReactiveCorrelationIdFilter puts the id in the context
+        return Mono.deferContextual(context -> ServerResponse.status(status)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(new ErrorResponse(status.value(), error, message,
+                context.getOrDefault(CorrelationId.MDC_KEY, null))));
+    }
+
+    private static String csvLine(Deal deal) {
+        StringBuilder line = new StringBuilder(96);
+        try {
+            CsvDealRecordWriter.appendLine(line, deal);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return line.toString();
+    }
+
+    private static final class ExportQuery {
+
+        private final DealFileFormat format;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+
+        private ExportQuery(DealFileFormat format, LocalDateTime from, LocalDateTime to) {
+            this.format = format;
+            this.from = from;
+            this.to = to;
+        }
+
+        static ExportQuery from(ServerRequest request) {
+            DealFileFormat format = DealFileFormat.fromName(request.queryParam("format").orElse("ndjson"))
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported format. Use ndjson or csv"));
+            LocalDateTime from = request.queryParam("from").map(LocalDateTime::parse).orElse(null);
+            LocalDateTime to = request.queryParam("to").map(LocalDateTime::parse).orElse(null);
+            if (from != null && to != null && !from.isBefore(to)) {
+                throw new IllegalArgumentException("from must be before to");
+            }
+            return new ExportQuery(format, from, to);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.bloomberg.fxdeals.reactive;
+
+import com.bloomberg.fxdeals.partition.PartitionWindow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Reactive-profile counterpart of {@code DealPartitionScheduler}, over R2DBC.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveDealPartitionScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveDealPartitionScheduler.class);
+
+    private final ReactiveDealRepository dealRepository;
+    private final int monthsAhead;
+
+    public ReactiveDealPartitionScheduler(ReactiveDealRepository dealRepository,
+                                          @Value("${fxdeals.partitions.months-ahead:3}") int monthsAhead) {
+        if (monthsAhead < 1) {
+            throw new IllegalArgumentException("fxdeals.partitions.months-ahead must be at least 1");
+        }
+        this.dealRepository = dealRepository;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(fixedDelayString = "${fxdeals.partitions.check-interval-ms:3600000}")
+    public Mono<Void> createUpcomingPartitions() {
+        PartitionWindow window = PartitionWindow.around(LocalDate.now(), monthsAhead);
+        return dealRepository.createPartitions(window.from(), window.to())
+            .doOnNext(created -> {
+                if (created > 0) {
+                    log.info("Created {} deal partition(s), now covering up to {}", created, window.to().toLocalDate());
+                }
+            })
+            .onErrorResume(e -> {
+                log.warn("Creating deal partitions failed, retrying on the next run: {}", e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+}
@@ -0,0 +1,135 @@
+package com.bloomberg.fxdeals.reactive;
+
+import com.bloomberg.fxdeals.model.CurrencyCodes;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.rollup.Granularity;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * R2DBC counterpart of {@code DealRepository} for the reactive profile. It runs the
+ * same statements against the same table, so both stacks can serve one database.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveDealRepository {
+
+    private static final String COLUMNS =
+        "id, deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp";
+
+    // There is no DealVolumeRollups on this stack, so the stored deal is added to its
+    // minute, hour and day rollup rows in the same statement, as the COPY merge does
+    private static final String INSERT_ONE_SQL = "WITH claimed AS ("
+        + "INSERT INTO deal_keys (deal_unique_id) VALUES (:dealUniqueId) ON CONFLICT DO NOTHING RETURNING deal_unique_id), "
+        + "inserted AS ("
+        + "INSERT INTO deals (deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp) "
+        + "SELECT deal_unique_id, :fromCurrency, :toCurrency, :dealAmount, :dealTimestamp FROM claimed "
+        + "RETURNING id, from_currency, to_currency, deal_amount, deal_timestamp), "
+        + "rolled_up AS ("
+        + "INSERT INTO deal_volume_rollups (granularity, from_currency, to_currency, bucket_start, deal_count, total_amount) "
+        + "SELECT g.granularity, from_currency, to_currency, date_trunc(g.granularity, deal_timestamp), 1, deal_amount "
+        + "FROM inserted CROSS JOIN (VALUES " + granularityValues() + ") AS g (granularity) ORDER BY 1 "
+        + "ON CONFLICT (granularity, from_currency, to_currency, bucket_start) DO UPDATE SET "
+        + "deal_count = deal_volume_rollups.deal_count + EXCLUDED.deal_count, "
+        + "total_amount = deal_volume_rollups.total_amount + EXCLUDED.total_amount) "
+        + "SELECT id FROM inserted";
+
+    private static final String PAGE_SQL =
+        "SELECT " + COLUMNS + " FROM deals WHERE id > :afterId ORDER BY id LIMIT :limit";
+
+    private static final String RANGE_PREFIX = "SELECT " + COLUMNS + " FROM deals";
+
+    private static final String CREATE_PARTITIONS_SQL = "SELECT create_deal_partitions(:from, :to)";
+
+    // Rows requested from the server per round trip while an export is streaming
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveDealRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Inserts the deal unless its unique id is already stored; completes empty for a duplicate.
+     */
+    public Mono<Long> insertIfAbsent(Deal deal) {
+        return databaseClient.sql(INSERT_ONE_SQL)
+            .bind("dealUniqueId", deal.getDealUniqueId())
+            .bind("fromCurrency", CurrencyCodes.toNumeric(deal.getFromCurrency()))
+            .bind("toCurrency", CurrencyCodes.toNumeric(deal.getToCurrency()))
+            .bind("dealAmount", deal.getDealAmount())
+            .bind("dealTimestamp", deal.getDealTimestamp())
+            .map(row -> row.get("id", Long.class))
+            .one();
+    }
+
+    public Flux<Deal> findByIdGreaterThanOrderByIdAsc(long afterId, int limit) {
+        return databaseClient.sql(PAGE_SQL)
+            .bind("afterId", afterId)
+            .bind("limit", limit)
+            .map(ReactiveDealRepository::toDeal)
+            .all();
+    }
+
+    /**
+     * Deals with a timestamp in {@code [from, to)}, fetched in chunks as the subscriber
+     * requests them rather than as one result set. A null bound is left out of the
+     * query, as backfilled deals can carry any date.
+     */
+    public Flux<Deal> streamByDealTimestampRange(LocalDateTime from, LocalDateTime to) {
+        StringBuilder sql = new StringBuilder(RANGE_PREFIX);
+        if (from != null) {
+            sql.append(" WHERE deal_timestamp >= :from");
+        }
+        if (to != null) {
+            sql.append(from != null ? " AND" : " WHERE").append(" deal_timestamp < :to");
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+            .filter(statement -> statement.fetchSize(EXPORT_FETCH_SIZE));
+        if (from != null) {
+            spec = spec.bind("from", from);
+        }
+        if (to != null) {
+            spec = spec.bind("to", to);
+        }
+        return spec.map(ReactiveDealRepository::toDeal).all();
+    }
+
+    /**
+     * Same as {@code DealRepository#createPartitions}: emits how many partitions were created.
+     */
+    public Mono<Integer> createPartitions(LocalDateTime from, LocalDateTime to) {
+        return databaseClient.sql(CREATE_PARTITIONS_SQL)
+            .bind("from", from)
+            .bind("to", to)
+            .map(row -> row.get(0, Integer.class))
+            .one();
+    }
+
+    private static String granularityValues() {
+        return Arrays.stream(Granularity.values())
+            .map(granularity -> "('" + granularity.column() + "')")
+            .collect(Collectors.joining(", "));
+    }
+
+    private static Deal toDeal(Readable row) {
+        Deal deal = new Deal();
+        deal.setId(row.get("id", Long.class));
+        deal.setDealUniqueId(row.get("deal_unique_id", String.class));
+        deal.setFromCurrency(CurrencyCodes.toAlpha(row.get("from_currency", Short.class)));
+        deal.setToCurrency(CurrencyCodes.toAlpha(row.get("to_currency", Short.class)));
+        deal.setDealAmount(row.get("deal_amount", BigDecimal.class));
+        deal.setDealTimestamp(row.get("deal_timestamp", LocalDateTime.class));
+        return deal;
+    }
+}
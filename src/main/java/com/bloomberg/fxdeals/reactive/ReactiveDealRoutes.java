@@ -0,0 +1,30 @@
+package com.bloomberg.fxdeals.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Routes for the reactive profile; everything mapped here keeps the servlet paths.
+ * {@code /batch}, {@code /ingest}, {@code /search}, {@code /stats} and
+ * {@code /{dealUniqueId}} stay on the servlet stack, as do {@code application/x-fxdeal}
+ * bodies and ETags (see application-reactive.yml).
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveDealRoutes {
+
+    @Bean
+    public RouterFunction<ServerResponse> dealRoutes(ReactiveDealHandler handler) {
+        return route(GET("/api/deals/health"), handler::health)
+            .andRoute(GET("/api/deals/export"), handler::exportDeals)
+            .andRoute(GET("/api/deals"), handler::getDeals)
+            .andRoute(POST("/api/deals"), handler::createDeal);
+    }
+}
@@ -0,0 +1,10 @@
+package com.bloomberg.fxdeals.repository;
+
+import java.util.List;
+
+/**
+ * Outcome of a COPY bulk load: rows staged, rows merged into deals, rows skipped as
+ * duplicates, and the source lines of the first skipped ones.
+ */
+public record DealCopyResult(long staged, long created, long duplicates, List<Long> duplicateLines) {
+}
@@ -0,0 +1,13 @@
+package com.bloomberg.fxdeals.repository;
+
+import java.io.IOException;
+
+/**
+ * Produces the deals of a bulk load into the COPY stream while it is open, so they
+ * are never all held in memory.
+ */
+@FunctionalInterface
+public interface DealCopySource {
+
+    void writeTo(DealCopyWriter writer) throws IOException;
+}
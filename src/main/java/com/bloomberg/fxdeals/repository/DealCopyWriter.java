@@ -0,0 +1,142 @@
+package com.bloomberg.fxdeals.repository;
+
+import com.bloomberg.fxdeals.model.CurrencyCodes;
+import com.bloomberg.fxdeals.model.Deal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Encodes staged deals in Postgres' binary COPY format, so the server stores each field
+ * as sent instead of parsing text: a header, one tuple per deal of (line, deal_unique_id,
+ * from_currency, to_currency, deal_amount, deal_timestamp), and a trailer. Tuples are
+ * gathered in a buffer and handed to the stream in blocks of its size.
+ */
+public final class DealCopyWriter {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final short FIELDS = 6;
+    // 2000-01-01T00:00:00, the Postgres timestamp epoch
+    private static final long PG_EPOCH_SECOND = 946_684_800L;
+    private static final int NUMERIC_BASE = 10_000;
+    private static final BigInteger NUMERIC_BASE_BIG = BigInteger.valueOf(NUMERIC_BASE);
+    private static final short NUMERIC_NEGATIVE = 0x4000;
+
+    private final OutputStream out;
+    private ByteBuffer buffer;
+    // Base-10000 digits of the amount being written, least significant first
+    private short[] digits = new short[16];
+
+    DealCopyWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        buffer.put(SIGNATURE).putInt(0).putInt(0);
+    }
+
+    /**
+     * Adds one deal; {@code line} is where it came from in the loaded file.
+     */
+    public void write(long line, Deal deal) throws IOException {
+        byte[] id = deal.getDealUniqueId().getBytes(StandardCharsets.UTF_8);
+        int digitCount = toDigits(deal.getDealAmount());
+        // Count, six lengths, line, two currencies, numeric header, timestamp
+        int size = 2 + 6 * 4 + 8 + id.length + 2 + 2 + 8 + 2 * digitCount + 8;
+        ensureRoom(size);
+
+        buffer.putShort(FIELDS);
+        buffer.putInt(8).putLong(line);
+        buffer.putInt(id.length).put(id);
+        buffer.putInt(2).putShort(CurrencyCodes.toNumeric(deal.getFromCurrency()));
+        buffer.putInt(2).putShort(CurrencyCodes.toNumeric(deal.getToCurrency()));
+        putNumeric(deal.getDealAmount(), digitCount);
+        buffer.putInt(8).putLong(toPgMicros(deal.getDealTimestamp()));
+    }
+
+    /**
+     * Writes the trailer and hands over what is still buffered.
+     */
+    void finish() throws IOException {
+        ensureRoom(2);
+        buffer.putShort((short) -1);
+        flush();
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocate(bytes);
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+
+    /**
+     * Splits |amount| into base-10000 digits with the fraction padded to whole digits,
+     * as the numeric wire format counts them, and returns how many there are.
+     */
+    private int toDigits(BigDecimal amount) {
+        int fractionDigits = (Math.max(amount.scale(), 0) + 3) / 4 * 4;
+        BigInteger unscaled = amount.abs().setScale(fractionDigits).unscaledValue();
+        int count = 0;
+        if (unscaled.bitLength() < 63) {
+            for (long value = unscaled.longValue(); value != 0; value /= NUMERIC_BASE) {
+                count = addDigit(count, (short) (value % NUMERIC_BASE));
+            }
+        } else {
+            for (BigInteger value = unscaled; value.signum() != 0; ) {
+                BigInteger[] quotientAndRemainder = value.divideAndRemainder(NUMERIC_BASE_BIG);
+                count = addDigit(count, quotientAndRemainder[1].shortValue());
+                value = quotientAndRemainder[0];
+            }
+        }
+        return count;
+    }
+
+    private int addDigit(int count, short digit) {
+        if (count == digits.length) {
+            digits = Arrays.copyOf(digits, count * 2);
+        }
+        digits[count] = digit;
+        return count + 1;
+    }
+
+    /**
+     * ndigits, weight of the first digit, sign, display scale, then the digits most
+     * significant first. Trailing zero digits are left out; zero has no digits at all.
+     */
+    private void putNumeric(BigDecimal amount, int count) {
+        int scale = Math.max(amount.scale(), 0);
+        int lowest = 0;
+        while (lowest < count && digits[lowest] == 0) {
+            lowest++;
+        }
+        int kept = count - lowest;
+        int weight = kept == 0 ? 0 : count - 1 - (scale + 3) / 4;
+
+        buffer.putInt(8 + 2 * kept);
+        buffer.putShort((short) kept);
+        buffer.putShort((short) weight);
+        buffer.putShort(amount.signum() < 0 ? NUMERIC_NEGATIVE : 0);
+        buffer.putShort((short) scale);
+        for (int i = count - 1; i >= lowest; i--) {
+            buffer.putShort(digits[i]);
+        }
+    }
+
+    private static long toPgMicros(LocalDateTime timestamp) {
+        return (timestamp.toEpochSecond(ZoneOffset.UTC) - PG_EPOCH_SECOND) * 1_000_000
+            + timestamp.getNano() / 1000;
+    }
+}
@@ -1,14 +1,73 @@
 package com.bloomberg.fxdeals.repository;
 
 import com.bloomberg.fxdeals.model.Deal;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Reads through JPA; writes only through {@link DealRepositoryCustom}. This is a plain
+ * {@link Repository} rather than a JpaRepository on purpose: save() and delete() would
+ * insert into or delete from deals without claiming or releasing the dealUniqueId in
+ * deal_keys, which is what keeps ids unique across partitions.
+ */
+public interface DealRepository extends Repository<Deal, Long>, DealRepositoryCustom {
+
+    Optional<Deal> findById(Long id);
+
+    List<Deal> findAll();
 
-@Repository
-public interface DealRepository extends JpaRepository<Deal, Long> {
-    
     boolean existsByDealUniqueId(String dealUniqueId);
     
     Optional<Deal> findByDealUniqueId(String dealUniqueId);
-}
\ No newline at end of file
+
+    /**
+     * Deals with a timestamp in {@code [from, to)}; a null bound leaves that side open,
+     * as backfilled deals can carry any date. The bound is left out of the query rather
+     * than replaced by a made-up date.
+     *
+     * <p>Server-side cursor: Postgres only honours the fetch size inside a transaction,
+     * so callers must consume the stream within @Transactional and close it.
+     */
+    default Stream<Deal> streamByDealTimestamp(LocalDateTime from, LocalDateTime to) {
+        if (from == null) {
+            return to == null ? streamAll() : streamByDealTimestampBefore(to);
+        }
+        return to == null ? streamByDealTimestampFrom(from) : streamByDealTimestampRange(from, to);
+    }
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select d from Deal d where d.dealTimestamp >= :from and d.dealTimestamp < :to")
+    Stream<Deal> streamByDealTimestampRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select d from Deal d where d.dealTimestamp >= :from")
+    Stream<Deal> streamByDealTimestampFrom(@Param("from") LocalDateTime from);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select d from Deal d where d.dealTimestamp < :to")
+    Stream<Deal> streamByDealTimestampBefore(@Param("to") LocalDateTime to);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select d from Deal d")
+    Stream<Deal> streamAll();
+}
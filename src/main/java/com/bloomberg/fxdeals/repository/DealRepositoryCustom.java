@@ -0,0 +1,81 @@
+package com.bloomberg.fxdeals.repository;
+
+import com.bloomberg.fxdeals.dto.DealSearchCriteria;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.pagination.SearchCursor;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bulk write and maintenance operations that bypass the persistence context.
+ */
+public interface DealRepositoryCustom {
+
+    /**
+     * Inserts the deal unless its dealUniqueId is already stored, in a single
+     * round trip (ON CONFLICT DO NOTHING on deal_keys) that is safe under concurrency.
+     *
+     * @return the generated id and the rollup epoch seen, or empty if the deal is a duplicate
+     */
+    Optional<InsertedDeal> insertIfAbsent(Deal deal);
+
+    /**
+     * Inserts the given deals with chunked multi-row INSERT statements, silently
+     * skipping any whose dealUniqueId is already stored.
+     *
+     * @return the dealUniqueIds that were actually inserted, with their rollup epochs
+     */
+    InsertedDeals insertIgnoringDuplicates(List<Deal> deals);
+
+    /**
+     * Bulk load for backfills: spools what the source writes to a local file, then
+     * loads it into a fresh temporary staging table with binary COPY, creates the
+     * partitions of the months the staged timestamps fall in, and merges the rows into deals and
+     * deal_volume_rollups in one statement that skips dealUniqueIds already stored
+     * (first line wins within the load). The file and the table are dropped afterwards.
+     *
+     * @return counts, plus the lines of up to {@code maxReportedDuplicates} skipped rows
+     */
+    DealCopyResult copyIn(DealCopySource source, int maxReportedDuplicates);
+
+    /**
+     * Removes what bulk loads cut short by a crash left behind: the spool files of
+     * instances that are no longer running (never those of one still loading, even on
+     * the same host), and the unlogged staging tables earlier versions used.
+     *
+     * @return how many files and tables were removed
+     */
+    int dropStaleBulkLoads();
+
+    /**
+     * Creates the missing monthly partitions of the deals table for every month from
+     * the one containing {@code from} to the one containing {@code to}.
+     *
+     * @return how many partitions were created
+     */
+    int createPartitions(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Keyset page in id order: hands the first {@code limit} deals with an id greater
+     * than {@code afterId} to the callback as each row is read, walking the primary key
+     * index so cost does not grow with the offset.
+     */
+    void forEachAfter(long afterId, int limit, DealRowCallback callback);
+
+    /**
+     * The last value handed out by deals_id_seq, which moves on every insert made by any
+     * instance, committed or not, and by deal_rollup_version_seq, which moves on every
+     * other write to deal_volume_rollups, with the oldest running and next transaction
+     * ids of a snapshot taken at the same time. Read without touching either table.
+     */
+    IssuedIds issuedIds();
+
+    /**
+     * Deals matching the criteria in (dealTimestamp, id) order, starting after
+     * {@code after} (null for the first page). Rows are mapped straight into response
+     * DTOs; the query only names the filters that are set, so each combination gets a
+     * plan that uses the matching index.
+     */
+    List<DealSearchRow> search(DealSearchCriteria criteria, SearchCursor after, int limit);
+}
@@ -0,0 +1,376 @@
+package com.bloomberg.fxdeals.repository;
+
+import com.bloomberg.fxdeals.dto.DealResponse;
+import com.bloomberg.fxdeals.dto.DealSearchCriteria;
+import com.bloomberg.fxdeals.model.CurrencyCodes;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.pagination.SearchCursor;
+import com.bloomberg.fxdeals.rollup.Granularity;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC implementation of {@link DealRepositoryCustom}.
+ *
+ * Writes go out as one statement per chunk that first claims each deal unique id in
+ * deal_keys with ON CONFLICT DO NOTHING and then inserts only the claimed rows into
+ * the partitioned deals table, so duplicates are skipped row by row inside the
+ * statement, which JPA batching cannot express. deals itself cannot carry a unique
+ * constraint on the id across partitions (see V4__partition_deals_by_month.sql).
+ * Ids come from the deals_id_seq column default.
+ *
+ * Bulk loads skip the per-chunk statements: rows are spooled to a local file, then
+ * COPYed into a temporary staging table and merged with the same claim-then-insert
+ * pattern in a single statement. A connection is only taken once the upload is in.
+ */
+public class DealRepositoryImpl implements DealRepositoryCustom {
+
+    private static final String INSERT_PREFIX =
+        "WITH input (row_index, deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp) AS (VALUES ";
+    private static final String ROW_PLACEHOLDER = ", ?, ?, ?, ?, ?)";
+    // The JDBC driver sends the bind parameter count as a signed 16-bit number
+    static final int MAX_CHUNK_SIZE = Short.MAX_VALUE / 5;
+    // Repeats of an id within one statement are claimed once; the first row wins
+    private static final String INSERT_BODY = "), claimed AS ("
+        + "INSERT INTO deal_keys (deal_unique_id) SELECT deal_unique_id FROM input "
+        + "ON CONFLICT DO NOTHING RETURNING deal_unique_id) "
+        + "INSERT INTO deals (deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp) "
+        + "SELECT DISTINCT ON (deal_unique_id) deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp "
+        + "FROM input JOIN claimed USING (deal_unique_id) ORDER BY deal_unique_id, row_index RETURNING ";
+    // Evaluated once per statement; see V7__deal_rollup_epoch.sql
+    private static final String ROLLUP_EPOCH = "(SELECT epoch FROM deal_rollup_epoch)";
+    private static final String INSERTED_COLUMNS = "deal_unique_id, " + ROLLUP_EPOCH;
+    private static final String INSERT_ONE_SQL = "WITH claimed AS ("
+        + "INSERT INTO deal_keys (deal_unique_id) VALUES (?) ON CONFLICT DO NOTHING RETURNING deal_unique_id) "
+        + "INSERT INTO deals (deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp) "
+        + "SELECT deal_unique_id, ?, ?, ?, ? FROM claimed RETURNING id, " + ROLLUP_EPOCH;
+    private static final String STAGING_PREFIX = "deal_load_";
+    private static final String SPOOL_PREFIX = "deal-load-";
+    private static final String SPOOL_SUFFIX = ".pgcopy";
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+    // Temporary: the rows are written once to WAL, by the merge, not twice, and the
+    // table goes with the session if the instance dies before dropping it
+    private static final String CREATE_STAGING_SQL = "CREATE TEMPORARY TABLE %s ("
+        + "line BIGINT NOT NULL, deal_unique_id VARCHAR(255) NOT NULL, from_currency SMALLINT NOT NULL, "
+        + "to_currency SMALLINT NOT NULL, deal_amount NUMERIC(38, 2) NOT NULL, deal_timestamp TIMESTAMP(6) NOT NULL)";
+    private static final String COPY_SQL = "COPY %s (line, deal_unique_id, from_currency, to_currency, deal_amount, "
+        + "deal_timestamp) FROM STDIN (FORMAT binary)";
+    // Only the months that have rows: a backfill takes any date, and the span between a
+    // stray year 0202 and 9999 would be tens of thousands of partitions
+    private static final String STAGED_PARTITIONS_SQL = "SELECT create_deal_partitions(month, month) "
+        + "FROM (SELECT DISTINCT date_trunc('month', deal_timestamp) AS month FROM %s) AS months";
+    private static final String ANALYZE_SQL = "ANALYZE %s";
+    // Claims keys, inserts the first staged row per claimed key, adds the inserted rows
+    // to every rollup granularity, and returns the staged lines that were skipped with
+    // their total (computed before the LIMIT).
+    private static final String MERGE_SQL = "WITH claimed AS ("
+        + "INSERT INTO deal_keys (deal_unique_id) SELECT deal_unique_id FROM %1$s "
+        + "ON CONFLICT DO NOTHING RETURNING deal_unique_id), "
+        + "merged AS ("
+        + "SELECT DISTINCT ON (deal_unique_id) line, deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp "
+        + "FROM %1$s JOIN claimed USING (deal_unique_id) ORDER BY deal_unique_id, line), "
+        + "inserted AS ("
+        + "INSERT INTO deals (deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp) "
+        + "SELECT deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp FROM merged), "
+        + "rolled_up AS ("
+        + "INSERT INTO deal_volume_rollups (granularity, from_currency, to_currency, bucket_start, deal_count, total_amount) "
+        + "SELECT g.granularity, from_currency, to_currency, date_trunc(g.granularity, deal_timestamp), count(*), sum(deal_amount) "
+        + "FROM merged CROSS JOIN (VALUES %2$s) AS g (granularity) GROUP BY 1, 2, 3, 4 ORDER BY 1, 2, 3, 4 "
+        + "ON CONFLICT (granularity, from_currency, to_currency, bucket_start) DO UPDATE SET "
+        + "deal_count = deal_volume_rollups.deal_count + EXCLUDED.deal_count, "
+        + "total_amount = deal_volume_rollups.total_amount + EXCLUDED.total_amount) "
+        + "SELECT s.line, count(*) OVER () FROM %1$s s "
+        + "WHERE NOT EXISTS (SELECT 1 FROM merged m WHERE m.line = s.line) ORDER BY s.line LIMIT ?";
+    private static final String GRANULARITY_VALUES = Arrays.stream(Granularity.values())
+        .map(granularity -> "('" + granularity.column() + "')")
+        .collect(Collectors.joining(", "));
+    private static final String DROP_STAGING_SQL = "DROP TABLE IF EXISTS %s";
+    // Staging tables were unlogged tables before they became temporary ones
+    private static final String STALE_STAGING_SQL = "SELECT c.relname FROM pg_class c "
+        + "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = current_schema() "
+        + "AND c.relkind = 'r' AND c.relpersistence = 'u' AND c.relname LIKE 'deal\\_load\\_%'";
+    private static final String CREATE_PARTITIONS_SQL = "SELECT create_deal_partitions(?, ?)";
+    // Every write claims its deal_keys row, which assigns the transaction id, before it
+    // takes an id, and rollup writes take a version after writing, so the taker of any
+    // value up to either last_value is older than xmax
+    private static final String ISSUED_IDS_SQL = "SELECT d.last_value, r.last_value, "
+        + "pg_snapshot_xmin(s)::text::bigint, pg_snapshot_xmax(s)::text::bigint "
+        + "FROM deals_id_seq d, deal_rollup_version_seq r, pg_current_snapshot() AS s";
+    private static final String PAGE_SQL =
+        "SELECT id, deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp FROM deals "
+            + "WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SEARCH_PREFIX =
+        "SELECT id, deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp FROM deals "
+            + "WHERE deal_timestamp >= ? AND deal_timestamp < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final String fullChunkSql;
+    private final SpoolDirectory spoolDirectory;
+
+    public DealRepositoryImpl(JdbcTemplate jdbcTemplate,
+                              @Value("${fxdeals.batch.chunk-size:500}") int chunkSize,
+                              @Value("${fxdeals.ingest.spool-dir:${java.io.tmpdir}}") String spoolDir) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("fxdeals.batch.chunk-size must be greater than 0");
+        }
+        if (chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("fxdeals.batch.chunk-size must be at most " + MAX_CHUNK_SIZE
+                + " (5 bind parameters per row, 32767 per statement)");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.fullChunkSql = insertSql(chunkSize, INSERTED_COLUMNS);
+        this.spoolDirectory = new SpoolDirectory(Path.of(spoolDir));
+    }
+
+    @Override
+    public Optional<InsertedDeal> insertIfAbsent(Deal deal) {
+        List<InsertedDeal> stored = jdbcTemplate.query(
+            connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT_ONE_SQL);
+                bindRows(ps, List.of(deal));
+                return ps;
+            },
+            (rs, rowNum) -> new InsertedDeal(rs.getLong(1), rs.getLong(2))
+        );
+        return stored.isEmpty() ? Optional.empty() : Optional.of(stored.get(0));
+    }
+
+    @Override
+    public InsertedDeals insertIgnoringDuplicates(List<Deal> deals) {
+        InsertedDeals inserted = new InsertedDeals();
+        for (int from = 0; from < deals.size(); from += chunkSize) {
+            List<Deal> chunk = deals.subList(from, Math.min(from + chunkSize, deals.size()));
+            String sql = chunk.size() == chunkSize ? fullChunkSql : insertSql(chunk.size(), INSERTED_COLUMNS);
+
+            jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(sql);
+                    bindRows(ps, chunk);
+                    return ps;
+                },
+                rs -> {
+                    inserted.add(rs.getString(1), rs.getLong(2));
+                }
+            );
+        }
+        return inserted;
+    }
+
+    @Override
+    public DealCopyResult copyIn(DealCopySource source, int maxReportedDuplicates) {
+        Path spool = spool(source);
+        try {
+            String staging = STAGING_PREFIX + UUID.randomUUID().toString().replace("-", "");
+            return jdbcTemplate.execute((ConnectionCallback<DealCopyResult>) connection -> {
+                execute(connection, String.format(CREATE_STAGING_SQL, staging));
+                try {
+                    long staged = copy(connection, staging, spool);
+                    execute(connection, String.format(STAGED_PARTITIONS_SQL, staging));
+                    execute(connection, String.format(ANALYZE_SQL, staging));
+                    return merge(connection, staging, staged, maxReportedDuplicates);
+                } finally {
+                    execute(connection, String.format(DROP_STAGING_SQL, staging));
+                }
+            });
+        } finally {
+            deleteQuietly(spool);
+        }
+    }
+
+    /**
+     * Writes what the source produces to a file in this instance's spool directory, in
+     * COPY format, so that a slow upload holds a file handle rather than a pooled connection.
+     */
+    private Path spool(DealCopySource source) {
+        Path spool;
+        try {
+            spool = Files.createTempFile(spoolDirectory.get(), SPOOL_PREFIX, SPOOL_SUFFIX);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (OutputStream out = Files.newOutputStream(spool)) {
+            DealCopyWriter writer = new DealCopyWriter(out, COPY_BUFFER_BYTES);
+            source.writeTo(writer);
+            writer.finish();
+            return spool;
+        } catch (IOException e) {
+            deleteQuietly(spool);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deleteQuietly(spool);
+            throw e;
+        }
+    }
+
+    private static long copy(Connection connection, String staging, Path spool) throws SQLException {
+        try (InputStream in = Files.newInputStream(spool)) {
+            return connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn(String.format(COPY_SQL, staging), in, COPY_BUFFER_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int dropStaleBulkLoads() {
+        int dropped = 0;
+        for (String table : jdbcTemplate.queryForList(STALE_STAGING_SQL, String.class)) {
+            jdbcTemplate.execute(String.format(DROP_STAGING_SQL, table));
+            dropped++;
+        }
+        try {
+            dropped += spoolDirectory.removeAbandoned();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return dropped;
+    }
+
+    private static void deleteQuietly(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            // Left for dropStaleBulkLoads once this instance has stopped
+        }
+    }
+
+    private static DealCopyResult merge(Connection connection, String staging, long staged,
+                                        int maxReportedDuplicates) throws SQLException {
+        List<Long> duplicateLines = new ArrayList<>();
+        long duplicates = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
+                String.format(MERGE_SQL, staging, GRANULARITY_VALUES))) {
+            // At least one row, for the total
+            ps.setInt(1, Math.max(maxReportedDuplicates, 1));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    duplicates = rs.getLong(2);
+                    if (duplicateLines.size() < maxReportedDuplicates) {
+                        duplicateLines.add(rs.getLong(1));
+                    }
+                }
+            }
+        }
+        return new DealCopyResult(staged, staged - duplicates, duplicates, duplicateLines);
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @Override
+    public int createPartitions(LocalDateTime from, LocalDateTime to) {
+        Integer created = jdbcTemplate.queryForObject(CREATE_PARTITIONS_SQL, Integer.class, from, to);
+        return created == null ? 0 : created;
+    }
+
+    @Override
+    public IssuedIds issuedIds() {
+        return jdbcTemplate.queryForObject(ISSUED_IDS_SQL,
+            (rs, rowNum) -> new IssuedIds(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)));
+    }
+
+    @Override
+    public void forEachAfter(long afterId, int limit, DealRowCallback callback) {
+        jdbcTemplate.query(PAGE_SQL, rs -> {
+            try {
+                callback.row(rs.getLong(1), rs.getString(2),
+                    CurrencyCodes.toAlpha(rs.getShort(3)), CurrencyCodes.toAlpha(rs.getShort(4)),
+                    rs.getBigDecimal(5), rs.getObject(6, LocalDateTime.class));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, afterId, limit);
+    }
+
+    @Override
+    public List<DealSearchRow> search(DealSearchCriteria criteria, SearchCursor after, int limit) {
+        StringBuilder sql = new StringBuilder(256).append(SEARCH_PREFIX);
+        List<Object> args = new ArrayList<>(9);
+        args.add(criteria.from());
+        args.add(criteria.to());
+        if (criteria.fromCurrency() != null) {
+            sql.append(" AND from_currency = ?");
+            args.add(CurrencyCodes.toNumeric(criteria.fromCurrency()));
+        }
+        if (criteria.toCurrency() != null) {
+            sql.append(" AND to_currency = ?");
+            args.add(CurrencyCodes.toNumeric(criteria.toCurrency()));
+        }
+        if (criteria.minAmount() != null) {
+            sql.append(" AND deal_amount >= ?");
+            args.add(criteria.minAmount());
+        }
+        if (criteria.maxAmount() != null) {
+            sql.append(" AND deal_amount <= ?");
+            args.add(criteria.maxAmount());
+        }
+        if (after != null) {
+            // Row comparison, so the index on (..., deal_timestamp, id) seeks straight to it
+            sql.append(" AND (deal_timestamp, id) > (?, ?)");
+            args.add(after.timestamp());
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY deal_timestamp, id LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            DealResponse deal = new DealResponse();
+            deal.setDealUniqueId(rs.getString(2));
+            deal.setFromCurrency(CurrencyCodes.toAlpha(rs.getShort(3)));
+            deal.setToCurrency(CurrencyCodes.toAlpha(rs.getShort(4)));
+            deal.setDealAmount(rs.getBigDecimal(5));
+            deal.setDealTimestamp(rs.getObject(6, LocalDateTime.class));
+            return new DealSearchRow(rs.getLong(1), deal);
+        }, args.toArray());
+    }
+
+    private static void bindRows(PreparedStatement ps, List<Deal> rows) throws SQLException {
+        int index = 1;
+        for (Deal deal : rows) {
+            ps.setString(index++, deal.getDealUniqueId());
+            ps.setShort(index++, CurrencyCodes.toNumeric(deal.getFromCurrency()));
+            ps.setShort(index++, CurrencyCodes.toNumeric(deal.getToCurrency()));
+            ps.setBigDecimal(index++, deal.getDealAmount());
+            ps.setObject(index++, deal.getDealTimestamp());
+        }
+    }
+
+    private static String insertSql(int rows, String returning) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDER.length() + 8)
+            + INSERT_BODY.length() + returning.length());
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append('(').append(i).append(ROW_PLACEHOLDER);
+        }
+        return sql.append(INSERT_BODY).append(returning).toString();
+    }
+}
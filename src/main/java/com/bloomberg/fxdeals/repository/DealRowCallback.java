@@ -0,0 +1,16 @@
+package com.bloomberg.fxdeals.repository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Receives deals one row at a time as they are read from the result set, so a caller
+ * can write them out without building an entity or a DTO per row.
+ */
+@FunctionalInterface
+public interface DealRowCallback {
+
+    void row(long id, String dealUniqueId, String fromCurrency, String toCurrency,
+             BigDecimal dealAmount, LocalDateTime dealTimestamp) throws IOException;
+}
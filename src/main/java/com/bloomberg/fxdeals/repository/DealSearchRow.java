@@ -0,0 +1,10 @@
+package com.bloomberg.fxdeals.repository;
+
+import com.bloomberg.fxdeals.dto.DealResponse;
+
+/**
+ * A search result mapped straight from the row into the response body, plus the id
+ * the next page's cursor needs.
+ */
+public record DealSearchRow(long id, DealResponse deal) {
+}
@@ -0,0 +1,8 @@
+package com.bloomberg.fxdeals.repository;
+
+/**
+ * A deal stored by {@link DealRepositoryCustom#insertIfAbsent}: its generated id and the
+ * rollup epoch its statement saw (see V7__deal_rollup_epoch.sql).
+ */
+public record InsertedDeal(long id, long rollupEpoch) {
+}
@@ -0,0 +1,55 @@
+package com.bloomberg.fxdeals.repository;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The dealUniqueIds a batch write actually inserted, each with the rollup epoch its
+ * statement saw (see V7__deal_rollup_epoch.sql). Chunks of one write are separate
+ * statements, so a rollup rebuild can land between two of them.
+ */
+public final class InsertedDeals {
+
+    private final Map<String, Long> rollupEpochs = new HashMap<>();
+
+    public static InsertedDeals of(long rollupEpoch, String... dealUniqueIds) {
+        InsertedDeals inserted = new InsertedDeals();
+        for (String dealUniqueId : dealUniqueIds) {
+            inserted.add(dealUniqueId, rollupEpoch);
+        }
+        return inserted;
+    }
+
+    public void add(String dealUniqueId, long rollupEpoch) {
+        rollupEpochs.put(dealUniqueId, rollupEpoch);
+    }
+
+    public void addAll(InsertedDeals other) {
+        rollupEpochs.putAll(other.rollupEpochs);
+    }
+
+    public boolean contains(String dealUniqueId) {
+        return rollupEpochs.containsKey(dealUniqueId);
+    }
+
+    /**
+     * The epoch the deal was inserted under; only valid for ids this set {@link #contains}.
+     */
+    public long rollupEpoch(String dealUniqueId) {
+        return rollupEpochs.get(dealUniqueId);
+    }
+
+    public Set<String> ids() {
+        return Collections.unmodifiableSet(rollupEpochs.keySet());
+    }
+
+    public int size() {
+        return rollupEpochs.size();
+    }
+
+    public boolean isEmpty() {
+        return rollupEpochs.isEmpty();
+    }
+}
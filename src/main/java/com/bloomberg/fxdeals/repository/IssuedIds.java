@@ -0,0 +1,12 @@
+package com.bloomberg.fxdeals.repository;
+
+/**
+ * The last values of deals_id_seq and deal_rollup_version_seq and the transaction
+ * horizon read with them: every value up to {@code lastIssuedId} or
+ * {@code lastRollupVersion} was taken by a transaction older than
+ * {@code nextTransactionId}, so all of them are committed or rolled back once
+ * {@code oldestRunningTransactionId} read later has reached it.
+ */
+public record IssuedIds(long lastIssuedId, long lastRollupVersion,
+                        long oldestRunningTransactionId, long nextTransactionId) {
+}
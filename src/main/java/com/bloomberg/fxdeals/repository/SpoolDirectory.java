@@ -0,0 +1,104 @@
+package com.bloomberg.fxdeals.repository;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This process's directory for bulk load spool files, under
+ * {@code fxdeals.ingest.spool-dir}. The parent may be shared by several instances (it
+ * defaults to {@code java.io.tmpdir}), so each one spools into its own
+ * {@code deal-loads-*} directory and holds an exclusive lock on a file in it for as
+ * long as it runs. The operating system drops the lock when the process exits, so a
+ * directory whose lock can be taken belongs to an instance that is gone, and only those
+ * are cleared.
+ */
+final class SpoolDirectory {
+
+    private static final String PREFIX = "deal-loads-";
+    private static final String LOCK_FILE = ".lock";
+
+    private final Path parent;
+    private Path directory;
+    // Open for the life of the process; closing it would release the lock
+    private FileChannel lockChannel;
+
+    SpoolDirectory(Path parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * The directory, created and locked on first use.
+     */
+    synchronized Path get() throws IOException {
+        if (directory == null) {
+            Files.createDirectories(parent);
+            // Locked under a name the sweep does not match, then renamed, so no instance
+            // ever sees a deal-loads-* directory without its lock
+            Path pending = Files.createTempDirectory(parent, "." + PREFIX);
+            FileChannel channel = FileChannel.open(pending.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            channel.lock();
+            Path locked = parent.resolve(pending.getFileName().toString().substring(1));
+            Files.move(pending, locked, StandardCopyOption.ATOMIC_MOVE);
+            lockChannel = channel;
+            directory = locked;
+        }
+        return directory;
+    }
+
+    /**
+     * Deletes the directories, and the spool files in them, of instances that are no
+     * longer running.
+     *
+     * @return how many spool files were deleted
+     */
+    synchronized int removeAbandoned() throws IOException {
+        if (!Files.isDirectory(parent)) {
+            return 0;
+        }
+        int removed = 0;
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(parent, PREFIX + "*")) {
+            for (Path candidate : directories) {
+                if (!candidate.equals(directory) && Files.isDirectory(candidate)) {
+                    removed += removeIfAbandoned(candidate);
+                }
+            }
+        }
+        return removed;
+    }
+
+    private static int removeIfAbandoned(Path candidate) throws IOException {
+        Path lockFile = candidate.resolve(LOCK_FILE);
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                return 0;
+            }
+            int removed = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(candidate)) {
+                for (Path file : files) {
+                    if (!file.equals(lockFile) && Files.deleteIfExists(file)) {
+                        removed++;
+                    }
+                }
+            }
+            Files.delete(lockFile);
+            Files.delete(candidate);
+            return removed;
+        } catch (OverlappingFileLockException e) {
+            // Held by another SpoolDirectory in this JVM
+            return 0;
+        } catch (NoSuchFileException e) {
+            // Another instance cleared it first
+            return 0;
+        }
+    }
+}
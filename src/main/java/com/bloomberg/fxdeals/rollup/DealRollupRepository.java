@@ -0,0 +1,135 @@
+package com.bloomberg.fxdeals.rollup;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to deal_volume_rollups (see V6__deal_volume_rollups.sql), its epoch
+ * (see V7__deal_rollup_epoch.sql) and its version (see V8__deal_rollup_version.sql).
+ */
+@Repository
+@Profile("!reactive")
+public class DealRollupRepository {
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO deal_volume_rollups (granularity, from_currency, to_currency, bucket_start, deal_count, total_amount) "
+            + "VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (granularity, from_currency, to_currency, bucket_start) DO UPDATE SET "
+            + "deal_count = deal_volume_rollups.deal_count + EXCLUDED.deal_count, "
+            + "total_amount = deal_volume_rollups.total_amount + EXCLUDED.total_amount";
+
+    // Held until the flush commits, so a rebuild cannot bump the epoch under it
+    private static final String CURRENT_EPOCH_SQL = "SELECT epoch FROM deal_rollup_epoch FOR SHARE";
+
+    // One rebuild at a time across instances; a second one has nothing left to fix
+    private static final String TRY_REBUILD_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(hashtext('deal_volume_rollups'))";
+    // Waits for every insert in flight and holds new ones off until the rebuild commits
+    private static final String HOLD_WRITES_SQL = "LOCK TABLE deal_keys IN SHARE MODE";
+    private static final String NEXT_EPOCH_SQL = "UPDATE deal_rollup_epoch SET epoch = epoch + 1";
+    private static final String CLEAR_SQL = "DELETE FROM deal_volume_rollups";
+    // After the write, so DealsWatermark sees the version move only once the writer has
+    // a transaction id to wait on
+    private static final String NEXT_VERSION_SQL = "SELECT nextval('deal_rollup_version_seq')";
+
+    // One pass over deals per granularity; GROUP BY runs as a hash aggregate
+    private static final String REBUILD_SQL =
+        "INSERT INTO deal_volume_rollups (granularity, from_currency, to_currency, bucket_start, deal_count, total_amount) "
+            + "SELECT ?, from_currency, to_currency, date_trunc(?, deal_timestamp), count(*), sum(deal_amount) "
+            + "FROM deals GROUP BY 1, 2, 3, 4";
+
+    private static final String FIND_PREFIX =
+        "SELECT from_currency, to_currency, bucket_start, deal_count, total_amount FROM deal_volume_rollups "
+            + "WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public DealRollupRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Adds the given totals, recorded for deals inserted under {@code epoch}, onto the
+     * stored rows, creating missing ones, in one batch. Nothing is written if a rebuild
+     * has moved the epoch on since, as it already counted those deals. Keys must be in
+     * {@link RollupKey#ORDER}.
+     *
+     * @return the current epoch; the totals were written only if it equals {@code epoch}
+     */
+    public long addAll(long epoch, List<Map.Entry<RollupKey, RollupTotals>> rows) {
+        return transactionTemplate.execute(status -> {
+            long current = jdbcTemplate.queryForObject(CURRENT_EPOCH_SQL, Long.class);
+            if (current != epoch) {
+                return current;
+            }
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (PreparedStatement ps, Map.Entry<RollupKey, RollupTotals> row) -> {
+                RollupKey key = row.getKey();
+                ps.setString(1, key.granularity().column());
+                ps.setShort(2, key.fromCurrency());
+                ps.setShort(3, key.toCurrency());
+                ps.setObject(4, key.bucketStart());
+                ps.setLong(5, row.getValue().count());
+                ps.setBigDecimal(6, row.getValue().amount());
+            });
+            jdbcTemplate.queryForObject(NEXT_VERSION_SQL, Long.class);
+            return current;
+        });
+    }
+
+    /**
+     * Recomputes every rollup row from the deals table, in one transaction so readers
+     * see either the old rows or the new ones. Inserts wait while it runs; it bumps the
+     * epoch so that deltas instances still hold for deals it counted are dropped.
+     *
+     * @return false if another instance is rebuilding already
+     */
+    public boolean rebuild() {
+        return transactionTemplate.execute(status -> {
+            if (!jdbcTemplate.queryForObject(TRY_REBUILD_LOCK_SQL, Boolean.class)) {
+                return false;
+            }
+            jdbcTemplate.execute(HOLD_WRITES_SQL);
+            jdbcTemplate.update(NEXT_EPOCH_SQL);
+            jdbcTemplate.update(CLEAR_SQL);
+            for (Granularity granularity : Granularity.values()) {
+                jdbcTemplate.update(REBUILD_SQL, granularity.column(), granularity.column());
+            }
+            jdbcTemplate.queryForObject(NEXT_VERSION_SQL, Long.class);
+            return true;
+        });
+    }
+
+    /**
+     * Stored rows with a bucket start in [from, to), optionally for one currency only
+     * on either side. Reads one row per bucket returned.
+     */
+    public List<Map.Entry<RollupKey, RollupTotals>> find(Granularity granularity, Short fromCurrency, Short toCurrency,
+                                                        LocalDateTime from, LocalDateTime to) {
+        StringBuilder sql = new StringBuilder(FIND_PREFIX);
+        List<Object> args = new ArrayList<>(5);
+        args.add(granularity.column());
+        args.add(from);
+        args.add(to);
+        if (fromCurrency != null) {
+            sql.append(" AND from_currency = ?");
+            args.add(fromCurrency);
+        }
+        if (toCurrency != null) {
+            sql.append(" AND to_currency = ?");
+            args.add(toCurrency);
+        }
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> Map.entry(
+            new RollupKey(granularity, rs.getShort(1), rs.getShort(2), rs.getObject(3, LocalDateTime.class)),
+            new RollupTotals(rs.getLong(4), rs.getBigDecimal(5))), args.toArray());
+    }
+}
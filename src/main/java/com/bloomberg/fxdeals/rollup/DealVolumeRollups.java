@@ -0,0 +1,258 @@
+package com.bloomberg.fxdeals.rollup;
+
+import com.bloomberg.fxdeals.dto.VolumeBucket;
+import com.bloomberg.fxdeals.model.CurrencyCodes;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.repository.InsertedDeals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps deal count and notional per currency pair per minute, hour and day up to date
+ * as deals are written, so stats never scan the deals table.
+ *
+ * <p>Writers add to one of several stripes picked by thread, each a small map behind
+ * its own lock, so concurrent requests rarely touch the same lock or cache line. Every
+ * {@code fxdeals.rollups.flush-interval-ms} the stripes are swapped out and their
+ * deltas added onto deal_volume_rollups in one batch; a failed flush puts them back.
+ * Reads combine the stored rows with the deltas not flushed yet, and wait for a flush
+ * in progress so that its deltas are counted exactly once.
+ *
+ * <p>Deltas are kept per rollup epoch, the generation of the table each deal's insert
+ * saw. A rebuild from deals (at startup when {@code fxdeals.rollups.rebuild-on-startup}
+ * is set, before the journal flusher and the web server start writing) repairs deltas
+ * lost by a crash; it holds inserts off on every instance while it runs and moves the
+ * epoch on, so deltas other instances still hold for deals it counted are dropped at
+ * their next flush rather than added twice, and left out of reads meanwhile.
+ */
+@Component
+@Profile("!reactive")
+public class DealVolumeRollups implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DealVolumeRollups.class);
+    private static final Granularity[] GRANULARITIES = Granularity.values();
+
+    private final DealRollupRepository repository;
+    private final boolean rebuildOnStartup;
+    private final Stripe[] stripes;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Newest epoch seen; pending deltas of older ones are already in the table
+    private final AtomicLong epoch = new AtomicLong();
+    private volatile boolean running;
+
+    public DealVolumeRollups(DealRollupRepository repository,
+                             @Value("${fxdeals.rollups.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.repository = repository;
+        this.rebuildOnStartup = rebuildOnStartup;
+        int count = 1;
+        while (count < Runtime.getRuntime().availableProcessors() * 2) {
+            count <<= 1;
+        }
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Adds a newly stored deal to its minute, hour and day buckets; {@code rollupEpoch}
+     * is the epoch its insert returned.
+     */
+    public void record(Deal deal, long rollupEpoch) {
+        short from = CurrencyCodes.toNumeric(deal.getFromCurrency());
+        short to = CurrencyCodes.toNumeric(deal.getToCurrency());
+        seen(rollupEpoch);
+        Stripe stripe = stripe();
+        stripe.lock.lock();
+        try {
+            Map<RollupKey, RollupTotals> pending = stripe.pending.computeIfAbsent(rollupEpoch, e -> new HashMap<>());
+            for (Granularity granularity : GRANULARITIES) {
+                RollupKey key = new RollupKey(granularity, from, to, granularity.bucketStart(deal.getDealTimestamp()));
+                pending.computeIfAbsent(key, k -> new RollupTotals()).add(deal.getDealAmount());
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Records the deals of a batch write that are in {@code inserted}.
+     */
+    public void record(Collection<Deal> deals, InsertedDeals inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        for (Deal deal : deals) {
+            if (inserted.contains(deal.getDealUniqueId())) {
+                record(deal, inserted.rollupEpoch(deal.getDealUniqueId()));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fxdeals.rollups.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Map<RollupKey, RollupTotals>> byEpoch = new TreeMap<>();
+            for (Stripe stripe : stripes) {
+                stripe.drain().forEach((drainedEpoch, drained) -> {
+                    Map<RollupKey, RollupTotals> deltas = byEpoch.computeIfAbsent(drainedEpoch, e -> new TreeMap<>(RollupKey.ORDER));
+                    drained.forEach((key, totals) -> deltas.merge(key, totals, RollupTotals::mergeInto));
+                });
+            }
+            for (Map.Entry<Long, Map<RollupKey, RollupTotals>> entry : byEpoch.entrySet()) {
+                long deltaEpoch = entry.getKey();
+                Map<RollupKey, RollupTotals> deltas = entry.getValue();
+                try {
+                    long current = repository.addAll(deltaEpoch, new ArrayList<>(deltas.entrySet()));
+                    seen(current);
+                    if (current != deltaEpoch) {
+                        log.info("Dropped {} rollup buckets recorded before the rebuild to epoch {}", deltas.size(), current);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Rollup flush of {} buckets failed, retrying on the next run: {}", deltas.size(), e.getMessage());
+                    restore(deltaEpoch, deltas);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Buckets of the given size starting in [from, to), for one pair or, with null
+     * currencies, every pair; ordered by pair then bucket start.
+     */
+    public List<VolumeBucket> find(Granularity granularity, String fromCurrency, String toCurrency,
+                                   LocalDateTime from, LocalDateTime to) {
+        Short fromCode = fromCurrency == null ? null : CurrencyCodes.toNumeric(fromCurrency);
+        Short toCode = toCurrency == null ? null : CurrencyCodes.toNumeric(toCurrency);
+        LocalDateTime firstBucket = granularity.bucketStart(from);
+
+        Map<RollupKey, RollupTotals> buckets = new TreeMap<>(RollupKey.ORDER);
+        flushLock.lock();
+        try {
+            for (Map.Entry<RollupKey, RollupTotals> row : repository.find(granularity, fromCode, toCode, firstBucket, to)) {
+                buckets.put(row.getKey(), row.getValue());
+            }
+            addPending(buckets, granularity, fromCode, toCode, firstBucket, to);
+        } finally {
+            flushLock.unlock();
+        }
+
+        List<VolumeBucket> result = new ArrayList<>(buckets.size());
+        buckets.forEach((key, totals) -> result.add(new VolumeBucket(
+            CurrencyCodes.toAlpha(key.fromCurrency()), CurrencyCodes.toAlpha(key.toCurrency()),
+            key.bucketStart(), totals.count(), totals.amount())));
+        return result;
+    }
+
+    private void restore(long deltaEpoch, Map<RollupKey, RollupTotals> deltas) {
+        Stripe stripe = stripe();
+        stripe.lock.lock();
+        try {
+            Map<RollupKey, RollupTotals> pending = stripe.pending.computeIfAbsent(deltaEpoch, e -> new HashMap<>());
+            deltas.forEach((key, totals) -> pending.merge(key, totals, RollupTotals::mergeInto));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void seen(long rollupEpoch) {
+        if (rollupEpoch > epoch.get()) {
+            epoch.accumulateAndGet(rollupEpoch, Math::max);
+        }
+    }
+
+    private void addPending(Map<RollupKey, RollupTotals> buckets, Granularity granularity, Short fromCode,
+                            Short toCode, LocalDateTime firstBucket, LocalDateTime to) {
+        long current = epoch.get();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Map<RollupKey, RollupTotals> pending = stripe.pending.get(current);
+                if (pending == null) {
+                    continue;
+                }
+                pending.forEach((key, totals) -> {
+                    if (key.granularity() == granularity
+                            && (fromCode == null || key.fromCurrency() == fromCode)
+                            && (toCode == null || key.toCurrency() == toCode)
+                            && !key.bucketStart().isBefore(firstBucket) && key.bucketStart().isBefore(to)) {
+                        buckets.computeIfAbsent(key, k -> new RollupTotals()).merge(totals);
+                    }
+                });
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (rebuildOnStartup) {
+            long start = System.nanoTime();
+            if (repository.rebuild()) {
+                log.info("Rebuilt deal volume rollups in {} ms", (System.nanoTime() - start) / 1_000_000);
+            } else {
+                log.info("Deal volume rollups are being rebuilt by another instance, skipped");
+            }
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Below JournalFlusher's phase: rebuilt before it writes, flushed after it drains
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    private Stripe stripe() {
+        return stripes[(System.identityHashCode(Thread.currentThread()) & 0x7fffffff) & (stripes.length - 1)];
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        // By rollup epoch; more than one only around a rebuild
+        private Map<Long, Map<RollupKey, RollupTotals>> pending = new HashMap<>();
+
+        Map<Long, Map<RollupKey, RollupTotals>> drain() {
+            lock.lock();
+            try {
+                Map<Long, Map<RollupKey, RollupTotals>> drained = pending;
+                pending = new HashMap<>();
+                return drained;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.bloomberg.fxdeals.rollup;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Bucket sizes the volume rollups are kept at. Every deal is added to one bucket of
+ * each, so a query reads exactly the buckets it returns whatever size it asks for.
+ */
+public enum Granularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+    // Value of deal_volume_rollups.granularity
+    private final String column;
+
+    Granularity(ChronoUnit unit) {
+        this.unit = unit;
+        this.column = name().toLowerCase(Locale.ROOT);
+    }
+
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    /**
+     * How many buckets start in [from, to).
+     */
+    public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+        return unit.between(bucketStart(from), to.minusNanos(1)) + 1;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    public static Optional<Granularity> fromName(String name) {
+        for (Granularity granularity : values()) {
+            if (granularity.column.equalsIgnoreCase(name)) {
+                return Optional.of(granularity);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,18 @@
+package com.bloomberg.fxdeals.rollup;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * One row of deal_volume_rollups: a currency pair (stored codes) in one bucket.
+ */
+record RollupKey(Granularity granularity, short fromCurrency, short toCurrency, LocalDateTime bucketStart) {
+
+    // Primary key order, granularity by its stored text as the SQL writers sort it:
+    // flushes upsert in it so concurrent writers never deadlock
+    static final Comparator<RollupKey> ORDER = Comparator
+        .comparing((RollupKey key) -> key.granularity().column())
+        .thenComparingInt(RollupKey::fromCurrency)
+        .thenComparingInt(RollupKey::toCurrency)
+        .thenComparing(RollupKey::bucketStart);
+}
@@ -0,0 +1,78 @@
+package com.bloomberg.fxdeals.rollup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Mutable deal count and notional of one bucket. Amounts are summed as a long count of
+ * cents, rounded the way the NUMERIC(38, 2) column rounds them, and only move to a
+ * BigDecimal in the rare case the sum no longer fits in a long. Not thread-safe; owned
+ * by one stripe of {@link DealVolumeRollups} or by a single reader.
+ */
+final class RollupTotals {
+
+    private long count;
+    private long cents;
+    // Sum that spilled out of cents, or null
+    private BigDecimal overflow;
+
+    RollupTotals() {
+    }
+
+    RollupTotals(long count, BigDecimal amount) {
+        this.count = count;
+        addAmount(amount);
+    }
+
+    void add(BigDecimal amount) {
+        count++;
+        addAmount(amount);
+    }
+
+    void merge(RollupTotals other) {
+        count += other.count;
+        if (other.overflow != null) {
+            addAmount(other.amount());
+        } else {
+            addCents(other.cents);
+        }
+    }
+
+    /**
+     * Merges {@code other} into {@code target} and returns it, for {@code Map.merge}.
+     */
+    static RollupTotals mergeInto(RollupTotals target, RollupTotals other) {
+        target.merge(other);
+        return target;
+    }
+
+    long count() {
+        return count;
+    }
+
+    BigDecimal amount() {
+        BigDecimal amount = BigDecimal.valueOf(cents, 2);
+        return overflow == null ? amount : amount.add(overflow);
+    }
+
+    private void addAmount(BigDecimal amount) {
+        BigDecimal rounded = amount.setScale(2, RoundingMode.HALF_UP);
+        if (rounded.unscaledValue().bitLength() < Long.SIZE) {
+            addCents(rounded.unscaledValue().longValue());
+        } else {
+            overflow = overflow == null ? rounded : overflow.add(rounded);
+        }
+    }
+
+    private void addCents(long value) {
+        long sum = cents + value;
+        // Overflow iff both operands have the same sign and the sum's sign differs
+        if (((cents ^ sum) & (value ^ sum)) < 0) {
+            BigDecimal spilled = BigDecimal.valueOf(cents, 2).add(BigDecimal.valueOf(value, 2));
+            overflow = overflow == null ? spilled : overflow.add(spilled);
+            cents = 0;
+        } else {
+            cents = sum;
+        }
+    }
+}
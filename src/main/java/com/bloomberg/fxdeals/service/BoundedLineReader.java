@@ -0,0 +1,85 @@
+package com.bloomberg.fxdeals.service;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines like {@link java.io.BufferedReader#readLine()} (ending at \n, \r or \r\n)
+ * but keeps at most {@code maxLength} characters of each: the rest of a longer line is
+ * skipped up to its end, so a body without line breaks cannot grow one String to its
+ * full size.
+ */
+final class BoundedLineReader {
+
+    private final Reader in;
+    private final int maxLength;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean skipLineFeed;
+    private boolean overlong;
+
+    BoundedLineReader(Reader in, int maxLength) {
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("maxLength must be greater than 0");
+        }
+        this.in = in;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * The next line without its terminator, cut to {@code maxLength} characters, or null
+     * at the end of the input.
+     */
+    String readLine() throws IOException {
+        line.setLength(0);
+        overlong = false;
+        boolean started = false;
+        while (true) {
+            if (position == limit) {
+                int read = in.read(buffer, 0, buffer.length);
+                if (read < 0) {
+                    return started ? line.toString() : null;
+                }
+                position = 0;
+                limit = read;
+                continue;
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            started = true;
+            int start = position;
+            while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                position++;
+            }
+            append(start, position);
+            if (position < limit) {
+                skipLineFeed = buffer[position++] == '\r';
+                return line.toString();
+            }
+        }
+    }
+
+    /**
+     * Whether the line last returned was longer than {@code maxLength} and was cut.
+     */
+    boolean isOverlong() {
+        return overlong;
+    }
+
+    private void append(int start, int end) {
+        int room = maxLength - line.length();
+        if (end - start > room) {
+            line.append(buffer, start, room);
+            overlong = true;
+        } else {
+            line.append(buffer, start, end - start);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.bloomberg.fxdeals.service;
+
+import com.bloomberg.fxdeals.format.DealFileFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface DealExportService {
+
+    /**
+     * Streams the deals whose timestamp falls in [from, to) to the output.
+     * Either bound may be null for an open range.
+     *
+     * @return the number of deals written
+     */
+    long export(DealFileFormat format, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException;
+}
@@ -0,0 +1,68 @@
+package com.bloomberg.fxdeals.service;
+
+import com.bloomberg.fxdeals.aspect.Loggable;
+import com.bloomberg.fxdeals.format.CsvDealRecordWriter;
+import com.bloomberg.fxdeals.format.DealFileFormat;
+import com.bloomberg.fxdeals.format.DealRecordWriter;
+import com.bloomberg.fxdeals.format.NdjsonDealRecordWriter;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.repository.DealRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes deals to the response as they come off the database cursor. Each entity is
+ * detached once written, so neither the result set nor the persistence context is
+ * ever held in memory as a whole.
+ */
+@Service
+@Profile("!reactive")
+@Loggable
+public class DealExportServiceImpl implements DealExportService {
+
+    private final DealRepository dealRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public DealExportServiceImpl(DealRepository dealRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.dealRepository = dealRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long export(DealFileFormat format, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        DealRecordWriter writer = writerFor(format, out);
+        long written = 0;
+
+        try (Stream<Deal> deals = dealRepository.streamByDealTimestamp(from, to)) {
+            Iterator<Deal> iterator = deals.iterator();
+            while (iterator.hasNext()) {
+                Deal deal = iterator.next();
+                writer.write(deal);
+                entityManager.detach(deal);
+                written++;
+            }
+        }
+
+        writer.finish();
+        return written;
+    }
+
+    private DealRecordWriter writerFor(DealFileFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonDealRecordWriter(objectMapper.getFactory(), out);
+            case CSV -> new CsvDealRecordWriter(out);
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.bloomberg.fxdeals.service;
+
+import com.bloomberg.fxdeals.dto.IngestionReport;
+import com.bloomberg.fxdeals.format.DealFileFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface DealIngestionService {
+
+    IngestionReport ingest(InputStream body, DealFileFormat format) throws IOException;
+
+    /**
+     * Loads the file through Postgres COPY and a single merge statement rather than
+     * chunked INSERTs. With {@code backfill} the 30-day timestamp window is not enforced.
+     */
+    IngestionReport bulkLoad(InputStream body, DealFileFormat format, boolean backfill) throws IOException;
+}
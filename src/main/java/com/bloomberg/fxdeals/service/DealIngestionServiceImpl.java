@@ -0,0 +1,220 @@
+package com.bloomberg.fxdeals.service;
+
+import com.bloomberg.fxdeals.aspect.Loggable;
+import com.bloomberg.fxdeals.cache.DealLookupCache;
+import com.bloomberg.fxdeals.cache.DealsWatermark;
+import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.dto.IngestionReport;
+import com.bloomberg.fxdeals.format.CsvDealLineParser;
+import com.bloomberg.fxdeals.format.DealFileFormat;
+import com.bloomberg.fxdeals.format.DealLineParser;
+import com.bloomberg.fxdeals.format.NdjsonDealLineParser;
+import com.bloomberg.fxdeals.metrics.DealMetrics;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.repository.DealCopyResult;
+import com.bloomberg.fxdeals.repository.DealRepository;
+import com.bloomberg.fxdeals.repository.InsertedDeals;
+import com.bloomberg.fxdeals.rollup.DealVolumeRollups;
+import com.bloomberg.fxdeals.validation.DealValidator;
+import com.bloomberg.fxdeals.validation.ValidationResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an upstream file line by line and writes it in fixed-size chunks, so
+ * heap usage depends on the chunk size and not on the size of the file. Backfills can
+ * take the COPY path instead, which streams the whole file into one staging table and
+ * merges it in a single statement.
+ */
+@Service
+@Profile("!reactive")
+@Loggable
+public class DealIngestionServiceImpl implements DealIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DealIngestionServiceImpl.class);
+
+    private final DealRepository dealRepository;
+    private final ObjectMapper objectMapper;
+    private final DealMetrics metrics;
+    private final DealVolumeRollups rollups;
+    private final DealLookupCache lookupCache;
+    private final DealsWatermark watermark;
+    private final int chunkSize;
+    private final int maxReportedRejections;
+    private final int maxLineLength;
+
+    public DealIngestionServiceImpl(DealRepository dealRepository,
+                                    ObjectMapper objectMapper,
+                                    DealMetrics metrics,
+                                    DealVolumeRollups rollups,
+                                    DealLookupCache lookupCache,
+                                    DealsWatermark watermark,
+                                    @Value("${fxdeals.ingest.chunk-size:1000}") int chunkSize,
+                                    @Value("${fxdeals.ingest.max-reported-rejections:1000}") int maxReportedRejections,
+                                    @Value("${fxdeals.ingest.max-line-length:4096}") int maxLineLength) {
+        this.dealRepository = dealRepository;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.rollups = rollups;
+        this.lookupCache = lookupCache;
+        this.watermark = watermark;
+        this.chunkSize = chunkSize;
+        this.maxReportedRejections = maxReportedRejections;
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public IngestionReport ingest(InputStream body, DealFileFormat format) throws IOException {
+        long start = System.nanoTime();
+        Tally tally = new Tally();
+        List<Deal> chunk = new ArrayList<>(chunkSize);
+
+        read(body, format, true, tally, (lineNumber, deal) -> {
+            chunk.add(deal);
+            if (chunk.size() == chunkSize) {
+                write(chunk, tally);
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            write(chunk, tally);
+        }
+
+        metrics.created(tally.created);
+        metrics.duplicate(tally.duplicates);
+        return new IngestionReport(tally.rowsRead, tally.created, tally.duplicates, tally.rejected,
+            tally.rejectedLines, System.nanoTime() - start);
+    }
+
+    @Override
+    public IngestionReport bulkLoad(InputStream body, DealFileFormat format, boolean backfill) throws IOException {
+        long start = System.nanoTime();
+        Tally tally = new Tally();
+
+        DealCopyResult result;
+        try {
+            result = dealRepository.copyIn(
+                writer -> read(body, format, !backfill, tally, writer::write), maxReportedRejections);
+        } catch (UncheckedIOException e) {
+            // Reading the body failed mid-COPY; nothing was merged
+            throw e.getCause();
+        }
+
+        // The merge already added the rows to the rollup table; which ids it stored is
+        // not known here, so only cached misses are dropped.
+        lookupCache.invalidateMisses();
+        if (result.created() > 0) {
+            watermark.advance();
+        }
+        metrics.created(result.created());
+        metrics.duplicate(result.duplicates());
+        return new IngestionReport(tally.rowsRead, result.created(), result.duplicates(), tally.rejected,
+            tally.rejectedLines, result.duplicateLines(), System.nanoTime() - start);
+    }
+
+    /**
+     * Once at startup, removes the spool files and staging tables of bulk loads that a
+     * crash or kill cut short before they could clean up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropStaleBulkLoads() {
+        try {
+            int dropped = dealRepository.dropStaleBulkLoads();
+            if (dropped > 0) {
+                log.info("Removed {} spool file(s) and staging table(s) left by interrupted bulk loads", dropped);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Removing leftovers of interrupted bulk loads failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Parses and validates the body line by line, counting and reporting rejected lines,
+     * and hands each valid deal to the sink. Lines longer than
+     * {@code fxdeals.ingest.max-line-length} are rejected without being held in full.
+     */
+    private void read(InputStream body, DealFileFormat format, boolean enforceTimeWindow,
+                      Tally tally, DealSink sink) throws IOException {
+        DealLineParser parser = parserFor(format);
+        BoundedLineReader reader = new BoundedLineReader(new InputStreamReader(body, StandardCharsets.UTF_8), maxLineLength);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!reader.isOverlong() && (line.isBlank() || parser.isHeader(line, lineNumber))) {
+                continue;
+            }
+            tally.rowsRead++;
+
+            String rejection;
+            try {
+                if (reader.isOverlong()) {
+                    throw new IllegalArgumentException("Line is longer than " + maxLineLength + " characters");
+                }
+                DealRequest request = parser.parse(line);
+                ValidationResult validation = DealValidator.check(request, enforceTimeWindow);
+                if (validation.isValid()) {
+                    sink.accept(lineNumber, DealMapper.toDeal(request));
+                    continue;
+                }
+                rejection = validation.getMessage();
+                metrics.rejected(validation);
+            } catch (IllegalArgumentException e) {
+                // Unparseable line
+                rejection = e.getMessage();
+                metrics.unparseable();
+            }
+            tally.rejected++;
+            if (tally.rejectedLines.size() < maxReportedRejections) {
+                tally.rejectedLines.add(new IngestionReport.RejectedLine(lineNumber, rejection));
+            }
+        }
+    }
+
+    private void write(List<Deal> chunk, Tally tally) {
+        InsertedDeals inserted = dealRepository.insertIgnoringDuplicates(chunk);
+        rollups.record(chunk, inserted);
+        lookupCache.invalidateAll(inserted.ids());
+        if (!inserted.isEmpty()) {
+            watermark.advance();
+        }
+        tally.created += inserted.size();
+        tally.duplicates += chunk.size() - inserted.size();
+    }
+
+    private DealLineParser parserFor(DealFileFormat format) {
+        return switch (format) {
+            case NDJSON -> new NdjsonDealLineParser(objectMapper.reader());
+            case CSV -> new CsvDealLineParser();
+        };
+    }
+
+    @FunctionalInterface
+    private interface DealSink {
+
+        void accept(long lineNumber, Deal deal) throws IOException;
+    }
+
+    private static final class Tally {
+
+        private long rowsRead;
+        private long created;
+        private long duplicates;
+        private long rejected;
+        private final List<IngestionReport.RejectedLine> rejectedLines = new ArrayList<>();
+    }
+}
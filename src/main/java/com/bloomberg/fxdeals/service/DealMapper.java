@@ -0,0 +1,34 @@
+package com.bloomberg.fxdeals.service;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.dto.DealResponse;
+import com.bloomberg.fxdeals.model.Deal;
+
+/**
+ * Maps validated requests to entities and entities to responses; shared by the servlet services and the reactive handlers.
+ */
+public final class DealMapper {
+
+    private DealMapper() {
+    }
+
+    public static Deal toDeal(DealRequest request) {
+        Deal deal = new Deal();
+        deal.setDealUniqueId(request.getDealUniqueId());
+        deal.setFromCurrency(request.getFromCurrency());
+        deal.setToCurrency(request.getToCurrency());
+        deal.setDealAmount(request.getDealAmount());
+        deal.setDealTimestamp(request.getDealTimestamp());
+        return deal;
+    }
+
+    public static DealResponse toResponse(Deal deal) {
+        DealResponse response = new DealResponse();
+        response.setDealUniqueId(deal.getDealUniqueId());
+        response.setFromCurrency(deal.getFromCurrency());
+        response.setToCurrency(deal.getToCurrency());
+        response.setDealAmount(deal.getDealAmount());
+        response.setDealTimestamp(deal.getDealTimestamp());
+        return response;
+    }
+}
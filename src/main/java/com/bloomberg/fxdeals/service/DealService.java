@@ -1,11 +1,21 @@
 package com.bloomberg.fxdeals.service;
 
+import com.bloomberg.fxdeals.dto.BatchDealResponse;
 import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.dto.DealResponse;
+import com.bloomberg.fxdeals.dto.DealSearchCriteria;
 import com.bloomberg.fxdeals.model.Deal;
-import java.util.List;  
+import com.bloomberg.fxdeals.pagination.SearchCursor;
+import com.bloomberg.fxdeals.repository.DealRowCallback;
+import com.bloomberg.fxdeals.repository.DealSearchRow;
+import java.util.List;
+import java.util.Optional;  
 
 public interface DealService {
     
     Deal createDeal(DealRequest request);
-    List<Deal> getAllDeals();  
-}
\ No newline at end of file
+    BatchDealResponse createDeals(List<DealRequest> requests);
+    void forEachDealAfter(long afterId, int limit, DealRowCallback callback);
+    Optional<DealResponse> findDeal(String dealUniqueId);
+    List<DealSearchRow> searchDeals(DealSearchCriteria criteria, SearchCursor after, int limit);
+}
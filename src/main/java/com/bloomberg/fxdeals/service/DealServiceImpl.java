@@ -1,44 +1,162 @@
 package com.bloomberg.fxdeals.service;
 
+import com.bloomberg.fxdeals.aspect.LogLevel;
+import com.bloomberg.fxdeals.aspect.Loggable;
+import com.bloomberg.fxdeals.dto.BatchDealResponse;
+import com.bloomberg.fxdeals.dto.BatchDealResult;
+import com.bloomberg.fxdeals.cache.DealLookupCache;
+import com.bloomberg.fxdeals.cache.DealsWatermark;
 import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.dto.DealResponse;
+import com.bloomberg.fxdeals.dto.DealSearchCriteria;
+import com.bloomberg.fxdeals.exception.DuplicateDealException;
+import com.bloomberg.fxdeals.metrics.DealMetrics;
 import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.pagination.SearchCursor;
 import com.bloomberg.fxdeals.repository.DealRepository;
+import com.bloomberg.fxdeals.repository.DealRowCallback;
+import com.bloomberg.fxdeals.repository.DealSearchRow;
+import com.bloomberg.fxdeals.repository.InsertedDeal;
+import com.bloomberg.fxdeals.repository.InsertedDeals;
+import com.bloomberg.fxdeals.rollup.DealVolumeRollups;
+import com.bloomberg.fxdeals.validation.DealValidator;
+import com.bloomberg.fxdeals.validation.ValidationResult;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Profile("!reactive")
+@Loggable
 public class DealServiceImpl implements DealService {
 
     private final DealRepository dealRepository;
+    private final DealMetrics metrics;
+    private final DealVolumeRollups rollups;
+    private final DealLookupCache lookupCache;
+    private final DealsWatermark watermark;
 
-    public DealServiceImpl(DealRepository dealRepository) {
+    public DealServiceImpl(DealRepository dealRepository, DealMetrics metrics, DealVolumeRollups rollups,
+                           DealLookupCache lookupCache, DealsWatermark watermark) {
         this.dealRepository = dealRepository;
+        this.metrics = metrics;
+        this.rollups = rollups;
+        this.lookupCache = lookupCache;
+        this.watermark = watermark;
     }
 
+    /**
+     * One INSERT ... ON CONFLICT DO NOTHING statement both detects the duplicate and
+     * stores the deal, so there is no check-then-act race and nothing to roll back;
+     * running it in autocommit also saves the BEGIN/COMMIT round trips.
+     */
     @Override
-    @Transactional
     public Deal createDeal(DealRequest request) {
-        
-       
-        if (dealRepository.existsByDealUniqueId(request.getDealUniqueId())) {
-            throw new RuntimeException("Deal already exists with ID: " + request.getDealUniqueId());
+
+        Deal deal = DealMapper.toDeal(request);
+
+        InsertedDeal stored = dealRepository.insertIfAbsent(deal).orElse(null);
+        if (stored == null) {
+            metrics.duplicate(1);
+            throw new DuplicateDealException(request.getDealUniqueId());
         }
 
- 
-        Deal deal = new Deal();
-        deal.setDealUniqueId(request.getDealUniqueId());
-        deal.setFromCurrency(request.getFromCurrency());
-        deal.setToCurrency(request.getToCurrency());
-        deal.setDealAmount(request.getDealAmount());
-        deal.setDealTimestamp(request.getDealTimestamp());
+        metrics.created(1);
+        rollups.record(deal, stored.rollupEpoch());
+        deal.setId(stored.id());
+        lookupCache.put(DealMapper.toResponse(deal));
+        watermark.advance();
+        return deal;
+    }
+
+    /**
+     * Not transactional on purpose: every chunk written by the repository commits
+     * on its own, so a failure late in a large batch keeps the deals already saved
+     * (same no-rollback behaviour as posting them one by one).
+     */
+    @Override
+    public BatchDealResponse createDeals(List<DealRequest> requests) {
+        BatchDealResult[] results = new BatchDealResult[requests.size()];
+        List<Deal> accepted = new ArrayList<>(requests.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(requests.size());
+        Set<String> seenIds = new HashSet<>();
 
-      
-        return dealRepository.save(deal);
+        for (int i = 0; i < requests.size(); i++) {
+            DealRequest request = requests.get(i);
+            if (request == null) {
+                results[i] = BatchDealResult.invalid(i, null, "deal is required");
+                metrics.missing();
+                continue;
+            }
+            ValidationResult validation = DealValidator.check(request);
+            if (!validation.isValid()) {
+                results[i] = BatchDealResult.invalid(i, request.getDealUniqueId(), validation.getMessage());
+                metrics.rejected(validation);
+                continue;
+            }
+            if (!seenIds.add(request.getDealUniqueId())) {
+                results[i] = BatchDealResult.duplicate(i, request.getDealUniqueId());
+                metrics.duplicate(1);
+                continue;
+            }
+            accepted.add(DealMapper.toDeal(request));
+            acceptedIndexes.add(i);
+        }
+
+        InsertedDeals inserted = accepted.isEmpty()
+            ? new InsertedDeals()
+            : dealRepository.insertIgnoringDuplicates(accepted);
+
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            String dealUniqueId = accepted.get(i).getDealUniqueId();
+            results[index] = inserted.contains(dealUniqueId)
+                ? BatchDealResult.created(index, dealUniqueId)
+                : BatchDealResult.duplicate(index, dealUniqueId);
+        }
+        metrics.created(inserted.size());
+        metrics.duplicate(accepted.size() - inserted.size());
+        rollups.record(accepted, inserted);
+        lookupCache.invalidateAll(inserted.ids());
+        if (!inserted.isEmpty()) {
+            watermark.advance();
+        }
+
+        return new BatchDealResponse(Arrays.asList(results));
     }
     
+    /**
+     * Rows go to the callback as the driver reads them; one autocommit statement, so
+     * no transaction is opened around it.
+     */
+    @Override
+    @Loggable(LogLevel.DEBUG)
+    public void forEachDealAfter(long afterId, int limit, DealRowCallback callback) {
+        dealRepository.forEachAfter(afterId, limit, callback);
+    }
+
+    /**
+     * Read-through: Postgres is only asked on a cache miss, and a miss is cached too.
+     */
+    @Override
+    @Loggable(LogLevel.DEBUG)
+    public Optional<DealResponse> findDeal(String dealUniqueId) {
+        return lookupCache.get(dealUniqueId,
+            id -> dealRepository.findByDealUniqueId(id).map(DealMapper::toResponse));
+    }
+
+    /**
+     * A single JDBC query in autocommit: no entities, no persistence context and no
+     * transaction round trips.
+     */
     @Override
-    public List<Deal> getAllDeals() {  
-        return dealRepository.findAll();
+    @Loggable(LogLevel.DEBUG)
+    public List<DealSearchRow> searchDeals(DealSearchCriteria criteria, SearchCursor after, int limit) {
+        return dealRepository.search(criteria, after, limit);
     }
-}
\ No newline at end of file
+}
@@ -1,65 +1,162 @@
 package com.bloomberg.fxdeals.validation;
 
 import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.exception.DealValidationException;
+import com.bloomberg.fxdeals.model.CurrencyCodes;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Set;
 
+/**
+ * Validates deals on the request path without allocating for a valid deal: currency
+ * codes are looked up in {@link CurrencyCodes}' table of packed three-letter codes
+ * instead of a regex and a Set, blank checks scan the string instead of trimming it,
+ * and the accepted time window is recomputed once per second instead of on every call.
+ */
 public class DealValidator {
-    
-    private static final Set<String> VALID_CURRENCIES = Set.of(
-        "USD", "EUR", "GBP", "JPY", "CHF", "CAD", "AUD", "CNY", 
-        "INR", "BRL", "ZAR", "SGD", "NZD", "MXN", "HKD", "NOK",
-        "SEK", "DKK", "PLN", "TRY", "RUB", "KRW", "IDR", "MYR"
-    );
-    
+
+    // deals.deal_unique_id VARCHAR(255), deals.deal_amount NUMERIC(38, 2)
+    static final int MAX_DEAL_UNIQUE_ID_LENGTH = 255;
+    static final int MAX_AMOUNT_SCALE = 2;
+    static final int MAX_AMOUNT_INTEGER_DIGITS = 38 - MAX_AMOUNT_SCALE;
+
+    private static volatile TimeWindow timeWindow = TimeWindow.at(System.currentTimeMillis());
+
+    /**
+     * Throws {@link DealValidationException} for the first rule the deal breaks.
+     */
     public static void validate(DealRequest request) {
-        
-        if (request.getDealUniqueId() == null || request.getDealUniqueId().trim().isEmpty()) {
-            throw new IllegalArgumentException("dealUniqueId is required");
+        ValidationResult result = check(request);
+        if (!result.isValid()) {
+            throw new DealValidationException(result);
+        }
+    }
+
+    /**
+     * Same rules and order as {@link #validate}, reported as a value instead of thrown.
+     */
+    public static ValidationResult check(DealRequest request) {
+        return check(request, true);
+    }
+
+    /**
+     * As {@link #check(DealRequest)}; with {@code enforceTimeWindow} false a timestamp
+     * of any date is accepted, for backfills of historical deals.
+     */
+    public static ValidationResult check(DealRequest request, boolean enforceTimeWindow) {
+
+        if (isBlank(request.getDealUniqueId())) {
+            return ValidationResult.MISSING_DEAL_UNIQUE_ID;
         }
-        if (request.getFromCurrency() == null || request.getFromCurrency().trim().isEmpty()) {
-            throw new IllegalArgumentException("fromCurrency is required");
+        if (isTooLong(request.getDealUniqueId())) {
+            return ValidationResult.DEAL_UNIQUE_ID_TOO_LONG;
         }
-        if (request.getToCurrency() == null || request.getToCurrency().trim().isEmpty()) {
-            throw new IllegalArgumentException("toCurrency is required");
+        if (isBlank(request.getFromCurrency())) {
+            return ValidationResult.MISSING_FROM_CURRENCY;
+        }
+        if (isBlank(request.getToCurrency())) {
+            return ValidationResult.MISSING_TO_CURRENCY;
         }
         if (request.getDealAmount() == null) {
-            throw new IllegalArgumentException("dealAmount is required");
+            return ValidationResult.MISSING_DEAL_AMOUNT;
+        }
+        if (request.getDealAmount().signum() <= 0) {
+            return ValidationResult.NON_POSITIVE_DEAL_AMOUNT;
         }
-        if (request.getDealAmount().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("dealAmount must be greater than 0");
+        if (!fitsAmountColumn(request.getDealAmount())) {
+            return ValidationResult.DEAL_AMOUNT_OUT_OF_RANGE;
         }
         if (request.getDealTimestamp() == null) {
-            throw new IllegalArgumentException("dealTimestamp is required");
+            return ValidationResult.MISSING_DEAL_TIMESTAMP;
         }
-        
+
         if (!isValidCurrencyCode(request.getFromCurrency())) {
-            throw new IllegalArgumentException("Invalid fromCurrency: must be 3-letter ISO code (e.g., USD, EUR)");
+            return ValidationResult.INVALID_FROM_CURRENCY;
         }
         if (!isValidCurrencyCode(request.getToCurrency())) {
-            throw new IllegalArgumentException("Invalid toCurrency: must be 3-letter ISO code (e.g., USD, EUR)");
+            return ValidationResult.INVALID_TO_CURRENCY;
+        }
+
+        if (enforceTimeWindow && !isValidTimestamp(request.getDealTimestamp())) {
+            return ValidationResult.TIMESTAMP_OUT_OF_RANGE;
+        }
+        return ValidationResult.VALID;
+    }
+
+    /**
+     * Same result as {@code value.trim().isEmpty()}: true when every char is {@code <= ' '}.
+     */
+    static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
         }
-        
-        if (!isValidTimestamp(request.getDealTimestamp())) {
-            throw new IllegalArgumentException("Invalid timestamp format. Use: yyyy-MM-ddTHH:mm:ss (e.g., 2024-02-16T10:30:00)");
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
         }
+        return true;
     }
-    
-    private static boolean isValidCurrencyCode(String currency) {
-        return currency != null && 
-               currency.length() == 3 && 
-               currency.matches("[A-Z]{3}") &&
-               VALID_CURRENCIES.contains(currency.toUpperCase());
+
+    /**
+     * The column counts characters, so a pair of surrogates is one.
+     */
+    static boolean isTooLong(String value) {
+        return value.length() > MAX_DEAL_UNIQUE_ID_LENGTH
+            && value.codePointCount(0, value.length()) > MAX_DEAL_UNIQUE_ID_LENGTH;
     }
-    
+
+    /**
+     * True when the amount is stored as sent: more non-zero decimals would be rounded
+     * away by the column, more integer digits would fail the insert. Trailing zeros
+     * such as {@code 20.000} are stored exactly; they are only stripped (which
+     * allocates) when the scale alone is over the limit.
+     */
+    static boolean fitsAmountColumn(BigDecimal amount) {
+        if (amount.precision() - amount.scale() > MAX_AMOUNT_INTEGER_DIGITS) {
+            return false;
+        }
+        return amount.scale() <= MAX_AMOUNT_SCALE
+            || amount.stripTrailingZeros().scale() <= MAX_AMOUNT_SCALE;
+    }
+
+    static boolean isValidCurrencyCode(String currency) {
+        return CurrencyCodes.isSupported(currency);
+    }
+
     private static boolean isValidTimestamp(LocalDateTime timestamp) {
-        LocalDateTime now = LocalDateTime.now();
-        
+        TimeWindow window = timeWindow;
+        long nowMillis = System.currentTimeMillis();
+        if (nowMillis >= window.expiresAtMillis || nowMillis < window.createdAtMillis) {
+            window = TimeWindow.at(nowMillis);
+            timeWindow = window;
+        }
+
         // Allow timestamps within last 30 days and next 1 day
-        boolean notTooOld = !timestamp.isBefore(now.minusDays(30));
-        boolean notTooFuture = !timestamp.isAfter(now.plusDays(1));
-        
-        return notTooOld && notTooFuture;
+        return !timestamp.isBefore(window.earliest) && !timestamp.isAfter(window.latest);
+    }
+
+    /**
+     * Accepted timestamp range, shared by all callers for one second. The bounds can
+     * lag the clock by up to that second, which is noise against a 30-day window.
+     */
+    private static final class TimeWindow {
+
+        private static final long TTL_MILLIS = 1000;
+
+        private final long createdAtMillis;
+        private final long expiresAtMillis;
+        private final LocalDateTime earliest;
+        private final LocalDateTime latest;
+
+        private TimeWindow(long createdAtMillis, LocalDateTime now) {
+            this.createdAtMillis = createdAtMillis;
+            this.expiresAtMillis = createdAtMillis + TTL_MILLIS;
+            this.earliest = now.minusDays(30);
+            this.latest = now.plusDays(1);
+        }
+
+        static TimeWindow at(long nowMillis) {
+            return new TimeWindow(nowMillis, LocalDateTime.now());
+        }
     }
-}
\ No newline at end of file
+}
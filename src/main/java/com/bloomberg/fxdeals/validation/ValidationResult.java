@@ -0,0 +1,37 @@
+package com.bloomberg.fxdeals.validation;
+
+/**
+ * Outcome of {@link DealValidator#check}: {@link #VALID}, or the first rule the deal
+ * breaks together with the message returned to the client. Being an enum, a result
+ * costs nothing to return, can be compared with {@code ==}, and can key pre-built
+ * error bodies and per-reason counters.
+ */
+public enum ValidationResult {
+
+    VALID(null),
+    MISSING_DEAL_UNIQUE_ID("dealUniqueId is required"),
+    DEAL_UNIQUE_ID_TOO_LONG("dealUniqueId must be at most 255 characters"),
+    MISSING_FROM_CURRENCY("fromCurrency is required"),
+    MISSING_TO_CURRENCY("toCurrency is required"),
+    MISSING_DEAL_AMOUNT("dealAmount is required"),
+    NON_POSITIVE_DEAL_AMOUNT("dealAmount must be greater than 0"),
+    DEAL_AMOUNT_OUT_OF_RANGE("dealAmount must have at most 36 integer digits and 2 decimal places"),
+    MISSING_DEAL_TIMESTAMP("dealTimestamp is required"),
+    INVALID_FROM_CURRENCY("Invalid fromCurrency: must be 3-letter ISO code (e.g., USD, EUR)"),
+    INVALID_TO_CURRENCY("Invalid toCurrency: must be 3-letter ISO code (e.g., USD, EUR)"),
+    TIMESTAMP_OUT_OF_RANGE("Invalid timestamp format. Use: yyyy-MM-ddTHH:mm:ss (e.g., 2024-02-16T10:30:00)");
+
+    private final String message;
+
+    ValidationResult(String message) {
+        this.message = message;
+    }
+
+    public boolean isValid() {
+        return this == VALID;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
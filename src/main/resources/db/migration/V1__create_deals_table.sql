@@ -0,0 +1,11 @@
+-- Baseline: the deals table as Hibernate used to create it with ddl-auto=update.
+-- Databases created that way already have it and are baselined at this version.
+CREATE TABLE IF NOT EXISTS deals (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    deal_unique_id VARCHAR(255)   NOT NULL,
+    from_currency  VARCHAR(255)   NOT NULL,
+    to_currency    VARCHAR(255)   NOT NULL,
+    deal_amount    NUMERIC(38, 2) NOT NULL,
+    deal_timestamp TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT uk_deals_deal_unique_id UNIQUE (deal_unique_id)
+);
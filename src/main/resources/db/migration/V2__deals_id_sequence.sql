@@ -0,0 +1,12 @@
+-- Replace the IDENTITY column with a sequence handed out in blocks of 50.
+-- Hibernate reserves [n, n + 49] per nextval (pooled-lo optimizer), which lets it
+-- batch inserts instead of doing one INSERT ... RETURNING per entity.
+-- Plain SQL inserts still take nextval from the column default; each call returns a
+-- value no block overlaps, so both kinds of writer can share the sequence.
+ALTER TABLE deals ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE deals_id_seq INCREMENT BY 50 OWNED BY deals.id;
+
+SELECT setval('deals_id_seq', COALESCE((SELECT MAX(id) FROM deals), 0) + 1, false);
+
+ALTER TABLE deals ALTER COLUMN id SET DEFAULT nextval('deals_id_seq');
@@ -0,0 +1,44 @@
+-- Store currencies as their ISO 4217 numeric code (SMALLINT, 2 bytes) instead of
+-- VARCHAR(255) text, backed by a reference table. This shrinks every deal row and
+-- both currency columns' index entries; the API keeps using the alphabetic codes.
+-- Must list the same currencies as CurrencyCodes.
+CREATE TABLE currencies (
+    code     SMALLINT PRIMARY KEY,
+    iso_code CHAR(3)  NOT NULL UNIQUE
+);
+
+INSERT INTO currencies (code, iso_code) VALUES
+    (840, 'USD'), (978, 'EUR'), (826, 'GBP'), (392, 'JPY'), (756, 'CHF'), (124, 'CAD'),
+    (36,  'AUD'), (156, 'CNY'), (356, 'INR'), (986, 'BRL'), (710, 'ZAR'), (702, 'SGD'),
+    (554, 'NZD'), (484, 'MXN'), (344, 'HKD'), (578, 'NOK'), (752, 'SEK'), (208, 'DKK'),
+    (985, 'PLN'), (949, 'TRY'), (643, 'RUB'), (410, 'KRW'), (360, 'IDR'), (458, 'MYR');
+
+-- Fail the migration, rather than lose data, if a stored code is not in the table.
+DO $$
+DECLARE
+    unknown TEXT;
+BEGIN
+    SELECT string_agg(DISTINCT c, ', ') INTO unknown
+    FROM (SELECT from_currency AS c FROM deals UNION SELECT to_currency FROM deals) stored
+    WHERE c NOT IN (SELECT iso_code FROM currencies);
+    IF unknown IS NOT NULL THEN
+        RAISE EXCEPTION 'deals contain currencies missing from the currencies table: %', unknown;
+    END IF;
+END
+$$;
+
+-- ALTER ... USING cannot contain a subquery, so the lookup goes through a function.
+CREATE FUNCTION currency_code(iso TEXT) RETURNS SMALLINT
+    LANGUAGE sql STABLE
+    AS 'SELECT code FROM currencies WHERE iso_code = iso';
+
+-- Rewrites the table once, under an ACCESS EXCLUSIVE lock.
+ALTER TABLE deals
+    ALTER COLUMN from_currency TYPE SMALLINT USING currency_code(from_currency),
+    ALTER COLUMN to_currency   TYPE SMALLINT USING currency_code(to_currency);
+
+DROP FUNCTION currency_code(TEXT);
+
+ALTER TABLE deals
+    ADD CONSTRAINT fk_deals_from_currency FOREIGN KEY (from_currency) REFERENCES currencies (code),
+    ADD CONSTRAINT fk_deals_to_currency   FOREIGN KEY (to_currency)   REFERENCES currencies (code);
@@ -0,0 +1,95 @@
+-- Range-partition deals by deal_timestamp, one partition per calendar month, so that
+-- vacuum and index maintenance work on one month at a time and range queries only
+-- touch the months they cover.
+--
+-- A unique constraint on a partitioned table has to include the partition key, so
+-- deal_unique_id can no longer be unique on deals itself. Global uniqueness moves to
+-- deal_keys: writers claim the key there with ON CONFLICT DO NOTHING and insert the
+-- deal in the same statement (see DealRepositoryImpl), which costs one B-tree probe
+-- however many partitions there are.
+--
+-- Copies every row once; run it in a maintenance window on a large table.
+
+-- Keep the id sequence when the old table is dropped.
+ALTER SEQUENCE deals_id_seq OWNED BY NONE;
+
+ALTER TABLE deals RENAME TO deals_unpartitioned;
+
+CREATE TABLE deals (
+    id             BIGINT         NOT NULL DEFAULT nextval('deals_id_seq'),
+    deal_unique_id VARCHAR(255)   NOT NULL,
+    from_currency  SMALLINT       NOT NULL,
+    to_currency    SMALLINT       NOT NULL,
+    deal_amount    NUMERIC(38, 2) NOT NULL,
+    deal_timestamp TIMESTAMP(6)   NOT NULL,
+    -- Named so they do not clash with the old table's, which keeps its names until dropped
+    CONSTRAINT pk_deals PRIMARY KEY (id, deal_timestamp),
+    CONSTRAINT fk_deals_from_currency FOREIGN KEY (from_currency) REFERENCES currencies (code),
+    CONSTRAINT fk_deals_to_currency FOREIGN KEY (to_currency) REFERENCES currencies (code)
+) PARTITION BY RANGE (deal_timestamp);
+
+ALTER SEQUENCE deals_id_seq OWNED BY deals.id;
+
+-- Lookups by deal unique id; not unique per partition, deal_keys guarantees that.
+CREATE INDEX idx_deals_deal_unique_id ON deals (deal_unique_id);
+
+CREATE TABLE deal_keys (
+    deal_unique_id VARCHAR(255) PRIMARY KEY
+);
+
+-- Deleting a deal frees its key again. Statement level with a transition table, so a
+-- bulk delete costs one join rather than one trigger call per row.
+CREATE FUNCTION release_deal_keys() RETURNS TRIGGER
+    LANGUAGE plpgsql
+    AS $$
+BEGIN
+    DELETE FROM deal_keys k USING deleted_deals d WHERE k.deal_unique_id = d.deal_unique_id;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_deals_release_keys
+    AFTER DELETE ON deals
+    REFERENCING OLD TABLE AS deleted_deals
+    FOR EACH STATEMENT EXECUTE FUNCTION release_deal_keys();
+
+-- Creates the monthly partitions covering [from_ts, to_ts] that do not exist yet and
+-- returns how many it created. Called by DealPartitionScheduler; safe to run from
+-- several instances at once.
+CREATE FUNCTION create_deal_partitions(from_ts TIMESTAMP, to_ts TIMESTAMP) RETURNS INTEGER
+    LANGUAGE plpgsql
+    AS $$
+DECLARE
+    month_start    TIMESTAMP := date_trunc('month', from_ts);
+    partition_name TEXT;
+    created        INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('create_deal_partitions'));
+    WHILE month_start <= to_ts LOOP
+        partition_name := 'deals_p' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF deals FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month_start, month_start + INTERVAL '1 month');
+            created := created + 1;
+        END IF;
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+-- Every month that has data, plus last month to three months ahead, which is the
+-- window the scheduler keeps filled from now on.
+SELECT create_deal_partitions(
+    LEAST(MIN(deal_timestamp), LOCALTIMESTAMP - INTERVAL '1 month'),
+    GREATEST(MAX(deal_timestamp), LOCALTIMESTAMP + INTERVAL '3 months'))
+FROM deals_unpartitioned;
+
+INSERT INTO deals (id, deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp)
+SELECT id, deal_unique_id, from_currency, to_currency, deal_amount, deal_timestamp
+FROM deals_unpartitioned;
+
+INSERT INTO deal_keys (deal_unique_id)
+SELECT deal_unique_id FROM deals_unpartitioned;
+
+DROP TABLE deals_unpartitioned;
@@ -0,0 +1,11 @@
+-- Indexes for GET /api/deals/search (DealRepositoryImpl.search). Created on the
+-- partitioned parent, so every existing and future monthly partition gets them.
+
+-- Currency pair plus time window, in the (deal_timestamp, id) order the search pages
+-- by: a page is one index range scan that stops after LIMIT rows.
+CREATE INDEX idx_deals_pair_timestamp ON deals (from_currency, to_currency, deal_timestamp, id);
+
+-- Time window without a pair, and the export's range scan. Deals are written roughly
+-- in timestamp order, so a BRIN index of per-block min/max values skips most of a
+-- partition while staying a few pages in size, unlike a B-tree on every row.
+CREATE INDEX idx_deals_timestamp_brin ON deals USING brin (deal_timestamp) WITH (pages_per_range = 32);
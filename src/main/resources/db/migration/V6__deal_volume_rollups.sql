@@ -0,0 +1,15 @@
+-- Deal count and notional per currency pair per minute, hour and day, maintained by
+-- the application as deals are written (DealVolumeRollups) and recomputed from deals
+-- at startup. GET /api/deals/stats reads one row per bucket it returns.
+CREATE TABLE deal_volume_rollups (
+    granularity   VARCHAR(6)     NOT NULL,
+    from_currency SMALLINT       NOT NULL,
+    to_currency   SMALLINT       NOT NULL,
+    bucket_start  TIMESTAMP(6)   NOT NULL,
+    deal_count    BIGINT         NOT NULL,
+    total_amount  NUMERIC(38, 2) NOT NULL,
+    CONSTRAINT pk_deal_volume_rollups PRIMARY KEY (granularity, from_currency, to_currency, bucket_start)
+);
+
+-- Stats across all pairs, where the primary key's pair columns come first.
+CREATE INDEX idx_deal_volume_rollups_bucket ON deal_volume_rollups (granularity, bucket_start);
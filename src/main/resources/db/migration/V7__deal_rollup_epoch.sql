@@ -0,0 +1,10 @@
+-- Generation of deal_volume_rollups. A rebuild bumps it while it holds writes to
+-- deal_keys off, so it runs between inserts: every insert returns the epoch it saw,
+-- and an instance only flushes rollup deltas recorded under the current epoch. Deltas
+-- for deals the rebuild already counted are dropped instead of added a second time.
+CREATE TABLE deal_rollup_epoch (
+    singleton BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (singleton),
+    epoch     BIGINT  NOT NULL
+);
+
+INSERT INTO deal_rollup_epoch (epoch) VALUES (0);
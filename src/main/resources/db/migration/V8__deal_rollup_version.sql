@@ -0,0 +1,4 @@
+-- Moved by every write to deal_volume_rollups that does not insert a deal (rollup
+-- delta flushes and rebuilds), after the write, so its taker already has a
+-- transaction id. Polled with deals_id_seq for the /api/deals/stats ETag.
+CREATE SEQUENCE deal_rollup_version_seq;
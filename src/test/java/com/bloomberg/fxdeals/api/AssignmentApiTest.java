@@ -1,7 +1,6 @@
 package com.bloomberg.fxdeals.api;
 
 import com.bloomberg.fxdeals.dto.DealRequest;
-import com.bloomberg.fxdeals.repository.DealRepository;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -23,7 +23,7 @@ public class AssignmentApiTest {
     private int port;
 
     @Autowired
-    private DealRepository dealRepository;
+    private JdbcTemplate jdbcTemplate;
 
     @BeforeEach
     void setUp() {
@@ -31,7 +31,9 @@ public class AssignmentApiTest {
         RestAssured.baseURI = "http://localhost";
         RestAssured.basePath = "/api/deals";
         // Clean database before each test
-        dealRepository.deleteAll();
+        // DealRepository has no delete; deal_keys holds the unique ids across partitions
+        jdbcTemplate.update("DELETE FROM deals");
+        jdbcTemplate.update("DELETE FROM deal_keys");
     }
 
     // 1️⃣ FIELD ACCEPTANCE - Success (FIXED: dynamic ID)
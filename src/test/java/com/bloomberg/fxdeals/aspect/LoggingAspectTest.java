@@ -0,0 +1,149 @@
+package com.bloomberg.fxdeals.aspect;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.bloomberg.fxdeals.exception.DuplicateDealException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoggingAspectTest {
+
+    @Loggable
+    public static class Target {
+
+        public String create(String id) {
+            return "created " + id;
+        }
+
+        @Loggable(value = LogLevel.DEBUG, logParams = false)
+        public String find(String id) {
+            return id;
+        }
+
+        @Loggable(logResult = false)
+        public List<String> list(List<String> ids) {
+            return ids;
+        }
+
+        @Loggable(sampleRate = 0.0)
+        public String sampled(String id) {
+            return id;
+        }
+
+        public void duplicate(String id) {
+            throw new DuplicateDealException(id);
+        }
+
+        public void broken() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    private Logger logger;
+    private ListAppender<ILoggingEvent> appender;
+    private Target target;
+
+    @BeforeEach
+    void setUp() {
+        logger = (Logger) LoggerFactory.getLogger(Target.class);
+        logger.setLevel(Level.INFO);
+        appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Target());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LoggingAspect());
+        target = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+    }
+
+    @Test
+    void classAnnotation_ShouldLogOneLineWithArgsAndResult() {
+        target.create("D1");
+
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.INFO, event.getLevel());
+        String message = event.getFormattedMessage();
+        assertTrue(message.startsWith("Target.create(D1) completed in "), message);
+        assertTrue(message.endsWith(" -> created D1"), message);
+    }
+
+    @Test
+    void methodAnnotation_ShouldOverrideClassLevel() {
+        target.find("D1");
+        assertTrue(appender.list.isEmpty());
+
+        logger.setLevel(Level.DEBUG);
+        target.find("D1");
+
+        assertEquals(1, appender.list.size());
+        assertEquals(Level.DEBUG, appender.list.get(0).getLevel());
+        assertTrue(appender.list.get(0).getFormattedMessage().startsWith("Target.find(..) completed in "));
+    }
+
+    @Test
+    void collections_ShouldBeSummarisedBySize() {
+        target.list(List.of("D1", "D2", "D3"));
+
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.startsWith("Target.list(ListN[size=3]) completed in "), message);
+        assertTrue(message.endsWith("µs"), message);
+    }
+
+    @Test
+    void zeroSampleRate_ShouldSkipSuccessfulCalls() {
+        for (int i = 0; i < 100; i++) {
+            target.sampled("D1");
+        }
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void rejectedInput_ShouldBeLoggedWithoutStackTrace() {
+        assertThrows(DuplicateDealException.class, () -> target.duplicate("D1"));
+
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.INFO, event.getLevel());
+        assertTrue(event.getFormattedMessage().contains("Target.duplicate rejected after "));
+        assertNull(event.getThrowableProxy());
+    }
+
+    @Test
+    void unexpectedFailure_ShouldBeLoggedAtErrorWithStackTrace() {
+        assertThrows(IllegalStateException.class, () -> target.broken());
+
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.ERROR, event.getLevel());
+        assertNotNull(event.getThrowableProxy());
+    }
+
+    @Test
+    void describe_ShouldTruncateLongValues() {
+        String text = LoggingAspect.describe("x".repeat(500));
+
+        assertEquals(203, text.length());
+        assertEquals("byte[4]", LoggingAspect.describe(new byte[4]));
+        assertEquals("null", LoggingAspect.describe(null));
+    }
+}
@@ -0,0 +1,153 @@
+package com.bloomberg.fxdeals.cache;
+
+import com.bloomberg.fxdeals.dto.DealResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DealLookupCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DealLookupCache cache = new DealLookupCache(registry, 100, 60_000, 60_000);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_ShouldLoadOnce_AndCountHitsAndMisses() {
+        Function<String, Optional<DealResponse>> loader = id -> {
+            loads.incrementAndGet();
+            return Optional.of(response(id));
+        };
+
+        cache.get("D1", loader);
+        Optional<DealResponse> second = cache.get("D1", loader);
+
+        assertThat(second).map(DealResponse::getDealUniqueId).contains("D1");
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.gets").tag("cache", "deals").tag("result", "hit").functionCounter().count())
+            .isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "deals").tag("result", "miss").functionCounter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldCacheMisses_UntilDealIsStored() {
+        Function<String, Optional<DealResponse>> notFound = id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertThat(cache.get("D1", notFound)).isEmpty();
+        assertThat(cache.get("D1", notFound)).isEmpty();
+        assertThat(loads).hasValue(1);
+
+        cache.put(response("D1"));
+        assertThat(cache.get("D1", notFound)).isPresent();
+
+        cache.invalidateAll(List.of("D1"));
+        assertThat(cache.get("D1", notFound)).isEmpty();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidateMisses_ShouldKeepCachedDeals() {
+        Function<String, Optional<DealResponse>> loader = id -> {
+            loads.incrementAndGet();
+            return id.equals("D1") ? Optional.of(response(id)) : Optional.empty();
+        };
+        cache.get("D1", loader);
+        cache.get("D2", loader);
+
+        cache.invalidateMisses();
+        cache.get("D1", loader);
+        cache.get("D2", loader);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void negativeEntries_ShouldExpireOnTheirOwnTtl() throws InterruptedException {
+        DealLookupCache shortMisses = new DealLookupCache(registry, 100, 60_000, 1);
+        Function<String, Optional<DealResponse>> notFound = id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        shortMisses.get("D1", notFound);
+        Thread.sleep(20);
+        shortMisses.get("D1", notFound);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_ShouldLoadOnCallingThread_AndShareTheLoadWithConcurrentCalls() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> loaderThread = new AtomicReference<>();
+        Function<String, Optional<DealResponse>> slowLoader = id -> {
+            loaderThread.set(Thread.currentThread());
+            loads.incrementAndGet();
+            loading.countDown();
+            awaitQuietly(release);
+            return Optional.of(response(id));
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<DealResponse>> first = executor.submit(() -> cache.get("D1", slowLoader));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Optional<DealResponse>> second = executor.submit(() -> cache.get("D1", slowLoader));
+
+            // Other ids are not held up by the load in progress
+            assertThat(cache.get("D2", id -> Optional.empty())).isEmpty();
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isPresent();
+            assertThat(second.get(5, TimeUnit.SECONDS)).isPresent();
+            assertThat(loads).hasValue(1);
+            assertThat(loaderThread.get()).isNotNull().isNotEqualTo(Thread.currentThread());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_ShouldRethrowLoadFailure_AndNotCacheIt() {
+        Function<String, Optional<DealResponse>> failing = id -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("db down");
+        };
+
+        assertThatThrownBy(() -> cache.get("D1", failing))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("db down");
+        assertThat(cache.get("D1", id -> Optional.of(response(id)))).isPresent();
+        assertThat(loads).hasValue(1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static DealResponse response(String id) {
+        DealResponse response = new DealResponse();
+        response.setDealUniqueId(id);
+        return response;
+    }
+}
@@ -0,0 +1,114 @@
+package com.bloomberg.fxdeals.cache;
+
+import com.bloomberg.fxdeals.repository.DealRepository;
+import com.bloomberg.fxdeals.repository.IssuedIds;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DealsWatermarkTest {
+
+    private final DealRepository repository = mock(DealRepository.class);
+    private final DealsWatermark watermark = new DealsWatermark(repository);
+
+    @Test
+    void etag_ShouldChange_WhenDealsAreWrittenLocally() {
+        String before = watermark.etag();
+
+        watermark.advance();
+
+        assertThat(watermark.etag()).isNotEqualTo(before);
+    }
+
+    @Test
+    void poll_ShouldKeepChangingTag_UntilEveryWriterOfTheIdsHasFinished() {
+        when(repository.issuedIds()).thenReturn(new IssuedIds(101, 7, 500, 510));
+        watermark.poll();
+        String moved = watermark.etag();
+
+        // A bulk load that took its ids at 505 is still running, however long that is
+        when(repository.issuedIds()).thenReturn(new IssuedIds(101, 7, 505, 530));
+        watermark.poll();
+        String settling = watermark.etag();
+        watermark.poll();
+        String stillSettling = watermark.etag();
+
+        when(repository.issuedIds()).thenReturn(new IssuedIds(101, 7, 510, 540));
+        watermark.poll();
+        String settled = watermark.etag();
+        watermark.poll();
+
+        assertThat(settling).isNotEqualTo(moved);
+        assertThat(stillSettling).isNotEqualTo(settling);
+        assertThat(settled).isNotEqualTo(stillSettling);
+        assertThat(watermark.etag()).isEqualTo(settled);
+    }
+
+    @Test
+    void poll_ShouldChangeTag_WhenAnotherInstanceInserts() {
+        String settled = settle();
+
+        when(repository.issuedIds()).thenReturn(new IssuedIds(151, 7, 600, 600));
+        watermark.poll();
+
+        assertThat(watermark.etag()).isNotEqualTo(settled);
+    }
+
+    @Test
+    void poll_ShouldChangeOnlyStatsTag_WhenAnotherInstanceFlushesRollups() {
+        String settled = settle();
+        String settledStats = watermark.statsEtag();
+
+        // The deals committed earlier; their rollup deltas reach the table only now
+        when(repository.issuedIds()).thenReturn(new IssuedIds(101, 8, 600, 600));
+        watermark.poll();
+        String moved = watermark.statsEtag();
+        watermark.poll();
+        String settledAgain = watermark.statsEtag();
+        watermark.poll();
+
+        assertThat(watermark.etag()).isEqualTo(settled);
+        assertThat(moved).isNotEqualTo(settledStats);
+        assertThat(settledAgain).isNotEqualTo(moved);
+        assertThat(watermark.statsEtag()).isEqualTo(settledAgain);
+    }
+
+    @Test
+    void statsEtag_ShouldChange_WhenDealsChange() {
+        settle();
+        String settledStats = watermark.statsEtag();
+
+        watermark.advance();
+
+        assertThat(watermark.statsEtag()).isNotEqualTo(settledStats);
+    }
+
+    @Test
+    void poll_ShouldChangeTag_WhenSequenceCannotBeRead() {
+        String settled = settle();
+
+        when(repository.issuedIds()).thenThrow(new IllegalStateException("connection refused"));
+        watermark.poll();
+
+        assertThat(watermark.etag()).isNotEqualTo(settled);
+    }
+
+    @Test
+    void etag_ShouldDifferBetweenInstances() {
+        DealsWatermark other = new DealsWatermark(repository);
+
+        assertThat(other.etag()).isNotEqualTo(watermark.etag());
+    }
+
+    private String settle() {
+        when(repository.issuedIds()).thenReturn(new IssuedIds(101, 7, 510, 510));
+        watermark.poll();
+        watermark.poll();
+        String settled = watermark.etag();
+        watermark.poll();
+        assertThat(watermark.etag()).isEqualTo(settled);
+        return settled;
+    }
+}
@@ -1,9 +1,29 @@
 package com.bloomberg.fxdeals.controller;
 
+import com.bloomberg.fxdeals.cache.DealsWatermark;
+import com.bloomberg.fxdeals.correlation.CorrelationId;
+import com.bloomberg.fxdeals.dto.BatchDealResponse;
+import com.bloomberg.fxdeals.dto.BatchDealResult;
 import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.dto.DealSearchCriteria;
+import com.bloomberg.fxdeals.dto.IngestionReport;
+import com.bloomberg.fxdeals.dto.VolumeBucket;
+import com.bloomberg.fxdeals.exception.DuplicateDealException;
+import com.bloomberg.fxdeals.format.DealBinaryCodec;
+import com.bloomberg.fxdeals.format.DealFileFormat;
+import com.bloomberg.fxdeals.metrics.DealMetrics;
 import com.bloomberg.fxdeals.dto.DealResponse;
 import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.pagination.KeysetCursor;
+import com.bloomberg.fxdeals.pagination.SearchCursor;
+import com.bloomberg.fxdeals.repository.DealRowCallback;
+import com.bloomberg.fxdeals.repository.DealSearchRow;
+import com.bloomberg.fxdeals.rollup.DealVolumeRollups;
+import com.bloomberg.fxdeals.rollup.Granularity;
+import com.bloomberg.fxdeals.service.DealExportService;
+import com.bloomberg.fxdeals.service.DealIngestionService;
 import com.bloomberg.fxdeals.service.DealService;
+import com.bloomberg.fxdeals.validation.ValidationResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -14,16 +34,28 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -36,6 +68,21 @@ class DealControllerTest {
     @MockBean
     private DealService dealService;
 
+    @MockBean
+    private DealIngestionService dealIngestionService;
+
+    @MockBean
+    private DealExportService dealExportService;
+
+    @MockBean
+    private DealMetrics dealMetrics;
+
+    @MockBean
+    private DealVolumeRollups rollups;
+
+    @MockBean
+    private DealsWatermark watermark;
+
     private ObjectMapper objectMapper;
     private DealRequest validRequest;
     private Deal validDeal;
@@ -49,6 +96,8 @@ class DealControllerTest {
             objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
             
             now = LocalDateTime.now();
+            when(watermark.etag()).thenReturn("w-1-0");
+            when(watermark.statsEtag()).thenReturn("w-1.0-0");
             
             validRequest = new DealRequest();
             validRequest.setDealUniqueId("TEST123");
@@ -92,7 +141,40 @@ class DealControllerTest {
         mockMvc.perform(post("/api/deals")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(invalidRequest)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("dealUniqueId is required"));
+
+        verify(dealMetrics).rejected(ValidationResult.MISSING_DEAL_UNIQUE_ID);
+    }
+
+    @Test
+    void createDeal_ShouldEchoCorrelationId_InHeaderAndErrorBody() throws Exception {
+        DealRequest invalidRequest = new DealRequest();
+
+        mockMvc.perform(post("/api/deals")
+                .header(CorrelationId.HEADER, "trace-123")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(invalidRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string(CorrelationId.HEADER, "trace-123"))
+                .andExpect(jsonPath("$.correlationId").value("trace-123"));
+
+        mockMvc.perform(get("/api/deals/health"))
+                .andExpect(header().exists(CorrelationId.HEADER));
+    }
+
+    @Test
+    void createDeal_ShouldReturn409_WhenDuplicate() throws Exception {
+        when(dealService.createDeal(any(DealRequest.class))).thenThrow(new DuplicateDealException("TEST123"));
+
+        mockMvc.perform(post("/api/deals")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("CONFLICT"))
+                .andExpect(jsonPath("$.message").value("Deal already exists with ID: TEST123"));
     }
 
     @Test
@@ -107,25 +189,217 @@ class DealControllerTest {
     }
 
     @Test
-    void getAllDeals_ShouldReturn200_WithListOfDeals() throws Exception {
-        List<Deal> deals = Arrays.asList(validDeal, validDeal);
-        when(dealService.getAllDeals()).thenReturn(deals);
+    void getDeals_ShouldReturnFirstPage_WithNextCursor() throws Exception {
+        stubPage(0L, 3, validDeal, deal(2L, "TEST456"), deal(3L, "TEST789"));
+
+        mockMvc.perform(get("/api/deals").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].dealUniqueId").value("TEST123"))
+                .andExpect(jsonPath("$.nextCursor").value(KeysetCursor.encode(2L)))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void getDeals_ShouldReturnWatermarkAsETag() throws Exception {
+        stubPage(0L, 101, validDeal);
 
         mockMvc.perform(get("/api/deals"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].dealUniqueId").value("TEST123"));
+                .andExpect(header().string("ETag", "\"w-1-0\""));
     }
 
     @Test
-    void getAllDeals_ShouldReturn200_WithEmptyList_WhenNoDeals() throws Exception {
-        when(dealService.getAllDeals()).thenReturn(Arrays.asList());
+    void getDeals_ShouldReturn304WithoutQuerying_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/api/deals").header("If-None-Match", "\"w-1-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"w-1-0\""))
+                .andExpect(content().string(""));
+
+        verifyNoInteractions(dealService);
+    }
+
+    @Test
+    void getDeals_ShouldReturn200_WhenWatermarkMoved() throws Exception {
+        when(watermark.etag()).thenReturn("w-1-1");
+        stubPage(0L, 101, validDeal);
+
+        mockMvc.perform(get("/api/deals").header("If-None-Match", "\"w-1-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"w-1-1\""))
+                .andExpect(jsonPath("$.items.length()").value(1));
+    }
+
+    @Test
+    void getDeals_ShouldContinueAfterCursor_AndEndWithoutNextCursor() throws Exception {
+        stubPage(1L, 101, validDeal);
+
+        mockMvc.perform(get("/api/deals").param("cursor", KeysetCursor.encode(1L)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void getDeals_ShouldReturn200_WithEmptyPage_WhenNoDeals() throws Exception {
+        stubPage(0L, 101);
 
         mockMvc.perform(get("/api/deals"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(0));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void searchDeals_ShouldReturnPage_WithTimestampCursor() throws Exception {
+        DealResponse first = new DealResponse();
+        first.setDealUniqueId("S1");
+        first.setDealTimestamp(LocalDateTime.of(2024, 2, 16, 10, 0));
+        DealResponse second = new DealResponse();
+        second.setDealUniqueId("S2");
+        second.setDealTimestamp(LocalDateTime.of(2024, 2, 16, 11, 0));
+        DealSearchCriteria criteria = new DealSearchCriteria("EUR", "USD",
+            LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 3, 1, 0, 0), null, null);
+        when(dealService.searchDeals(criteria, null, 2))
+            .thenReturn(List.of(new DealSearchRow(7L, first), new DealSearchRow(9L, second)));
+
+        mockMvc.perform(get("/api/deals/search")
+                .param("fromCurrency", "EUR")
+                .param("toCurrency", "USD")
+                .param("from", "2024-02-01T00:00:00")
+                .param("to", "2024-03-01T00:00:00")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].dealUniqueId").value("S1"))
+                .andExpect(jsonPath("$.nextCursor")
+                    .value(new SearchCursor(LocalDateTime.of(2024, 2, 16, 10, 0), 7L).encode()));
+    }
+
+    @Test
+    void searchDeals_ShouldReturn400_WhenWindowMissingOrFiltersInvalid() throws Exception {
+        mockMvc.perform(get("/api/deals/search").param("fromCurrency", "EUR"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("from and to are required"));
+        mockMvc.perform(get("/api/deals/search")
+                .param("from", "2024-02-01T00:00:00")
+                .param("to", "2024-03-01T00:00:00")
+                .param("toCurrency", "XYZ"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported currency"));
+        mockMvc.perform(get("/api/deals/search")
+                .param("from", "2024-02-01T00:00:00")
+                .param("to", "2024-03-01T00:00:00")
+                .param("minAmount", "10")
+                .param("maxAmount", "5"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getDeal_ShouldReturnDeal_WhenFound() throws Exception {
+        DealResponse response = new DealResponse();
+        response.setDealUniqueId("TEST123");
+        response.setFromCurrency("USD");
+        when(dealService.findDeal("TEST123")).thenReturn(Optional.of(response));
+
+        mockMvc.perform(get("/api/deals/TEST123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dealUniqueId").value("TEST123"))
+                .andExpect(jsonPath("$.fromCurrency").value("USD"));
+    }
+
+    @Test
+    void getDeal_ShouldReturn404_WhenMissing() throws Exception {
+        when(dealService.findDeal("NOPE")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/deals/NOPE"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.message").value("Deal not found with ID: NOPE"));
+    }
+
+    @Test
+    void getStats_ShouldReturnBucketsForPair() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 2, 16, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 17, 0, 0);
+        when(rollups.find(Granularity.HOUR, "EUR", "USD", from, to)).thenReturn(List.of(
+            new VolumeBucket("EUR", "USD", from.plusHours(10), 3, new BigDecimal("4500.00"))));
+
+        mockMvc.perform(get("/api/deals/stats")
+                .param("fromCurrency", "EUR")
+                .param("toCurrency", "USD")
+                .param("from", "2024-02-16T00:00:00")
+                .param("to", "2024-02-17T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bucketStart").value("2024-02-16T10:00:00"))
+                .andExpect(jsonPath("$[0].dealCount").value(3))
+                .andExpect(jsonPath("$[0].totalAmount").value(4500.00));
+    }
+
+    @Test
+    void searchAndStats_ShouldReturn304WithoutQuerying_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/api/deals/search")
+                .param("from", "2024-02-16T00:00:00")
+                .param("to", "2024-02-17T00:00:00")
+                .header("If-None-Match", "\"w-1-0\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/deals/stats")
+                .param("from", "2024-02-16T00:00:00")
+                .param("to", "2024-02-17T00:00:00")
+                .header("If-None-Match", "\"w-1.0-0\""))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(dealService, rollups);
+    }
+
+    @Test
+    void getStats_ShouldReturn200_WhenOnlyRollupsMoved() throws Exception {
+        when(watermark.statsEtag()).thenReturn("w-1.1-0");
+        when(rollups.find(Granularity.HOUR, null, null,
+            LocalDateTime.of(2024, 2, 16, 0, 0), LocalDateTime.of(2024, 2, 17, 0, 0))).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/deals/stats")
+                .param("from", "2024-02-16T00:00:00")
+                .param("to", "2024-02-17T00:00:00")
+                .header("If-None-Match", "\"w-1.0-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"w-1.1-0\""));
+    }
+
+    @Test
+    void getStats_ShouldReturn400_WhenTooManyBucketsOrUnknownGranularity() throws Exception {
+        mockMvc.perform(get("/api/deals/stats")
+                .param("granularity", "minute")
+                .param("from", "2024-01-01T00:00:00")
+                .param("to", "2024-02-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/deals/stats")
+                .param("granularity", "week")
+                .param("from", "2024-01-01T00:00:00")
+                .param("to", "2024-02-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getDeals_ShouldCapPageSizeAtMaximum() throws Exception {
+        stubPage(0L, 1001);
+
+        mockMvc.perform(get("/api/deals").param("size", "50000"))
+                .andExpect(status().isOk());
+
+        verify(dealService).forEachDealAfter(eq(0L), eq(1001), any());
+    }
+
+    @Test
+    void getDeals_ShouldReturn400_ForInvalidCursorOrSize() throws Exception {
+        mockMvc.perform(get("/api/deals").param("cursor", "not-a-cursor!"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
+
+        mockMvc.perform(get("/api/deals").param("size", "0"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -142,4 +416,234 @@ class DealControllerTest {
                 .andExpect(jsonPath("$.dealAmount").value(validDeal.getDealAmount().doubleValue()))
                 .andExpect(jsonPath("$.dealTimestamp").exists());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createDeals_ShouldReturn200_WithPerItemResults() throws Exception {
+        BatchDealResponse batchResponse = new BatchDealResponse(Arrays.asList(
+            BatchDealResult.created(0, "TEST123"),
+            BatchDealResult.duplicate(1, "TEST123"),
+            BatchDealResult.invalid(2, null, "dealUniqueId is required")));
+        when(dealService.createDeals(anyList())).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/deals/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(validRequest, validRequest, new DealRequest()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.invalid").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].status").value("DUPLICATE"))
+                .andExpect(jsonPath("$.results[2].message").value("dealUniqueId is required"));
+    }
+
+    @Test
+    void createDeals_ShouldReturn400_WhenBodyIsNotAnArray() throws Exception {
+        mockMvc.perform(post("/api/deals/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createDeal_ShouldAcceptBinaryRecord() throws Exception {
+        when(dealService.createDeal(any(DealRequest.class))).thenReturn(validDeal);
+
+        mockMvc.perform(post("/api/deals")
+                .contentType(DealBinaryCodec.MEDIA_TYPE)
+                .content(DealBinaryCodec.encode(validRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.dealUniqueId").value("TEST123"));
+
+        verify(dealService).createDeal(argThat(request -> request.getDealUniqueId().equals("TEST123")
+            && request.getDealAmount().compareTo(new BigDecimal("1000.50")) == 0
+            && request.getDealTimestamp().equals(now.withNano(now.getNano() / 1000 * 1000))));
+    }
+
+    @Test
+    void createDeals_ShouldAcceptBinaryRecordsBackToBack() throws Exception {
+        DealRequest second = new DealRequest();
+        second.setDealUniqueId("TEST456");
+        second.setFromCurrency("GBP");
+        second.setToCurrency("JPY");
+        second.setDealAmount(new BigDecimal("7"));
+        second.setDealTimestamp(now);
+        when(dealService.createDeals(anyList())).thenReturn(new BatchDealResponse(Arrays.asList(
+            BatchDealResult.created(0, "TEST123"),
+            BatchDealResult.created(1, "TEST456"))));
+
+        mockMvc.perform(post("/api/deals/batch")
+                .contentType(DealBinaryCodec.MEDIA_TYPE)
+                .content(DealBinaryCodec.encode(List.of(validRequest, second))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2));
+
+        verify(dealService).createDeals(argThat(requests -> requests.size() == 2
+            && requests.get(1).getDealUniqueId().equals("TEST456")
+            && requests.get(1).getToCurrency().equals("JPY")));
+    }
+
+    @Test
+    void createDeal_ShouldReturn400_WhenBinaryRecordIsTruncated() throws Exception {
+        byte[] record = DealBinaryCodec.encode(validRequest);
+
+        mockMvc.perform(post("/api/deals")
+                .contentType(DealBinaryCodec.MEDIA_TYPE)
+                .content(Arrays.copyOf(record, record.length - 1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid request format"));
+    }
+
+    @Test
+    void ingestDeals_ShouldStreamCsvBodyToIngestionService() throws Exception {
+        IngestionReport report = new IngestionReport(3, 2, 0, 1,
+            List.of(new IngestionReport.RejectedLine(3, "dealUniqueId is required")), 1_000_000L);
+        when(dealIngestionService.ingest(any(InputStream.class), eq(DealFileFormat.CSV))).thenReturn(report);
+
+        mockMvc.perform(post("/api/deals/ingest")
+                .contentType("text/csv")
+                .content(DealFileFormat.CSV_HEADER + "\nD1,USD,EUR,10,2024-02-16T10:30:00\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(3))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejectedLines[0].line").value(3))
+                .andExpect(jsonPath("$.rowsPerSecond").value(3000));
+    }
+
+    @Test
+    void ingestDeals_ShouldAcceptNdjson() throws Exception {
+        IngestionReport report = new IngestionReport(0, 0, 0, 0, List.of(), 0L);
+        when(dealIngestionService.ingest(any(InputStream.class), eq(DealFileFormat.NDJSON))).thenReturn(report);
+
+        mockMvc.perform(post("/api/deals/ingest")
+                .contentType("application/x-ndjson")
+                .content(""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rejectedLinesTruncated").value(false));
+    }
+
+    @Test
+    void ingestDeals_ShouldBulkLoad_WhenCopyIsRequested() throws Exception {
+        IngestionReport report = new IngestionReport(3, 2, 1, 0, List.of(), List.of(3L), 1_000_000L);
+        when(dealIngestionService.bulkLoad(any(InputStream.class), eq(DealFileFormat.CSV), eq(true)))
+            .thenReturn(report);
+
+        mockMvc.perform(post("/api/deals/ingest")
+                .param("copy", "true")
+                .param("backfill", "true")
+                .contentType("text/csv")
+                .content("D1,USD,EUR,10,2019-02-16T10:30:00\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.duplicateLines[0]").value(3))
+                .andExpect(jsonPath("$.duplicateLinesTruncated").value(false));
+        verify(dealIngestionService, never()).ingest(any(), any());
+    }
+
+    @Test
+    void ingestDeals_ShouldOmitDuplicateLines_WhenNotCopying() throws Exception {
+        IngestionReport report = new IngestionReport(1, 0, 1, 0, List.of(), 0L);
+        when(dealIngestionService.ingest(any(InputStream.class), eq(DealFileFormat.CSV))).thenReturn(report);
+
+        mockMvc.perform(post("/api/deals/ingest")
+                .contentType("text/csv")
+                .content("D1,USD,EUR,10,2024-02-16T10:30:00\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duplicateLines").doesNotExist())
+                .andExpect(jsonPath("$.duplicateLinesTruncated").doesNotExist());
+    }
+
+    @Test
+    void ingestDeals_ShouldReturn400_WhenBackfillWithoutCopy() throws Exception {
+        mockMvc.perform(post("/api/deals/ingest")
+                .param("backfill", "true")
+                .contentType("text/csv")
+                .content(""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("backfill=true requires copy=true"));
+        verifyNoInteractions(dealIngestionService);
+    }
+
+    @Test
+    void ingestDeals_ShouldReturn400_ForUnsupportedContentType() throws Exception {
+        mockMvc.perform(post("/api/deals/ingest")
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<deals/>"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported Content-Type. Use application/x-ndjson or text/csv"));
+    }
+
+    @Test
+    void exportDeals_ShouldStreamCsvForRequestedRange() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 2, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 1, 0, 0);
+        when(dealExportService.export(eq(DealFileFormat.CSV), eq(from), eq(to), any(OutputStream.class)))
+            .thenAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(3);
+                out.write("header\nrow\n".getBytes());
+                return 1L;
+            });
+
+        MvcResult result = mockMvc.perform(get("/api/deals/export")
+                .param("format", "CSV")
+                .param("from", "2024-02-01T00:00:00")
+                .param("to", "2024-03-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"deals.csv\""))
+                .andExpect(content().string("header\nrow\n"));
+    }
+
+    @Test
+    void exportDeals_ShouldDefaultToNdjsonWithOpenRange() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/deals/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"));
+
+        verify(dealExportService).export(eq(DealFileFormat.NDJSON), isNull(), isNull(), any(OutputStream.class));
+    }
+
+    @Test
+    void exportDeals_ShouldReturn400_ForUnknownFormatOrEmptyRange() throws Exception {
+        mockMvc.perform(get("/api/deals/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/deals/export")
+                .param("from", "2024-03-01T00:00:00")
+                .param("to", "2024-02-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("from must be before to"));
+    }
+
+    private void stubPage(long afterId, int limit, Deal... deals) {
+        doAnswer(invocation -> {
+            DealRowCallback callback = invocation.getArgument(2);
+            for (Deal deal : deals) {
+                callback.row(deal.getId(), deal.getDealUniqueId(), deal.getFromCurrency(), deal.getToCurrency(),
+                    deal.getDealAmount(), deal.getDealTimestamp());
+            }
+            return null;
+        }).when(dealService).forEachDealAfter(eq(afterId), eq(limit), any());
+    }
+
+    private Deal deal(long id, String dealUniqueId) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setDealUniqueId(dealUniqueId);
+        deal.setFromCurrency(validDeal.getFromCurrency());
+        deal.setToCurrency(validDeal.getToCurrency());
+        deal.setDealAmount(validDeal.getDealAmount());
+        deal.setDealTimestamp(validDeal.getDealTimestamp());
+        return deal;
+    }
+}
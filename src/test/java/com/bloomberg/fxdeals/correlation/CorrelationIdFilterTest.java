@@ -0,0 +1,97 @@
+package com.bloomberg.fxdeals.correlation;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorrelationIdFilterTest {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    @Test
+    void filter_ShouldKeepIncomingId_ForTheWholeRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/deals");
+        request.addHeader(CorrelationId.HEADER, "client-42:retry.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seenByHandler = new AtomicReference<>();
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                seenByHandler.set(CorrelationId.current());
+            }
+        }));
+
+        assertThat(seenByHandler.get()).isEqualTo("client-42:retry.1");
+        assertThat(response.getHeader(CorrelationId.HEADER)).isEqualTo("client-42:retry.1");
+        assertThat(MDC.get(CorrelationId.MDC_KEY)).isNull();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = DispatcherType.class, names = {"ASYNC", "ERROR"})
+    void filter_ShouldRestoreId_OnLaterDispatchesOfTheSameRequest(DispatcherType dispatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/deals/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        String issued = response.getHeader(CorrelationId.HEADER);
+        AtomicReference<String> seenByHandler = new AtomicReference<>();
+
+        request.setDispatcherType(dispatch);
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                seenByHandler.set(CorrelationId.current());
+            }
+        }));
+
+        assertThat(seenByHandler.get()).isEqualTo(issued);
+        assertThat(response.getHeader(CorrelationId.HEADER)).isEqualTo(issued);
+        assertThat(MDC.get(CorrelationId.MDC_KEY)).isNull();
+    }
+
+    @Test
+    void filter_ShouldGenerateId_WhenHeaderIsMissingOrUnsafe() throws Exception {
+        MockHttpServletResponse missing = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), missing, new MockFilterChain());
+
+        MockHttpServletRequest unsafe = new MockHttpServletRequest();
+        unsafe.addHeader(CorrelationId.HEADER, "abc\r\nfake log line");
+        MockHttpServletResponse replaced = new MockHttpServletResponse();
+        filter.doFilter(unsafe, replaced, new MockFilterChain());
+
+        assertThat(UUID.fromString(missing.getHeader(CorrelationId.HEADER)).version()).isEqualTo(4);
+        assertThat(UUID.fromString(replaced.getHeader(CorrelationId.HEADER)).version()).isEqualTo(4);
+    }
+
+    @Test
+    void isValid_ShouldLimitLengthAndCharacters() {
+        assertThat(CorrelationId.isValid("a".repeat(64))).isTrue();
+        assertThat(CorrelationId.isValid("a".repeat(65))).isFalse();
+        assertThat(CorrelationId.isValid("")).isFalse();
+        assertThat(CorrelationId.isValid("with space")).isFalse();
+        assertThat(CorrelationId.isValid("quote\"")).isFalse();
+    }
+
+    @Test
+    void generate_ShouldReturnDistinctVersion4Uuids() {
+        UUID first = UUID.fromString(CorrelationId.generate());
+        UUID second = UUID.fromString(CorrelationId.generate());
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(first.version()).isEqualTo(4);
+        assertThat(first.variant()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,43 @@
+package com.bloomberg.fxdeals.correlation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MdcTaskDecoratorTest {
+
+    private final MdcTaskDecorator decorator = new MdcTaskDecorator();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void decorate_ShouldRunTaskWithSubmittersMdc_AndRestoreWorkerAfterwards() throws Exception {
+        executor.submit(() -> MDC.put("worker", "kept")).get();
+        MDC.put(CorrelationId.MDC_KEY, "request-1");
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        executor.submit(decorator.decorate(() -> seen.set(MDC.get(CorrelationId.MDC_KEY)))).get();
+
+        assertThat(seen.get()).isEqualTo("request-1");
+        assertThat(executor.submit(() -> MDC.get(CorrelationId.MDC_KEY)).get()).isNull();
+        assertThat(executor.submit(() -> MDC.get("worker")).get()).isEqualTo("kept");
+    }
+
+    @Test
+    void decorate_ShouldReturnTaskAsIs_WhenThereIsNoMdc() {
+        Runnable task = () -> { };
+
+        assertThat(decorator.decorate(task)).isSameAs(task);
+    }
+}
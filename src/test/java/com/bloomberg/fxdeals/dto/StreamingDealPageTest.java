@@ -0,0 +1,92 @@
+package com.bloomberg.fxdeals.dto;
+
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.pagination.KeysetCursor;
+import com.bloomberg.fxdeals.repository.DealRowCallback;
+import com.bloomberg.fxdeals.service.DealMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingDealPageTest {
+
+    // Configured as Spring Boot configures the MVC converter's mapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+
+    private final List<Deal> deals = List.of(
+        deal(7L, "D1", "1000.50", LocalDateTime.of(2024, 2, 16, 10, 30)),
+        deal(9L, "D2", "0.000001", LocalDateTime.of(2024, 2, 16, 10, 30, 5, 120_000_000)),
+        deal(12L, "D3", "1E+3", LocalDateTime.of(2024, 2, 16, 23, 59, 59, 999_999_999)),
+        deal(15L, "D4", "-2.5", LocalDateTime.of(812, 1, 2, 3, 4, 0, 1_000)),
+        deal(16L, "D5", "7", LocalDateTime.of(12024, 12, 31, 0, 0)));
+
+    @Test
+    void serialize_ShouldMatchDealPage_WhenMoreRowsFollow() throws Exception {
+        String streamed = objectMapper.writeValueAsString(new StreamingDealPage(2, this::rows));
+
+        DealPage page = new DealPage(
+            List.of(DealMapper.toResponse(deals.get(0)), DealMapper.toResponse(deals.get(1))),
+            KeysetCursor.encode(9L));
+        assertThat(streamed).isEqualTo(objectMapper.writeValueAsString(page));
+    }
+
+    @Test
+    void serialize_ShouldMatchDealPage_OnLastPage() throws Exception {
+        String streamed = objectMapper.writeValueAsString(new StreamingDealPage(5, this::rows));
+
+        DealPage page = new DealPage(deals.stream().map(DealMapper::toResponse).toList(), null);
+        assertThat(streamed).isEqualTo(objectMapper.writeValueAsString(page));
+    }
+
+    @Test
+    void serialize_ShouldWriteEmptyPage() throws Exception {
+        String streamed = objectMapper.writeValueAsString(new StreamingDealPage(3, callback -> { }));
+
+        assertThat(streamed).isEqualTo("{\"items\":[],\"nextCursor\":null,\"hasMore\":false}");
+    }
+
+    @Test
+    void serialize_ShouldRethrowIOExceptionFromRowSource() {
+        IOException broken = new IOException("Broken pipe");
+        StreamingDealPage page = new StreamingDealPage(3, callback -> {
+            throw new UncheckedIOException(broken);
+        });
+
+        assertThatThrownBy(() -> objectMapper.writeValue(new ByteArrayOutputStream(), page)).isSameAs(broken);
+    }
+
+    private void rows(DealRowCallback callback) {
+        try {
+            for (Deal deal : deals) {
+                callback.row(deal.getId(), deal.getDealUniqueId(), deal.getFromCurrency(), deal.getToCurrency(),
+                    deal.getDealAmount(), deal.getDealTimestamp());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Deal deal(long id, String dealUniqueId, String amount, LocalDateTime timestamp) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setDealUniqueId(dealUniqueId);
+        deal.setFromCurrency("USD");
+        deal.setToCurrency("EUR");
+        deal.setDealAmount(new BigDecimal(amount));
+        deal.setDealTimestamp(timestamp);
+        return deal;
+    }
+}
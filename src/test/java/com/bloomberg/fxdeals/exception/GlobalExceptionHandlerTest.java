@@ -0,0 +1,114 @@
+package com.bloomberg.fxdeals.exception;
+
+import com.bloomberg.fxdeals.correlation.CorrelationId;
+import com.bloomberg.fxdeals.dto.ErrorResponse;
+import com.bloomberg.fxdeals.validation.ValidationResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.slf4j.MDC;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @ParameterizedTest
+    @EnumSource(value = ValidationResult.class, names = "VALID", mode = EnumSource.Mode.EXCLUDE)
+    void handleValidation_ShouldRenderSameJsonAsErrorResponse(ValidationResult result) throws Exception {
+        ResponseEntity<byte[]> response = handler.handleValidation(new DealValidationException(result));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertSameAsJackson(response.getBody(), new ErrorResponse(400, "BAD_REQUEST", result.getMessage()));
+    }
+
+    @Test
+    void handleDuplicate_ShouldRender409_AndEscapeTheId() throws Exception {
+        String id = "DUP \"1\" \\ é";
+
+        ResponseEntity<byte[]> response = handler.handleDuplicate(new DuplicateDealException(id));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(409);
+        assertSameAsJackson(response.getBody(),
+            new ErrorResponse(409, "CONFLICT", "Deal already exists with ID: " + id));
+    }
+
+    @Test
+    void handlePayloadTooLarge_ShouldAnswer413() {
+        ResponseEntity<ErrorResponse> response = handler.handlePayloadTooLarge(
+            new PayloadTooLargeException("Deal records body is larger than 8 bytes", new MockHttpInputMessage(new byte[0])));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(413);
+        assertThat(response.getBody().getError()).isEqualTo("PAYLOAD_TOO_LARGE");
+        assertThat(response.getBody().getMessage()).isEqualTo("Deal records body is larger than 8 bytes");
+    }
+
+    @Test
+    void handlers_ShouldIncludeCorrelationId_WhenRequestHasOne() throws Exception {
+        MDC.put(CorrelationId.MDC_KEY, "req-1");
+        try {
+            ResponseEntity<byte[]> invalid =
+                handler.handleValidation(new DealValidationException(ValidationResult.MISSING_DEAL_AMOUNT));
+            ResponseEntity<byte[]> duplicate = handler.handleDuplicate(new DuplicateDealException("D1"));
+
+            assertSameAsJackson(invalid.getBody(),
+                new ErrorResponse(400, "BAD_REQUEST", ValidationResult.MISSING_DEAL_AMOUNT.getMessage()));
+            assertSameAsJackson(duplicate.getBody(),
+                new ErrorResponse(409, "CONFLICT", "Deal already exists with ID: D1"));
+            assertThat(objectMapper.readTree(duplicate.getBody()).get("correlationId").asText()).isEqualTo("req-1");
+        } finally {
+            MDC.remove(CorrelationId.MDC_KEY);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-02-16T10:30:00", "2024-02-16T10:30:00.5", "2024-12-31T23:59:59.123456",
+        "0999-01-02T03:04:05.000000001", "2024-02-16T10:30:00.100200300"})
+    void timestamp_ShouldMatchIsoLocalDateTime(String value) {
+        LocalDateTime time = LocalDateTime.parse(value);
+
+        assertThat(new String(ErrorBodyTemplate.timestamp(time), StandardCharsets.US_ASCII))
+            .isEqualTo(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time));
+    }
+
+    @Test
+    void exceptions_ShouldCarryNoStackTrace() {
+        assertThat(new DealValidationException(ValidationResult.MISSING_DEAL_AMOUNT).getStackTrace()).isEmpty();
+        assertThat(new DuplicateDealException("X").getStackTrace()).isEmpty();
+    }
+
+    private void assertSameAsJackson(byte[] body, ErrorResponse expected) throws Exception {
+        JsonNode actual = objectMapper.readTree(body);
+        JsonNode reference = objectMapper.readTree(objectMapper.writeValueAsBytes(expected));
+
+        // Same fields in the same order; only the timestamp differs
+        Iterator<String> actualNames = actual.fieldNames();
+        Iterator<String> referenceNames = reference.fieldNames();
+        while (referenceNames.hasNext()) {
+            assertThat(actualNames.next()).isEqualTo(referenceNames.next());
+        }
+        assertThat(actualNames.hasNext()).isFalse();
+
+        assertThat(actual.get("status")).isEqualTo(reference.get("status"));
+        assertThat(actual.get("error")).isEqualTo(reference.get("error"));
+        assertThat(actual.get("message")).isEqualTo(reference.get("message"));
+        assertThat(actual.get("correlationId")).isEqualTo(reference.get("correlationId"));
+        LocalDateTime timestamp = objectMapper.convertValue(actual.get("timestamp"), LocalDateTime.class);
+        assertThat(timestamp).isBetween(LocalDateTime.now().minusMinutes(1), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,78 @@
+package com.bloomberg.fxdeals.format;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvDealLineParserTest {
+
+    private final CsvDealLineParser parser = new CsvDealLineParser();
+
+    @Test
+    void parse_ShouldMapAllColumns() {
+        DealRequest request = parser.parse("D1,USD,EUR,1000.50,2024-02-16T10:30:00");
+
+        assertThat(request.getDealUniqueId()).isEqualTo("D1");
+        assertThat(request.getFromCurrency()).isEqualTo("USD");
+        assertThat(request.getToCurrency()).isEqualTo("EUR");
+        assertThat(request.getDealAmount()).isEqualTo(new BigDecimal("1000.50"));
+        assertThat(request.getDealTimestamp()).isEqualTo(LocalDateTime.of(2024, 2, 16, 10, 30));
+    }
+
+    @Test
+    void parse_ShouldHandleQuotedFieldsAndCarriageReturn() {
+        DealRequest request = parser.parse("\"D,\"\"1\"\"\",USD,EUR,10,2024-02-16T10:30:00\r");
+
+        assertThat(request.getDealUniqueId()).isEqualTo("D,\"1\"");
+        assertThat(request.getDealTimestamp()).isEqualTo(LocalDateTime.of(2024, 2, 16, 10, 30));
+    }
+
+    @Test
+    void parse_ShouldLeaveEmptyColumnsNullForTheValidator() {
+        DealRequest request = parser.parse(",USD,EUR,,");
+
+        assertThat(request.getDealUniqueId()).isNull();
+        assertThat(request.getDealAmount()).isNull();
+        assertThat(request.getDealTimestamp()).isNull();
+    }
+
+    @Test
+    void parse_ShouldThrow_WhenColumnCountIsWrong() {
+        assertThatThrownBy(() -> parser.parse("D1,USD,EUR"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Expected 5 columns but found 3");
+    }
+
+    @Test
+    void parse_ShouldThrow_WhenAmountIsNotANumber() {
+        assertThatThrownBy(() -> parser.parse("D1,USD,EUR,abc,2024-02-16T10:30:00"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid number format");
+    }
+
+    @Test
+    void parse_ShouldThrow_WhenTimestampIsMalformed() {
+        assertThatThrownBy(() -> parser.parse("D1,USD,EUR,10,16/02/2024"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid timestamp format");
+    }
+
+    @Test
+    void parse_ShouldThrow_WhenQuoteIsNotClosed() {
+        assertThatThrownBy(() -> parser.parse("\"D1,USD,EUR,10,2024-02-16T10:30:00"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Unterminated");
+    }
+
+    @Test
+    void isHeader_ShouldOnlyMatchHeaderOnFirstLine() {
+        assertThat(parser.isHeader(DealFileFormat.CSV_HEADER, 1)).isTrue();
+        assertThat(parser.isHeader(DealFileFormat.CSV_HEADER, 2)).isFalse();
+        assertThat(parser.isHeader("D1,USD,EUR,10,2024-02-16T10:30:00", 1)).isFalse();
+    }
+}
@@ -0,0 +1,52 @@
+package com.bloomberg.fxdeals.format;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.model.Deal;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvDealRecordWriterTest {
+
+    @Test
+    void write_ShouldEmitHeaderAndRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvDealRecordWriter writer = new CsvDealRecordWriter(out);
+
+        writer.write(deal("D1", new BigDecimal("1E+3")));
+        writer.finish();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            DealFileFormat.CSV_HEADER + "\n"
+                + "D1,USD,EUR,1000,2024-02-16T10:30:00\n");
+    }
+
+    @Test
+    void write_ShouldQuoteIdsThatNeedIt_SoParserCanReadThemBack() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvDealRecordWriter writer = new CsvDealRecordWriter(out);
+
+        writer.write(deal("D,\"1\"", new BigDecimal("10.50")));
+        writer.finish();
+
+        String row = out.toString(StandardCharsets.UTF_8).split("\n")[1];
+        DealRequest parsed = new CsvDealLineParser().parse(row);
+        assertThat(parsed.getDealUniqueId()).isEqualTo("D,\"1\"");
+        assertThat(parsed.getDealAmount()).isEqualTo(new BigDecimal("10.50"));
+    }
+
+    private Deal deal(String id, BigDecimal amount) {
+        Deal deal = new Deal();
+        deal.setDealUniqueId(id);
+        deal.setFromCurrency("USD");
+        deal.setToCurrency("EUR");
+        deal.setDealAmount(amount);
+        deal.setDealTimestamp(LocalDateTime.of(2024, 2, 16, 10, 30));
+        return deal;
+    }
+}
@@ -0,0 +1,156 @@
+package com.bloomberg.fxdeals.format;
+
+import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.exception.PayloadTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DealBinaryCodecTest {
+
+    private static final Type DEAL_LIST = new ParameterizedTypeReference<List<DealRequest>>() { }.getType();
+
+    @Test
+    void encode_ShouldUseDocumentedLayout() {
+        byte[] record = DealBinaryCodec.encode(
+            request("D1", "USD", "EUR", "1000.50", LocalDateTime.of(1970, 1, 1, 0, 0, 1, 2_000)));
+
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        assertThat(record).hasSize(DealBinaryCodec.FIXED_BYTES + 2);
+        assertThat(buffer.getShort()).isEqualTo((short) 2);
+        assertThat(new String(record, 2, 8)).isEqualTo("D1USDEUR");
+        buffer.position(10);
+        assertThat(buffer.get()).isEqualTo((byte) 2);
+        assertThat(buffer.getLong()).isEqualTo(100050L);
+        assertThat(buffer.getLong()).isEqualTo(1_000_002L);
+    }
+
+    @Test
+    void decode_ShouldReadRecordsBackToBack() throws Exception {
+        List<DealRequest> deals = List.of(
+            request("DEAL-Ü1", "USD", "EUR", "1000.50", LocalDateTime.of(2024, 2, 16, 10, 30, 5, 123_456_000)),
+            request("D2", "GBP", "JPY", "1E+3", LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000)));
+        ByteBuffer buffer = ByteBuffer.wrap(DealBinaryCodec.encode(deals));
+
+        DealRequest first = DealBinaryCodec.decode(buffer);
+        DealRequest second = DealBinaryCodec.decode(buffer);
+
+        assertThat(buffer.hasRemaining()).isFalse();
+        assertThat(first.getDealUniqueId()).isEqualTo("DEAL-Ü1");
+        assertThat(first.getFromCurrency()).isEqualTo("USD");
+        assertThat(first.getToCurrency()).isEqualTo("EUR");
+        assertThat(first.getDealAmount()).isEqualTo(new BigDecimal("1000.50"));
+        assertThat(first.getDealTimestamp()).isEqualTo(LocalDateTime.of(2024, 2, 16, 10, 30, 5, 123_456_000));
+        assertThat(second.getDealAmount()).isEqualTo(new BigDecimal("1000"));
+        assertThat(second.getDealTimestamp()).isEqualTo(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000));
+    }
+
+    @Test
+    void encode_ShouldTruncateTimestampToMicros() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap(DealBinaryCodec.encode(
+            request("D1", "USD", "EUR", "1", LocalDateTime.of(2024, 2, 16, 10, 30, 0, 123_456_789))));
+
+        assertThat(DealBinaryCodec.decode(buffer).getDealTimestamp())
+            .isEqualTo(LocalDateTime.of(2024, 2, 16, 10, 30, 0, 123_456_000));
+    }
+
+    @Test
+    void encode_ShouldRejectAmountsWiderThan64Bits() {
+        DealRequest deal = request("D1", "USD", "EUR", "92233720368547758.08", LocalDateTime.of(2024, 2, 16, 10, 30));
+
+        assertThatThrownBy(() -> DealBinaryCodec.encode(deal)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decode_ShouldFail_WhenRecordIsCutShort() {
+        byte[] record = DealBinaryCodec.encode(request("D1", "USD", "EUR", "1", LocalDateTime.of(2024, 2, 16, 10, 30)));
+
+        assertThatThrownBy(() -> DealBinaryCodec.decode(ByteBuffer.wrap(Arrays.copyOf(record, 4))))
+            .isInstanceOf(BufferUnderflowException.class);
+        assertThatThrownBy(() -> DealBinaryCodec.decode(ByteBuffer.wrap(Arrays.copyOf(record, record.length - 1))))
+            .isInstanceOf(BufferUnderflowException.class);
+    }
+
+    @Test
+    void decode_ShouldRefuseMalformedUtf8_InsteadOfReplacingIt() {
+        byte[] record = DealBinaryCodec.encode(request("DX", "USD", "EUR", "1", LocalDateTime.of(2024, 2, 16, 10, 30)));
+        record[3] = (byte) 0xC3; // lead byte of a two-byte sequence with nothing after it
+
+        assertThatThrownBy(() -> DealBinaryCodec.decode(ByteBuffer.wrap(record)))
+            .isInstanceOf(CharacterCodingException.class);
+        assertThatThrownBy(() -> new DealBinaryMessageConverter(1024).read(DealRequest.class, null,
+                new MockHttpInputMessage(record)))
+            .isInstanceOf(HttpMessageNotReadableException.class)
+            .hasMessageContaining("not valid text");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void converter_ShouldWriteWhatItReads() throws Exception {
+        DealBinaryMessageConverter converter = new DealBinaryMessageConverter(1024);
+        List<DealRequest> deals = List.of(
+            request("D1", "USD", "EUR", "10.25", LocalDateTime.of(2024, 2, 16, 10, 30)),
+            request("D2", "GBP", "JPY", "7", LocalDateTime.of(2024, 2, 16, 10, 31)));
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+
+        assertThat(converter.canWrite(DEAL_LIST, List.class, DealBinaryCodec.MEDIA_TYPE)).isTrue();
+        converter.write(deals, DEAL_LIST, DealBinaryCodec.MEDIA_TYPE, out);
+
+        assertThat(out.getBodyAsBytes()).isEqualTo(DealBinaryCodec.encode(deals));
+        List<DealRequest> read = (List<DealRequest>) converter.read(DEAL_LIST, null,
+            new MockHttpInputMessage(out.getBodyAsBytes()));
+        assertThat(read).extracting(DealRequest::getDealUniqueId).containsExactly("D1", "D2");
+    }
+
+    @Test
+    void converter_ShouldRefuseBodiesOverTheLimit() {
+        byte[] record = DealBinaryCodec.encode(request("D1", "USD", "EUR", "1", LocalDateTime.of(2024, 2, 16, 10, 30)));
+        DealBinaryMessageConverter converter = new DealBinaryMessageConverter(record.length * 2 - 1);
+        byte[] two = DealBinaryCodec.encode(List.of(
+            request("D1", "USD", "EUR", "1", LocalDateTime.of(2024, 2, 16, 10, 30)),
+            request("D2", "USD", "EUR", "1", LocalDateTime.of(2024, 2, 16, 10, 30))));
+
+        assertThatThrownBy(() -> converter.read(DEAL_LIST, null, new MockHttpInputMessage(two)))
+            .isInstanceOf(PayloadTooLargeException.class)
+            .hasMessageContaining("larger than " + (record.length * 2 - 1) + " bytes");
+
+        MockHttpInputMessage declared = new MockHttpInputMessage(record);
+        declared.getHeaders().setContentLength(1L << 30);
+        assertThatThrownBy(() -> converter.read(DEAL_LIST, null, declared))
+            .isInstanceOf(PayloadTooLargeException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, Integer.MAX_VALUE})
+    void converter_ShouldRejectLimitsItCannotReadPast(int maxBodyBytes) {
+        assertThatThrownBy(() -> new DealBinaryMessageConverter(maxBodyBytes))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("fxdeals.binary.max-body-bytes");
+    }
+
+    private static DealRequest request(String id, String from, String to, String amount, LocalDateTime timestamp) {
+        DealRequest request = new DealRequest();
+        request.setDealUniqueId(id);
+        request.setFromCurrency(from);
+        request.setToCurrency(to);
+        request.setDealAmount(new BigDecimal(amount));
+        request.setDealTimestamp(timestamp);
+        return request;
+    }
+}
@@ -0,0 +1,54 @@
+package com.bloomberg.fxdeals.format;
+
+import com.bloomberg.fxdeals.model.Deal;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonDealRecordWriterTest {
+
+    @Test
+    void write_ShouldEmitOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NdjsonDealRecordWriter writer = new NdjsonDealRecordWriter(new JsonFactory(), out);
+
+        writer.write(deal("D1"));
+        writer.write(deal("D2"));
+        writer.finish();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "{\"dealUniqueId\":\"D1\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"dealAmount\":1000.50,\"dealTimestamp\":\"2024-02-16T10:30:00\"}\n"
+                + "{\"dealUniqueId\":\"D2\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"dealAmount\":1000.50,\"dealTimestamp\":\"2024-02-16T10:30:00\"}\n");
+    }
+
+    @Test
+    void finish_ShouldNotCloseUnderlyingStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                throw new AssertionError("stream closed");
+            }
+        };
+        NdjsonDealRecordWriter writer = new NdjsonDealRecordWriter(new JsonFactory(), out);
+
+        writer.finish();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("\n");
+    }
+
+    private Deal deal(String id) {
+        Deal deal = new Deal();
+        deal.setDealUniqueId(id);
+        deal.setFromCurrency("USD");
+        deal.setToCurrency("EUR");
+        deal.setDealAmount(new BigDecimal("1000.50"));
+        deal.setDealTimestamp(LocalDateTime.of(2024, 2, 16, 10, 30));
+        return deal;
+    }
+}
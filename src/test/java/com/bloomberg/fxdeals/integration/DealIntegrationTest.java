@@ -3,6 +3,7 @@ package com.bloomberg.fxdeals.integration;
 import com.bloomberg.fxdeals.dto.DealRequest;
 import com.bloomberg.fxdeals.model.Deal;
 import com.bloomberg.fxdeals.repository.DealRepository;
+import com.bloomberg.fxdeals.repository.InsertedDeal;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -15,11 +16,13 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -51,9 +54,6 @@ public class DealIntegrationTest {
         validRequest.setToCurrency("EUR");
         validRequest.setDealAmount(new BigDecimal("1000.50"));
         validRequest.setDealTimestamp(LocalDateTime.now());
-
-        dealRepository.findByDealUniqueId(validRequest.getDealUniqueId())
-            .ifPresent(deal -> dealRepository.delete(deal));
     }
 
     @Test
@@ -67,10 +67,11 @@ public class DealIntegrationTest {
         deal.setDealAmount(new BigDecimal("500.00"));
         deal.setDealTimestamp(LocalDateTime.now());
         
-        Deal saved = dealRepository.save(deal);
-        assertThat(saved.getId()).isNotNull();
-        
-        Optional<Deal> found = dealRepository.findById(saved.getId());
+        Optional<InsertedDeal> inserted = dealRepository.insertIfAbsent(deal);
+        assertThat(inserted).isPresent();
+        assertThat(dealRepository.insertIfAbsent(deal)).isEmpty();
+
+        Optional<Deal> found = dealRepository.findById(inserted.get().id());
         assertThat(found).isPresent();
         assertThat(found.get().getDealUniqueId()).isEqualTo(deal.getDealUniqueId());
     }
@@ -238,4 +239,38 @@ void test5_ShouldVerifyAllFieldsAreMappedCorrectly() {
             .count();
         assertThat(count).isEqualTo(2);
     }
+
+    // ===== TEST 7: Bulk endpoint with multi-row inserts =====
+    @Test
+    void test7_ShouldPersistBatchAndReportDuplicates() {
+        String batchPrefix = "BULK_" + System.currentTimeMillis();
+
+        DealRequest first = new DealRequest();
+        first.setDealUniqueId(batchPrefix + "_1");
+        first.setFromCurrency("USD");
+        first.setToCurrency("EUR");
+        first.setDealAmount(new BigDecimal("100.00"));
+        first.setDealTimestamp(LocalDateTime.now());
+
+        DealRequest second = new DealRequest();
+        second.setDealUniqueId(batchPrefix + "_2");
+        second.setFromCurrency("GBP");
+        second.setToCurrency("JPY");
+        second.setDealAmount(new BigDecimal("200.00"));
+        second.setDealTimestamp(LocalDateTime.now());
+
+        restTemplate.postForEntity(baseUrl, first, Deal.class);
+
+        ResponseEntity<JsonNode> response = restTemplate.postForEntity(
+            baseUrl + "/batch",
+            List.of(first, second),
+            JsonNode.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().get("created").asInt()).isEqualTo(1);
+        assertThat(response.getBody().get("duplicates").asInt()).isEqualTo(1);
+        assertThat(dealRepository.findByDealUniqueId(batchPrefix + "_2")).isPresent();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.bloomberg.fxdeals.journal;
+
+import com.bloomberg.fxdeals.model.Deal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DealJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private DealJournal journal;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void codec_ShouldRoundTripAllFields() {
+        Deal deal = deal("RT-1");
+        deal.setDealAmount(new BigDecimal("-12345678901234567890.1234"));
+        deal.setDealTimestamp(LocalDateTime.of(2024, 2, 16, 10, 30, 0, 123456789));
+
+        Deal decoded = DealJournalCodec.decode(ByteBuffer.wrap(DealJournalCodec.encode(deal)));
+
+        assertThat(decoded.getDealUniqueId()).isEqualTo("RT-1");
+        assertThat(decoded.getFromCurrency()).isEqualTo("USD");
+        assertThat(decoded.getToCurrency()).isEqualTo("EUR");
+        assertThat(decoded.getDealAmount()).isEqualTo(deal.getDealAmount());
+        assertThat(decoded.getDealTimestamp()).isEqualTo(deal.getDealTimestamp());
+    }
+
+    @Test
+    void read_ShouldReturnAppendedDealsInOrder_AndStopAtPublishedEnd() {
+        journal = open(16);
+        journal.append(deal("A"));
+        journal.append(deal("B"));
+        journal.append(deal("C"));
+
+        JournalBatch first = journal.read(journal.getCheckpoint(), 2);
+        JournalBatch rest = journal.read(first.getEndPosition(), 10);
+
+        assertThat(first.getDeals()).extracting(Deal::getDealUniqueId).containsExactly("A", "B");
+        assertThat(rest.getDeals()).extracting(Deal::getDealUniqueId).containsExactly("C");
+        assertThat(rest.getEndPosition()).isEqualTo(journal.getPublished());
+        assertThat(journal.read(rest.getEndPosition(), 10).isEmpty()).isTrue();
+    }
+
+    @Test
+    void reopen_ShouldReplayOnlyRecordsAfterCheckpoint() throws IOException {
+        journal = open(16);
+        journal.append(deal("A"));
+        journal.append(deal("B"));
+        JournalBatch flushed = journal.read(journal.getCheckpoint(), 1);
+        journal.commit(flushed.getEndPosition());
+        journal.close();
+
+        journal = open(16);
+
+        JournalBatch replay = journal.read(journal.getCheckpoint(), 10);
+        assertThat(replay.getDeals()).extracting(Deal::getDealUniqueId).containsExactly("B");
+
+        journal.append(deal("C"));
+        assertThat(journal.read(replay.getEndPosition(), 10).getDeals())
+            .extracting(Deal::getDealUniqueId).containsExactly("C");
+    }
+
+    @Test
+    void reopen_ShouldDiscardTornTailRecord() throws IOException {
+        journal = open(16);
+        journal.append(deal("A"));
+        long end = journal.getPublished();
+        journal.append(deal("B"));
+        journal.close();
+
+        // Corrupt B's payload as if the host died halfway through writing it
+        try (FileChannel channel = FileChannel.open(segmentFiles()[0], StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f, 0x7f}), DealJournal.offsetOf(end) + DealJournal.HEADER_SIZE + 3);
+        }
+
+        journal = open(16);
+
+        assertThat(journal.getPublished()).isEqualTo(end);
+        assertThat(journal.read(journal.getCheckpoint(), 10).getDeals())
+            .extracting(Deal::getDealUniqueId).containsExactly("A");
+    }
+
+    @Test
+    void append_ShouldRollSegments_AndCommitShouldDeleteFlushedOnes() throws IOException {
+        journal = open(16);
+        for (int i = 0; i < 200; i++) {
+            journal.append(deal("ROLL-" + i));
+        }
+        assertThat(segmentFiles().length).isGreaterThan(1);
+
+        JournalBatch all = journal.read(journal.getCheckpoint(), 1000);
+        assertThat(all.getDeals()).hasSize(200);
+        assertThat(all.getDeals().get(199).getDealUniqueId()).isEqualTo("ROLL-199");
+
+        journal.commit(all.getEndPosition());
+        assertThat(segmentFiles()).hasSize(1);
+    }
+
+    @Test
+    void append_ShouldRejectWhenUnflushedBacklogIsFull() {
+        journal = open(2);
+
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 1000; i++) {
+                journal.append(deal("FULL-" + i));
+            }
+        }).isInstanceOf(JournalFullException.class);
+
+        // Flushing frees space again
+        journal.commit(journal.read(journal.getCheckpoint(), 1000).getEndPosition());
+        journal.append(deal("AFTER-FLUSH"));
+    }
+
+    private DealJournal open(int maxSegments) {
+        return new DealJournal(directory.toString(), SEGMENT_SIZE, maxSegments, false);
+    }
+
+    private Path[] segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".journal")).sorted().toArray(Path[]::new);
+        }
+    }
+
+    private Deal deal(String id) {
+        Deal deal = new Deal();
+        deal.setDealUniqueId(id);
+        deal.setFromCurrency("USD");
+        deal.setToCurrency("EUR");
+        deal.setDealAmount(new BigDecimal("1000.50"));
+        deal.setDealTimestamp(LocalDateTime.of(2024, 2, 16, 10, 30));
+        return deal;
+    }
+}
@@ -0,0 +1,213 @@
+package com.bloomberg.fxdeals.journal;
+
+import com.bloomberg.fxdeals.cache.DealLookupCache;
+import com.bloomberg.fxdeals.cache.DealsWatermark;
+import com.bloomberg.fxdeals.format.DealFileFormat;
+import com.bloomberg.fxdeals.metrics.DealMetrics;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.repository.DealRepository;
+import com.bloomberg.fxdeals.repository.InsertedDeals;
+import com.bloomberg.fxdeals.rollup.DealVolumeRollups;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.UncategorizedSQLException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JournalFlusherTest {
+
+    @TempDir
+    Path directory;
+
+    private DealJournal journal;
+    private DealRepository dealRepository;
+    private SimpleMeterRegistry registry;
+    private DealMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        journal = new DealJournal(directory.toString(), 1 << 16, 16, false);
+        dealRepository = mock(DealRepository.class);
+        registry = new SimpleMeterRegistry();
+        metrics = new DealMetrics(registry);
+        when(dealRepository.insertIgnoringDuplicates(anyList())).thenAnswer(invocation -> {
+            List<Deal> deals = invocation.getArgument(0);
+            return InsertedDeals.of(0, deals.stream().map(Deal::getDealUniqueId).toArray(String[]::new));
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void flush_ShouldAdvanceCheckpointOnlyAfterInsert() {
+        journal.append(deal("A"));
+        journal.append(deal("B"));
+        JournalFlusher flusher = new JournalFlusher(journal, dealRepository, metrics, mock(DealVolumeRollups.class),
+            mock(DealLookupCache.class), mock(DealsWatermark.class), 10, 10, 10, 1000);
+
+        JournalBatch batch = journal.read(journal.getCheckpoint(), 10);
+        long checkpoint = flusher.flush(batch);
+
+        assertThat(checkpoint).isEqualTo(journal.getPublished());
+        assertThat(journal.getCheckpoint()).isEqualTo(checkpoint);
+    }
+
+    @Test
+    void flush_ShouldKeepCheckpoint_WhenDatabaseFails() {
+        when(dealRepository.insertIgnoringDuplicates(anyList())).thenThrow(new RuntimeException("db down"));
+        journal.append(deal("A"));
+        JournalFlusher flusher = new JournalFlusher(journal, dealRepository, metrics, mock(DealVolumeRollups.class),
+            mock(DealLookupCache.class), mock(DealsWatermark.class), 10, 10, 10, 1000);
+        long before = journal.getCheckpoint();
+
+        try {
+            flusher.flush(journal.read(before, 10));
+        } catch (RuntimeException expected) {
+            // retried by the flusher loop
+        }
+
+        assertThat(journal.getCheckpoint()).isEqualTo(before);
+    }
+
+    @Test
+    void flush_ShouldDeadLetterPoisonRecord_AndMovePastIt() throws IOException {
+        when(dealRepository.insertIgnoringDuplicates(anyList())).thenAnswer(invocation -> {
+            List<Deal> deals = invocation.getArgument(0);
+            if (deals.stream().anyMatch(deal -> deal.getDealUniqueId().equals("POISON"))) {
+                throw new DataIntegrityViolationException("value too long for type character varying(255)");
+            }
+            return InsertedDeals.of(0, deals.stream().map(Deal::getDealUniqueId).toArray(String[]::new));
+        });
+        journal.append(deal("A"));
+        journal.append(deal("POISON"));
+        journal.append(deal("B"));
+        DealVolumeRollups rollups = mock(DealVolumeRollups.class);
+        JournalFlusher flusher = new JournalFlusher(journal, dealRepository, metrics, rollups,
+            mock(DealLookupCache.class), mock(DealsWatermark.class), 10, 10, 10, 1000);
+
+        long checkpoint = flusher.flush(journal.read(journal.getCheckpoint(), 10));
+
+        assertThat(checkpoint).isEqualTo(journal.getPublished());
+        assertThat(journal.getCheckpoint()).isEqualTo(checkpoint);
+        assertThat(Files.readAllLines(directory.resolve("dead-letter.csv")))
+            .containsExactly(DealFileFormat.CSV_HEADER, "POISON,USD,EUR,1000.50,2024-02-16T10:30:00");
+        verify(rollups).record(argThat(deals -> deals.stream().map(Deal::getDealUniqueId).toList()
+            .equals(List.of("A", "B"))), argThat((InsertedDeals inserted) -> inserted.ids().equals(Set.of("A", "B"))));
+        assertThat(registry.get("fxdeals.deals.dead.lettered").counter().count()).isEqualTo(1);
+        assertThat(registry.get("fxdeals.deals.created").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void flush_ShouldKeepCheckpoint_WhenRowRetryLosesTheDatabase() {
+        when(dealRepository.insertIgnoringDuplicates(anyList()))
+            .thenThrow(new DataIntegrityViolationException("numeric field overflow"))
+            .thenThrow(new CannotGetJdbcConnectionException("db down"));
+        journal.append(deal("A"));
+        JournalFlusher flusher = new JournalFlusher(journal, dealRepository, metrics, mock(DealVolumeRollups.class),
+            mock(DealLookupCache.class), mock(DealsWatermark.class), 10, 10, 10, 1000);
+        long before = journal.getCheckpoint();
+
+        assertThatThrownBy(() -> flusher.flush(journal.read(before, 10)))
+            .isInstanceOf(CannotGetJdbcConnectionException.class);
+
+        assertThat(journal.getCheckpoint()).isEqualTo(before);
+        assertThat(directory.resolve("dead-letter.csv")).doesNotExist();
+    }
+
+    @Test
+    void flush_ShouldResumeAfterHandledDeals_WhenRowRetryLosesTheDatabase() throws IOException {
+        AtomicBoolean databaseUp = new AtomicBoolean(false);
+        when(dealRepository.insertIgnoringDuplicates(anyList())).thenAnswer(invocation -> {
+            List<Deal> deals = invocation.getArgument(0);
+            if (deals.stream().anyMatch(deal -> deal.getDealUniqueId().equals("POISON"))) {
+                throw new DataIntegrityViolationException("numeric field overflow");
+            }
+            if (deals.stream().anyMatch(deal -> deal.getDealUniqueId().equals("B")) && !databaseUp.getAndSet(true)) {
+                throw new CannotGetJdbcConnectionException("db down");
+            }
+            return InsertedDeals.of(0, deals.stream().map(Deal::getDealUniqueId).toArray(String[]::new));
+        });
+        journal.append(deal("A"));
+        journal.append(deal("POISON"));
+        journal.append(deal("B"));
+        journal.append(deal("C"));
+        JournalFlusher flusher = new JournalFlusher(journal, dealRepository, metrics, mock(DealVolumeRollups.class),
+            mock(DealLookupCache.class), mock(DealsWatermark.class), 10, 10, 10, 1000);
+        JournalBatch batch = journal.read(journal.getCheckpoint(), 10);
+
+        assertThatThrownBy(() -> flusher.flush(batch)).isInstanceOf(CannotGetJdbcConnectionException.class);
+
+        assertThat(journal.getCheckpoint()).isEqualTo(batch.positionAfter(1));
+        assertThat(journal.read(journal.getCheckpoint(), 10).getDeals())
+            .extracting(Deal::getDealUniqueId).containsExactly("B", "C");
+
+        long checkpoint = flusher.flush(journal.read(journal.getCheckpoint(), 10));
+
+        assertThat(checkpoint).isEqualTo(journal.getPublished());
+        assertThat(Files.readAllLines(directory.resolve("dead-letter.csv")))
+            .containsExactly(DealFileFormat.CSV_HEADER, "POISON,USD,EUR,1000.50,2024-02-16T10:30:00");
+        assertThat(registry.get("fxdeals.deals.dead.lettered").counter().count()).isEqualTo(1);
+        assertThat(registry.get("fxdeals.deals.created").counter().count()).isEqualTo(3);
+        assertThat(registry.get("fxdeals.deals.duplicate").counter().count()).isZero();
+    }
+
+    @Test
+    void isRefusedData_ShouldOnlyMatchDataAndIntegrityErrors() {
+        assertThat(JournalFlusher.isRefusedData(
+            new UncategorizedSQLException("insert", "sql", new SQLException("overflow", "22003")))).isTrue();
+        assertThat(JournalFlusher.isRefusedData(
+            new UncategorizedSQLException("insert", "sql", new SQLException("refused", "08001")))).isFalse();
+        assertThat(JournalFlusher.isRefusedData(new RuntimeException("db down"))).isFalse();
+    }
+
+    @Test
+    void running_ShouldDrainAppendsInBackground() {
+        JournalFlusher flusher = new JournalFlusher(journal, dealRepository, metrics, mock(DealVolumeRollups.class),
+            mock(DealLookupCache.class), mock(DealsWatermark.class), 100, 10, 10, 1000);
+        flusher.start();
+        try {
+            journal.append(deal("BG-1"));
+            journal.append(deal("BG-2"));
+
+            verify(dealRepository, timeout(2000).atLeastOnce()).insertIgnoringDuplicates(anyList());
+        } finally {
+            flusher.stop();
+        }
+        assertThat(journal.getCheckpoint()).isEqualTo(journal.getPublished());
+    }
+
+    private Deal deal(String id) {
+        Deal deal = new Deal();
+        deal.setDealUniqueId(id);
+        deal.setFromCurrency("USD");
+        deal.setToCurrency("EUR");
+        deal.setDealAmount(new BigDecimal("1000.50"));
+        deal.setDealTimestamp(LocalDateTime.of(2024, 2, 16, 10, 30));
+        return deal;
+    }
+}
@@ -0,0 +1,53 @@
+package com.bloomberg.fxdeals.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CurrencyCodesTest {
+
+    private final CurrencyCodeConverter converter = new CurrencyCodeConverter();
+
+    @Test
+    void toNumeric_ShouldUseIsoNumericCodes() {
+        assertThat(CurrencyCodes.toNumeric("USD")).isEqualTo((short) 840);
+        assertThat(CurrencyCodes.toNumeric("EUR")).isEqualTo((short) 978);
+        assertThat(CurrencyCodes.toNumeric("AUD")).isEqualTo((short) 36);
+    }
+
+    @Test
+    void allCodes_ShouldRoundTrip() {
+        String[] codes = CurrencyCodes.alphaCodes();
+
+        assertThat(codes).hasSize(24).doesNotHaveDuplicates();
+        for (String code : codes) {
+            assertThat(CurrencyCodes.isSupported(code)).isTrue();
+            assertThat(CurrencyCodes.toAlpha(CurrencyCodes.toNumeric(code))).isEqualTo(code);
+        }
+    }
+
+    @Test
+    void unsupportedCodes_ShouldBeRejected() {
+        assertThat(CurrencyCodes.isSupported("XYZ")).isFalse();
+        assertThat(CurrencyCodes.isSupported("usd")).isFalse();
+        assertThat(CurrencyCodes.isSupported("USDOLLAR")).isFalse();
+        assertThat(CurrencyCodes.isSupported(null)).isFalse();
+        assertThatThrownBy(() -> CurrencyCodes.toNumeric("XYZ"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unsupported currency: XYZ");
+        assertThatThrownBy(() -> CurrencyCodes.toAlpha((short) 999))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unknown currency code: 999");
+        assertThatThrownBy(() -> CurrencyCodes.toAlpha((short) -1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void converter_ShouldMapBothWaysAndPassNullsThrough() {
+        assertThat(converter.convertToDatabaseColumn("GBP")).isEqualTo((short) 826);
+        assertThat(converter.convertToEntityAttribute((short) 826)).isEqualTo("GBP");
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+}
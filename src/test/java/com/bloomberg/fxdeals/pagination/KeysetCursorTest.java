@@ -0,0 +1,29 @@
+package com.bloomberg.fxdeals.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void decode_ShouldRoundTripEncodedId() {
+        assertThat(KeysetCursor.decode(KeysetCursor.encode(123456789L))).isEqualTo(123456789L);
+    }
+
+    @Test
+    void decode_ShouldStartFromBeginning_WhenCursorMissing() {
+        assertThat(KeysetCursor.decode(null)).isZero();
+        assertThat(KeysetCursor.decode("")).isZero();
+    }
+
+    @Test
+    void decode_ShouldRejectTamperedCursor() {
+        assertThatThrownBy(() -> KeysetCursor.decode("%%%"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> KeysetCursor.decode(KeysetCursor.encode(-1L)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,36 @@
+package com.bloomberg.fxdeals.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchCursorTest {
+
+    @Test
+    void decode_ShouldRoundTripTimestampAndId() {
+        SearchCursor cursor = new SearchCursor(LocalDateTime.of(2024, 2, 16, 10, 30, 0, 123_000_000), 42L);
+
+        assertThat(SearchCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_ShouldStartFromBeginning_WhenCursorMissing() {
+        assertThat(SearchCursor.decode(null)).isNull();
+        assertThat(SearchCursor.decode("")).isNull();
+    }
+
+    @Test
+    void decode_ShouldRejectTamperedCursor() {
+        assertThatThrownBy(() -> SearchCursor.decode("%%%"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> SearchCursor.decode(KeysetCursor.encode(5L)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> SearchCursor.decode(new SearchCursor(LocalDateTime.of(2024, 1, 1, 0, 0), -1L).encode()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
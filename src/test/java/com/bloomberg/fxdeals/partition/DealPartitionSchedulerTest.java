@@ -0,0 +1,52 @@
+package com.bloomberg.fxdeals.partition;
+
+import com.bloomberg.fxdeals.repository.DealRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DealPartitionSchedulerTest {
+
+    private final DealRepository dealRepository = mock(DealRepository.class);
+
+    @Test
+    void around_ShouldSpanLastMonthToMonthsAhead() {
+        PartitionWindow window = PartitionWindow.around(LocalDate.of(2024, 12, 31), 3);
+
+        assertThat(window.from()).isEqualTo(LocalDateTime.of(2024, 11, 1, 0, 0));
+        assertThat(window.to()).isEqualTo(LocalDateTime.of(2025, 3, 1, 0, 0));
+    }
+
+    @Test
+    void createPartitions_ShouldAskRepositoryForTheWindow() {
+        new DealPartitionScheduler(dealRepository, 2).createPartitions(LocalDate.of(2024, 2, 16));
+
+        verify(dealRepository).createPartitions(
+            LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 4, 1, 0, 0));
+    }
+
+    @Test
+    void createPartitions_ShouldNotThrow_WhenDatabaseIsDown() {
+        when(dealRepository.createPartitions(any(), any()))
+            .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        DealPartitionScheduler scheduler = new DealPartitionScheduler(dealRepository, 3);
+
+        assertThatCode(() -> scheduler.createPartitions(LocalDate.of(2024, 2, 16))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void constructor_ShouldRejectNoMonthsAhead() {
+        assertThatThrownBy(() -> new DealPartitionScheduler(dealRepository, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,226 @@
+package com.bloomberg.fxdeals.reactive;
+
+import com.bloomberg.fxdeals.correlation.CorrelationId;
+import com.bloomberg.fxdeals.correlation.ReactiveCorrelationIdFilter;
+import com.bloomberg.fxdeals.format.DealFileFormat;
+import com.bloomberg.fxdeals.metrics.DealMetrics;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.pagination.KeysetCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveDealHandlerTest {
+
+    @Mock
+    private ReactiveDealRepository dealRepository;
+
+    private WebTestClient client;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveDealHandler handler = new ReactiveDealHandler(dealRepository, new DealMetrics(new SimpleMeterRegistry()), 2, 3);
+        client = WebTestClient.bindToRouterFunction(new ReactiveDealRoutes().dealRoutes(handler))
+            .webFilter(new ReactiveCorrelationIdFilter())
+            .build();
+        now = LocalDateTime.now().withNano(0);
+    }
+
+    @Test
+    void createDeal_ShouldReturn201_WhenValidRequest() {
+        when(dealRepository.insertIfAbsent(any(Deal.class))).thenReturn(Mono.just(1L));
+
+        client.post().uri("/api/deals")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(requestBody("TEST123"))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody()
+            .jsonPath("$.dealUniqueId").isEqualTo("TEST123")
+            .jsonPath("$.fromCurrency").isEqualTo("USD")
+            .jsonPath("$.dealAmount").isEqualTo(1000.50);
+    }
+
+    @Test
+    void createDeal_ShouldReturn409_WhenDuplicate() {
+        when(dealRepository.insertIfAbsent(any(Deal.class))).thenReturn(Mono.empty());
+
+        client.post().uri("/api/deals")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(requestBody("DUP1"))
+            .exchange()
+            .expectStatus().isEqualTo(409)
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("CONFLICT")
+            .jsonPath("$.message").isEqualTo("Deal already exists with ID: DUP1");
+    }
+
+    @Test
+    void createDeal_ShouldReturn400_WhenValidationFailsOrBodyIsMalformed() {
+        Map<String, Object> invalid = requestBody("BAD1");
+        invalid.put("fromCurrency", "XXX");
+
+        client.post().uri("/api/deals")
+            .header(CorrelationId.HEADER, "trace-123")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(invalid)
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectHeader().valueEquals(CorrelationId.HEADER, "trace-123")
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("BAD_REQUEST")
+            .jsonPath("$.correlationId").isEqualTo("trace-123");
+
+        client.post().uri("/api/deals")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{not json")
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.message").isEqualTo("Invalid request format");
+
+        verify(dealRepository, never()).insertIfAbsent(any(Deal.class));
+    }
+
+    @Test
+    void createDeal_ShouldReturn415_WhenBodyIsNotJson() {
+        client.post().uri("/api/deals")
+            .contentType(MediaType.parseMediaType("application/x-fxdeal"))
+            .bodyValue(new byte[] {0, 1, 'A'})
+            .exchange()
+            .expectStatus().isEqualTo(415)
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("UNSUPPORTED_MEDIA_TYPE");
+
+        verify(dealRepository, never()).insertIfAbsent(any(Deal.class));
+    }
+
+    @Test
+    void routes_ShouldNotServeServletOnlyEndpoints() {
+        client.get().uri("/api/deals/search").exchange().expectStatus().isNotFound();
+        client.get().uri("/api/deals/stats").exchange().expectStatus().isNotFound();
+        client.get().uri("/api/deals/TEST123").exchange().expectStatus().isNotFound();
+        client.post().uri("/api/deals/batch").contentType(MediaType.APPLICATION_JSON).bodyValue("[]")
+            .exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void getDeals_ShouldReturnPageWithNextCursor() {
+        when(dealRepository.findByIdGreaterThanOrderByIdAsc(0L, 3))
+            .thenReturn(Flux.just(deal(1L, "A"), deal(2L, "B"), deal(3L, "C")));
+
+        client.get().uri("/api/deals")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.items.length()").isEqualTo(2)
+            .jsonPath("$.items[1].dealUniqueId").isEqualTo("B")
+            .jsonPath("$.nextCursor").isEqualTo(KeysetCursor.encode(2L))
+            .jsonPath("$.hasMore").isEqualTo(true);
+    }
+
+    @Test
+    void getDeals_ShouldCapSizeAndRejectInvalidInput() {
+        when(dealRepository.findByIdGreaterThanOrderByIdAsc(5L, 4)).thenReturn(Flux.just(deal(6L, "F")));
+
+        client.get().uri("/api/deals?size=50&cursor=" + KeysetCursor.encode(5L))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.items.length()").isEqualTo(1)
+            .jsonPath("$.hasMore").isEqualTo(false);
+
+        client.get().uri("/api/deals?size=0").exchange().expectStatus().isBadRequest();
+        client.get().uri("/api/deals?cursor=!!").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void exportDeals_ShouldStreamCsvWithHeader() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(dealRepository.streamByDealTimestampRange(eq(from), isNull()))
+            .thenReturn(Flux.just(deal(1L, "A"), deal(2L, "B")));
+
+        String body = client.get().uri("/api/deals/export?format=csv&from=2024-01-01T00:00:00")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(DealFileFormat.CSV.getMediaType())
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(body.split("\n")).hasSize(3);
+        assertThat(body).startsWith(DealFileFormat.CSV_HEADER + "\nA,USD,EUR,1000.50,");
+    }
+
+    @Test
+    void exportDeals_ShouldStreamNdjsonByDefault() {
+        when(dealRepository.streamByDealTimestampRange(null, null))
+            .thenReturn(Flux.just(deal(1L, "A"), deal(2L, "B")));
+
+        String body = client.get().uri("/api/deals/export")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(DealFileFormat.NDJSON.getMediaType())
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(body.split("\n")).hasSize(2);
+        assertThat(body).startsWith("{\"dealUniqueId\":\"A\"");
+    }
+
+    @Test
+    void exportDeals_ShouldReturn400_ForUnknownFormatOrBadRange() {
+        client.get().uri("/api/deals/export?format=xml").exchange().expectStatus().isBadRequest();
+        client.get().uri("/api/deals/export?from=yesterday").exchange().expectStatus().isBadRequest();
+        client.get().uri("/api/deals/export?from=2024-02-01T00:00:00&to=2024-01-01T00:00:00")
+            .exchange().expectStatus().isBadRequest();
+
+        verify(dealRepository, never()).streamByDealTimestampRange(any(), any());
+        verify(dealRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), anyInt());
+    }
+
+    private Map<String, Object> requestBody(String id) {
+        return new HashMap<>(Map.of(
+            "dealUniqueId", id,
+            "fromCurrency", "USD",
+            "toCurrency", "EUR",
+            "dealAmount", new BigDecimal("1000.50"),
+            "dealTimestamp", now.toString()));
+    }
+
+    private Deal deal(Long id, String dealUniqueId) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setDealUniqueId(dealUniqueId);
+        deal.setFromCurrency("USD");
+        deal.setToCurrency("EUR");
+        deal.setDealAmount(new BigDecimal("1000.50"));
+        deal.setDealTimestamp(now);
+        return deal;
+    }
+}
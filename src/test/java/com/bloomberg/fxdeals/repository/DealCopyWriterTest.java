@@ -0,0 +1,127 @@
+package com.bloomberg.fxdeals.repository;
+
+import com.bloomberg.fxdeals.model.CurrencyCodes;
+import com.bloomberg.fxdeals.model.Deal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DealCopyWriterTest {
+
+    private static final int HEADER_BYTES = 11 + 4 + 4;
+
+    @Test
+    void write_ShouldProduceHeaderTupleAndTrailer() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DealCopyWriter writer = new DealCopyWriter(out, 1024);
+
+        writer.write(7, deal("DÉAL-1", new BigDecimal("1000.50"), LocalDateTime.of(2000, 1, 1, 0, 0, 1, 500_000)));
+        writer.finish();
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        byte[] signature = new byte[11];
+        buffer.get(signature);
+        assertThat(new String(signature, 0, 6, StandardCharsets.US_ASCII)).isEqualTo("PGCOPY");
+        assertThat(buffer.getInt()).isZero();
+        assertThat(buffer.getInt()).isZero();
+
+        assertThat(buffer.getShort()).isEqualTo((short) 6);
+        assertThat(buffer.getInt()).isEqualTo(8);
+        assertThat(buffer.getLong()).isEqualTo(7);
+        byte[] id = new byte[buffer.getInt()];
+        buffer.get(id);
+        assertThat(new String(id, StandardCharsets.UTF_8)).isEqualTo("DÉAL-1");
+        assertThat(buffer.getInt()).isEqualTo(2);
+        assertThat(buffer.getShort()).isEqualTo(CurrencyCodes.toNumeric("USD"));
+        assertThat(buffer.getInt()).isEqualTo(2);
+        assertThat(buffer.getShort()).isEqualTo(CurrencyCodes.toNumeric("EUR"));
+        assertThat(buffer.getInt()).isEqualTo(8 + 2 * 2);
+        buffer.position(buffer.position() + 8 + 2 * 2);
+        assertThat(buffer.getInt()).isEqualTo(8);
+        assertThat(buffer.getLong()).isEqualTo(1_000_500);
+
+        assertThat(buffer.getShort()).isEqualTo((short) -1);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void write_ShouldHandOverFullBuffers_AsTheyFill() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DealCopyWriter writer = new DealCopyWriter(out, 128);
+
+        for (int i = 0; i < 10; i++) {
+            writer.write(i, deal("D" + i, BigDecimal.TEN, LocalDateTime.of(2024, 2, 16, 10, 30)));
+        }
+        assertThat(out.size()).isPositive().isLessThanOrEqualTo(10 * 128);
+        writer.finish();
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        assertThat(buffer.getShort(buffer.limit() - 2)).isEqualTo((short) -1);
+    }
+
+    @Test
+    void write_ShouldEncodeTimestampsBeforeThePostgresEpoch() throws Exception {
+        assertThat(timestampMicros(LocalDateTime.of(1999, 12, 31, 23, 59, 59))).isEqualTo(-1_000_000);
+        assertThat(timestampMicros(LocalDateTime.of(2024, 2, 16, 10, 30))).isEqualTo(761_394_600_000_000L);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "1000.50, 2 0 0 2 1000 5000",
+        "0.01, 1 -1 0 2 100",
+        "10000, 1 1 0 0 1",
+        "12345.6789, 3 1 0 4 1 2345 6789",
+        "-2.5, 2 0 16384 1 2 5000",
+        "0.00, 0 0 0 2",
+        "1E+3, 1 0 0 0 1000",
+        "123456789012345678901234.5, 7 5 0 1 1234 5678 9012 3456 7890 1234 5000"
+    })
+    void write_ShouldEncodeAmountsInNumericWireFormat(String amount, String expected) throws Exception {
+        short[] numeric = numeric(new BigDecimal(amount));
+
+        assertThat(Arrays.toString(numeric))
+            .isEqualTo(Arrays.toString(Arrays.stream(expected.split(" ")).mapToInt(Integer::parseInt).toArray()));
+    }
+
+    private static short[] numeric(BigDecimal amount) throws Exception {
+        ByteBuffer tuple = tuple(deal("D1", amount, LocalDateTime.of(2024, 2, 16, 10, 30)));
+        tuple.position(2 + 12 + 4 + 2 + 6 + 6);
+        short[] numeric = new short[tuple.getInt() / 2];
+        for (int i = 0; i < numeric.length; i++) {
+            numeric[i] = tuple.getShort();
+        }
+        return numeric;
+    }
+
+    private static long timestampMicros(LocalDateTime timestamp) throws Exception {
+        ByteBuffer tuple = tuple(deal("D1", BigDecimal.ONE, timestamp));
+        return tuple.getLong(tuple.limit() - 2 - 8);
+    }
+
+    private static ByteBuffer tuple(Deal deal) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DealCopyWriter writer = new DealCopyWriter(out, 1024);
+        writer.write(1, deal);
+        writer.finish();
+        return ByteBuffer.wrap(out.toByteArray(), HEADER_BYTES, out.size() - HEADER_BYTES).slice();
+    }
+
+    private static Deal deal(String id, BigDecimal amount, LocalDateTime timestamp) {
+        Deal deal = new Deal();
+        deal.setDealUniqueId(id);
+        deal.setFromCurrency("USD");
+        deal.setToCurrency("EUR");
+        deal.setDealAmount(amount);
+        deal.setDealTimestamp(timestamp);
+        return deal;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bloomberg.fxdeals.repository;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class DealRepositoryImplTest {
+
+    @TempDir
+    Path spoolDir;
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, DealRepositoryImpl.MAX_CHUNK_SIZE + 1})
+    void constructor_ShouldRejectChunkSizes_ThatDoNotFitOneStatement(int chunkSize) {
+        assertThatThrownBy(() -> new DealRepositoryImpl(mock(JdbcTemplate.class), chunkSize, spoolDir.toString()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("fxdeals.batch.chunk-size");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, DealRepositoryImpl.MAX_CHUNK_SIZE})
+    void constructor_ShouldAcceptChunkSizes_WithinTheBindParameterLimit(int chunkSize) {
+        assertThatCode(() -> new DealRepositoryImpl(mock(JdbcTemplate.class), chunkSize, spoolDir.toString()))
+            .doesNotThrowAnyException();
+    }
+}
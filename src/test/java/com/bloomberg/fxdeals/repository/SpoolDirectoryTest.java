@@ -0,0 +1,55 @@
+package com.bloomberg.fxdeals.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpoolDirectoryTest {
+
+    @TempDir
+    Path parent;
+
+    @Test
+    void get_ShouldCreateOneLockedDirectoryPerInstance() throws Exception {
+        SpoolDirectory spoolDirectory = new SpoolDirectory(parent);
+
+        Path directory = spoolDirectory.get();
+
+        assertThat(spoolDirectory.get()).isEqualTo(directory);
+        assertThat(directory.getParent()).isEqualTo(parent);
+        assertThat(directory.getFileName().toString()).startsWith("deal-loads-");
+        assertThat(directory.resolve(".lock")).exists();
+    }
+
+    @Test
+    void removeAbandoned_ShouldKeepDirectoriesOfRunningInstances() throws Exception {
+        SpoolDirectory mine = new SpoolDirectory(parent);
+        SpoolDirectory other = new SpoolDirectory(parent);
+        Path mySpool = Files.createFile(mine.get().resolve("deal-load-1.pgcopy"));
+        Path otherSpool = Files.createFile(other.get().resolve("deal-load-2.pgcopy"));
+
+        assertThat(mine.removeAbandoned()).isZero();
+
+        assertThat(mySpool).exists();
+        assertThat(otherSpool).exists();
+    }
+
+    @Test
+    void removeAbandoned_ShouldClearDirectoriesWhoseOwnerIsGone() throws Exception {
+        // What an instance that died leaves behind: its lock file with nobody holding it
+        Path abandoned = Files.createDirectory(parent.resolve("deal-loads-123"));
+        Files.createFile(abandoned.resolve(".lock"));
+        Files.createFile(abandoned.resolve("deal-load-1.pgcopy"));
+        Path unrelated = Files.createFile(parent.resolve("deal-load-2.pgcopy"));
+        SpoolDirectory spoolDirectory = new SpoolDirectory(parent);
+
+        assertThat(spoolDirectory.removeAbandoned()).isEqualTo(1);
+
+        assertThat(abandoned).doesNotExist();
+        assertThat(unrelated).exists();
+    }
+}
@@ -0,0 +1,153 @@
+package com.bloomberg.fxdeals.rollup;
+
+import com.bloomberg.fxdeals.dto.VolumeBucket;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.repository.InsertedDeals;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DealVolumeRollupsTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 2, 16, 0, 0);
+
+    private final DealRollupRepository repository = mock(DealRollupRepository.class);
+    private final DealVolumeRollups rollups = new DealVolumeRollups(repository, true);
+
+    @Test
+    void find_ShouldCombineStoredRowsWithPendingDeltas() {
+        RollupKey tenOClock = new RollupKey(Granularity.HOUR, (short) 978, (short) 840, DAY.plusHours(10));
+        when(repository.find(Granularity.HOUR, (short) 978, (short) 840, DAY, DAY.plusDays(1)))
+            .thenReturn(List.of(Map.entry(tenOClock, new RollupTotals(2, new BigDecimal("100.00")))));
+        rollups.record(deal("D1", "EUR", "USD", DAY.plusHours(10).plusMinutes(5), "50.005"), 0);
+        rollups.record(deal("D2", "EUR", "USD", DAY.plusHours(11), "7"), 0);
+        rollups.record(deal("D3", "GBP", "USD", DAY.plusHours(10), "1"), 0);
+
+        List<VolumeBucket> buckets = rollups.find(Granularity.HOUR, "EUR", "USD", DAY, DAY.plusDays(1));
+
+        assertThat(buckets).hasSize(2);
+        assertThat(buckets.get(0).getBucketStart()).isEqualTo(DAY.plusHours(10));
+        assertThat(buckets.get(0).getDealCount()).isEqualTo(3);
+        assertThat(buckets.get(0).getTotalAmount()).isEqualByComparingTo("150.01");
+        assertThat(buckets.get(1).getBucketStart()).isEqualTo(DAY.plusHours(11));
+        assertThat(buckets.get(1).getDealCount()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteOneRowPerBucketAndGranularity_InKeyOrder() {
+        Deal first = deal("D1", "USD", "EUR", DAY.plusMinutes(1), "10");
+        Deal second = deal("D2", "USD", "EUR", DAY.plusMinutes(1), "5");
+        Deal duplicate = deal("D3", "USD", "EUR", DAY.plusMinutes(1), "99");
+        rollups.record(List.of(first, second, duplicate), InsertedDeals.of(0, "D1", "D2"));
+
+        rollups.flush();
+
+        ArgumentCaptor<List<Map.Entry<RollupKey, RollupTotals>>> rows = ArgumentCaptor.forClass(List.class);
+        verify(repository).addAll(eq(0L), rows.capture());
+        assertThat(rows.getValue()).extracting(row -> row.getKey().granularity())
+            .containsExactly(Granularity.DAY, Granularity.HOUR, Granularity.MINUTE);
+        assertThat(rows.getValue()).allSatisfy(row -> {
+            assertThat(row.getValue().count()).isEqualTo(2);
+            assertThat(row.getValue().amount()).isEqualByComparingTo("15");
+        });
+
+        rollups.flush();
+        verify(repository).addAll(anyLong(), anyList());
+    }
+
+    @Test
+    void flush_ShouldKeepDeltas_WhenWriteFails() {
+        rollups.record(deal("D1", "USD", "EUR", DAY, "10"), 0);
+        doThrow(new IllegalStateException("database down")).when(repository).addAll(anyLong(), anyList());
+
+        rollups.flush();
+
+        when(repository.find(any(), any(), any(), any(), any())).thenReturn(List.of());
+        List<VolumeBucket> buckets = rollups.find(Granularity.DAY, null, null, DAY, DAY.plusDays(1));
+        assertThat(buckets).singleElement().satisfies(bucket -> {
+            assertThat(bucket.getFromCurrency()).isEqualTo("USD");
+            assertThat(bucket.getDealCount()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void flush_ShouldDropDeltas_WhenARebuildMovedTheEpochOn() {
+        rollups.record(deal("D1", "USD", "EUR", DAY, "10"), 0);
+        when(repository.addAll(eq(0L), anyList())).thenReturn(1L);
+
+        rollups.flush();
+        rollups.flush();
+
+        verify(repository).addAll(anyLong(), anyList());
+        when(repository.find(any(), any(), any(), any(), any())).thenReturn(List.of());
+        assertThat(rollups.find(Granularity.DAY, null, null, DAY, DAY.plusDays(1))).isEmpty();
+    }
+
+    @Test
+    void find_ShouldLeaveOutDeltasOfOlderEpochs() {
+        when(repository.find(any(), any(), any(), any(), any())).thenReturn(List.of());
+        rollups.record(deal("D1", "USD", "EUR", DAY, "10"), 3);
+        rollups.record(deal("D2", "USD", "EUR", DAY, "5"), 4);
+
+        List<VolumeBucket> buckets = rollups.find(Granularity.DAY, "USD", "EUR", DAY, DAY.plusDays(1));
+
+        assertThat(buckets).singleElement().satisfies(bucket -> {
+            assertThat(bucket.getDealCount()).isEqualTo(1);
+            assertThat(bucket.getTotalAmount()).isEqualByComparingTo("5");
+        });
+    }
+
+    @Test
+    void start_ShouldRebuildOnlyWhenEnabled() {
+        rollups.start();
+        verify(repository).rebuild();
+
+        DealRollupRepository other = mock(DealRollupRepository.class);
+        new DealVolumeRollups(other, false).start();
+        verify(other, never()).rebuild();
+    }
+
+    @Test
+    void totals_ShouldSpillIntoBigDecimal_WhenCentsOverflow() {
+        RollupTotals totals = new RollupTotals();
+        totals.add(new BigDecimal("90000000000000000"));
+        totals.add(new BigDecimal("90000000000000000"));
+        totals.add(new BigDecimal("0.01"));
+
+        assertThat(totals.count()).isEqualTo(3);
+        assertThat(totals.amount()).isEqualByComparingTo("180000000000000000.01");
+    }
+
+    @Test
+    void bucketsBetween_ShouldCountBucketsStartingInWindow() {
+        assertThat(Granularity.HOUR.bucketsBetween(DAY, DAY.plusDays(1))).isEqualTo(24);
+        assertThat(Granularity.HOUR.bucketsBetween(DAY.plusMinutes(30), DAY.plusHours(1).plusMinutes(1))).isEqualTo(2);
+        assertThat(Granularity.DAY.bucketsBetween(DAY, DAY.plusMinutes(1))).isEqualTo(1);
+    }
+
+    private static Deal deal(String id, String from, String to, LocalDateTime timestamp, String amount) {
+        Deal deal = new Deal();
+        deal.setDealUniqueId(id);
+        deal.setFromCurrency(from);
+        deal.setToCurrency(to);
+        deal.setDealTimestamp(timestamp);
+        deal.setDealAmount(new BigDecimal(amount));
+        return deal;
+    }
+}
@@ -0,0 +1,48 @@
+package com.bloomberg.fxdeals.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedLineReaderTest {
+
+    @Test
+    void readLine_ShouldSplitOnEveryLineTerminator() throws IOException {
+        assertThat(lines("a\nb\r\nc\rd", 10)).containsExactly("a", "b", "c", "d");
+        assertThat(lines("a\n\r\nb\n", 10)).containsExactly("a", "", "b");
+        assertThat(lines("", 10)).isEmpty();
+    }
+
+    @Test
+    void readLine_ShouldCutLongLines_AndResumeAtTheNextOne() throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new StringReader("x".repeat(20_000) + "\r\nshort\n"), 8);
+
+        assertThat(reader.readLine()).isEqualTo("xxxxxxxx");
+        assertThat(reader.isOverlong()).isTrue();
+        assertThat(reader.readLine()).isEqualTo("short");
+        assertThat(reader.isOverlong()).isFalse();
+        assertThat(reader.readLine()).isNull();
+    }
+
+    @Test
+    void readLine_ShouldKeepLinesOfExactlyMaxLength() throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new StringReader("12345678"), 8);
+
+        assertThat(reader.readLine()).isEqualTo("12345678");
+        assertThat(reader.isOverlong()).isFalse();
+    }
+
+    private static List<String> lines(String input, int maxLength) throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new StringReader(input), maxLength);
+        List<String> lines = new ArrayList<>();
+        for (String line; (line = reader.readLine()) != null; ) {
+            lines.add(line);
+        }
+        return lines;
+    }
+}
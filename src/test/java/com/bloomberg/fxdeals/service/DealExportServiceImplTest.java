@@ -0,0 +1,82 @@
+package com.bloomberg.fxdeals.service;
+
+import com.bloomberg.fxdeals.format.DealFileFormat;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.repository.DealRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealExportServiceImplTest {
+
+    @Mock
+    private DealRepository dealRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private DealExportServiceImpl exportService;
+    private Deal first;
+    private Deal second;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new DealExportServiceImpl(dealRepository, entityManager, new ObjectMapper());
+        first = deal("D1");
+        second = deal("D2");
+    }
+
+    @Test
+    void export_ShouldWriteEveryDealAndDetachIt() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        LocalDateTime from = LocalDateTime.of(2024, 2, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 1, 0, 0);
+        when(dealRepository.streamByDealTimestamp(from, to))
+            .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.export(DealFileFormat.CSV, from, to, out);
+
+        assertThat(written).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(3);
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void export_ShouldLeaveBoundsOpen_WhenRangeNotGiven() throws Exception {
+        when(dealRepository.streamByDealTimestamp(null, null)).thenReturn(Stream.of(first));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.export(DealFileFormat.NDJSON, null, null, out);
+
+        assertThat(written).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8)).startsWith("{\"dealUniqueId\":\"D1\"");
+    }
+
+    private Deal deal(String id) {
+        Deal deal = new Deal();
+        deal.setDealUniqueId(id);
+        deal.setFromCurrency("USD");
+        deal.setToCurrency("EUR");
+        deal.setDealAmount(new BigDecimal("10"));
+        deal.setDealTimestamp(LocalDateTime.of(2024, 2, 16, 10, 30));
+        return deal;
+    }
+}
@@ -0,0 +1,216 @@
+package com.bloomberg.fxdeals.service;
+
+import com.bloomberg.fxdeals.cache.DealLookupCache;
+import com.bloomberg.fxdeals.cache.DealsWatermark;
+import com.bloomberg.fxdeals.dto.IngestionReport;
+import com.bloomberg.fxdeals.format.DealFileFormat;
+import com.bloomberg.fxdeals.metrics.DealMetrics;
+import com.bloomberg.fxdeals.model.Deal;
+import com.bloomberg.fxdeals.repository.DealCopyResult;
+import com.bloomberg.fxdeals.repository.DealCopySource;
+import com.bloomberg.fxdeals.repository.DealCopyWriter;
+import com.bloomberg.fxdeals.repository.DealRepository;
+import com.bloomberg.fxdeals.repository.InsertedDeals;
+import com.bloomberg.fxdeals.rollup.DealVolumeRollups;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealIngestionServiceImplTest {
+
+    @Mock
+    private DealRepository dealRepository;
+    @Mock
+    private DealLookupCache lookupCache;
+    @Mock
+    private DealsWatermark watermark;
+
+    private SimpleMeterRegistry registry;
+    private DealIngestionServiceImpl ingestionService;
+    private String now;
+    private List<Integer> chunkSizes;
+    private Set<String> stored;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        registry = new SimpleMeterRegistry();
+        ingestionService = new DealIngestionServiceImpl(dealRepository, objectMapper, new DealMetrics(registry),
+            mock(DealVolumeRollups.class), lookupCache, watermark, 2, 1, 256);
+        now = LocalDateTime.now().withNano(0).toString();
+        chunkSizes = new ArrayList<>();
+        stored = new HashSet<>();
+    }
+
+    @Test
+    void ingest_ShouldWriteCsvInFixedSizeChunks() throws Exception {
+        stubRepository();
+        String csv = DealFileFormat.CSV_HEADER + "\n"
+            + "D1,USD,EUR,10," + now + "\n"
+            + "D2,GBP,JPY,20," + now + "\n"
+            + "\n"
+            + "D3,USD,EUR,30," + now + "\n";
+
+        IngestionReport report = ingestionService.ingest(stream(csv), DealFileFormat.CSV);
+
+        assertThat(report.getRowsRead()).isEqualTo(3);
+        assertThat(report.getCreated()).isEqualTo(3);
+        assertThat(report.getRejected()).isZero();
+        assertThat(chunkSizes).containsExactly(2, 1);
+    }
+
+    @Test
+    void ingest_ShouldReportRejectedLineNumbersAndDuplicates() throws Exception {
+        stubRepository();
+        stored.add("D1");
+        String ndjson = "{\"dealUniqueId\":\"D1\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"dealAmount\":10,\"dealTimestamp\":\"" + now + "\"}\n"
+            + "{not json}\n"
+            + "{\"dealUniqueId\":\"D2\",\"fromCurrency\":\"XXX\",\"toCurrency\":\"EUR\",\"dealAmount\":10,\"dealTimestamp\":\"" + now + "\"}\n"
+            + "{\"dealUniqueId\":\"D3\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"dealAmount\":10,\"dealTimestamp\":\"" + now + "\"}\n";
+
+        IngestionReport report = ingestionService.ingest(stream(ndjson), DealFileFormat.NDJSON);
+
+        assertThat(report.getRowsRead()).isEqualTo(4);
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getDuplicates()).isEqualTo(1);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getRejectedLines()).hasSize(1);
+        assertThat(report.getRejectedLines().get(0).getLine()).isEqualTo(2);
+        assertThat(report.getRejectedLines().get(0).getMessage()).startsWith("Invalid JSON");
+        assertThat(report.isRejectedLinesTruncated()).isTrue();
+
+        assertThat(registry.get("fxdeals.deals.created").counter().count()).isEqualTo(1);
+        assertThat(registry.get("fxdeals.deals.duplicate").counter().count()).isEqualTo(1);
+        assertThat(registry.get("fxdeals.deals.rejected").tag("reason", "unparseable").counter().count()).isEqualTo(1);
+        assertThat(registry.get("fxdeals.deals.rejected").tag("reason", "invalid_from_currency").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void ingest_ShouldRejectOverlongLine_AndCarryOnAfterIt() throws Exception {
+        stubRepository();
+        String csv = "D1,USD,EUR,10," + now + "\n"
+            + "X".repeat(100_000) + "\r\n"
+            + "D2,USD,EUR,20," + now + "\n";
+
+        IngestionReport report = ingestionService.ingest(stream(csv), DealFileFormat.CSV);
+
+        assertThat(report.getRowsRead()).isEqualTo(3);
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getRejectedLines().get(0).getLine()).isEqualTo(2);
+        assertThat(report.getRejectedLines().get(0).getMessage()).isEqualTo("Line is longer than 256 characters");
+    }
+
+    @Test
+    void dropStaleBulkLoads_ShouldOnlyLogFailures() {
+        when(dealRepository.dropStaleBulkLoads()).thenThrow(new IllegalStateException("db down"));
+
+        ingestionService.dropStaleBulkLoads();
+
+        verify(dealRepository).dropStaleBulkLoads();
+    }
+
+    @Test
+    void ingest_ShouldRejectNullLines() throws Exception {
+        IngestionReport report = ingestionService.ingest(stream("null\n"), DealFileFormat.NDJSON);
+
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getRejectedLines().get(0).getMessage()).isEqualTo("deal is required");
+        verifyNoInteractions(dealRepository);
+    }
+
+    @Test
+    void ingest_ShouldNotTouchRepository_ForEmptyBody() throws Exception {
+        IngestionReport report = ingestionService.ingest(stream(""), DealFileFormat.CSV);
+
+        assertThat(report.getRowsRead()).isZero();
+        assertThat(report.getRowsPerSecond()).isZero();
+        verifyNoInteractions(dealRepository);
+    }
+
+    @Test
+    void bulkLoad_ShouldCopyValidLinesAndReportDuplicateLines() throws Exception {
+        DealCopyWriter writer = mock(DealCopyWriter.class);
+        when(dealRepository.copyIn(any(), eq(1))).thenAnswer(invocation -> {
+            invocation.<DealCopySource>getArgument(0).writeTo(writer);
+            return new DealCopyResult(2, 1, 1, List.of(4L));
+        });
+        String csv = DealFileFormat.CSV_HEADER + "\n"
+            + "D1,USD,EUR,10,2019-03-01T09:00:00\n"
+            + "D2,XXX,EUR,20,2019-03-01T09:00:00\n"
+            + "D1,USD,EUR,30,2019-03-01T09:00:00\n";
+
+        IngestionReport report = ingestionService.bulkLoad(stream(csv), DealFileFormat.CSV, true);
+
+        verify(writer).write(eq(2L), argThat(deal -> deal.getDealUniqueId().equals("D1")
+            && deal.getDealTimestamp().getYear() == 2019));
+        verify(writer).write(eq(4L), argThat(deal -> deal.getDealAmount().intValue() == 30));
+        verifyNoMoreInteractions(writer);
+        assertThat(report.getRowsRead()).isEqualTo(3);
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getDuplicates()).isEqualTo(1);
+        assertThat(report.getDuplicateLines()).containsExactly(4L);
+        assertThat(report.getRejectedLines().get(0).getLine()).isEqualTo(3);
+        verify(lookupCache).invalidateMisses();
+        verify(watermark).advance();
+        assertThat(registry.get("fxdeals.deals.created").counter().count()).isEqualTo(1);
+        assertThat(registry.get("fxdeals.deals.duplicate").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkLoad_ShouldKeepTimestampWindow_WhenNotBackfilling() throws Exception {
+        DealCopyWriter writer = mock(DealCopyWriter.class);
+        when(dealRepository.copyIn(any(), anyInt())).thenAnswer(invocation -> {
+            invocation.<DealCopySource>getArgument(0).writeTo(writer);
+            return new DealCopyResult(0, 0, 0, List.of());
+        });
+
+        IngestionReport report = ingestionService.bulkLoad(
+            stream("D1,USD,EUR,10,2019-03-01T09:00:00\n"), DealFileFormat.CSV, false);
+
+        assertThat(report.getRejected()).isEqualTo(1);
+        verify(writer, never()).write(anyLong(), any());
+        verify(watermark, never()).advance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRepository() {
+        when(dealRepository.insertIgnoringDuplicates(anyList())).thenAnswer(invocation -> {
+            List<Deal> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            return InsertedDeals.of(0, chunk.stream()
+                .map(Deal::getDealUniqueId)
+                .filter(stored::add)
+                .toArray(String[]::new));
+        });
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
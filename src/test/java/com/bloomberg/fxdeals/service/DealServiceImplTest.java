@@ -1,24 +1,37 @@
 package com.bloomberg.fxdeals.service;
 
+import com.bloomberg.fxdeals.cache.DealLookupCache;
+import com.bloomberg.fxdeals.cache.DealsWatermark;
+import com.bloomberg.fxdeals.dto.BatchDealResponse;
+import com.bloomberg.fxdeals.dto.BatchDealResult;
 import com.bloomberg.fxdeals.dto.DealRequest;
+import com.bloomberg.fxdeals.exception.DuplicateDealException;
+import com.bloomberg.fxdeals.metrics.DealMetrics;
 import com.bloomberg.fxdeals.model.Deal;
 import com.bloomberg.fxdeals.repository.DealRepository;
+import com.bloomberg.fxdeals.repository.DealRowCallback;
+import com.bloomberg.fxdeals.repository.InsertedDeal;
+import com.bloomberg.fxdeals.repository.InsertedDeals;
+import com.bloomberg.fxdeals.rollup.DealVolumeRollups;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +40,20 @@ class DealServiceImplTest {
     @Mock
     private DealRepository dealRepository;
 
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Spy
+    private DealMetrics metrics = new DealMetrics(registry);
+
+    @Mock
+    private DealVolumeRollups rollups;
+
+    @Mock
+    private DealLookupCache lookupCache;
+
+    @Mock
+    private DealsWatermark watermark;
+
     @InjectMocks
     private DealServiceImpl dealService;
 
@@ -52,37 +79,39 @@ class DealServiceImplTest {
     }
 
     @Test
-    void createDeal_ShouldSaveAndReturnDeal_WhenValid() {
-        when(dealRepository.existsByDealUniqueId("TEST123")).thenReturn(false);
-        when(dealRepository.save(any(Deal.class))).thenReturn(validDeal);
+    void createDeal_ShouldInsertAndReturnDeal_WhenValid() {
+        when(dealRepository.insertIfAbsent(any(Deal.class))).thenReturn(Optional.of(new InsertedDeal(1L, 0)));
 
         Deal result = dealService.createDeal(validRequest);
 
         assertThat(result).isNotNull();
+        assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getDealUniqueId()).isEqualTo("TEST123");
         assertThat(result.getFromCurrency()).isEqualTo("USD");
         assertThat(result.getToCurrency()).isEqualTo("EUR");
         assertThat(result.getDealAmount()).isEqualTo(new BigDecimal("1000.50"));
         
-        verify(dealRepository).existsByDealUniqueId("TEST123");
-        verify(dealRepository).save(any(Deal.class));
+        verify(dealRepository).insertIfAbsent(any(Deal.class));
+        verify(dealRepository, never()).existsByDealUniqueId(any());
+        verify(lookupCache).put(argThat(response -> response.getDealUniqueId().equals("TEST123")));
+        verify(watermark).advance();
     }
 
     @Test
     void createDeal_ShouldThrowException_WhenDealAlreadyExists() {
-        when(dealRepository.existsByDealUniqueId("TEST123")).thenReturn(true);
+        when(dealRepository.insertIfAbsent(any(Deal.class))).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> dealService.createDeal(validRequest))
-            .isInstanceOf(RuntimeException.class)
+            .isInstanceOf(DuplicateDealException.class)
             .hasMessageContaining("already exists");
-
-        verify(dealRepository, never()).save(any());
+        assertThat(registry.get("fxdeals.deals.duplicate").counter().count()).isEqualTo(1);
+        assertThat(registry.get("fxdeals.deals.created").counter().count()).isZero();
+        verify(watermark, never()).advance();
     }
 
     @Test
     void createDeal_ShouldHandleRepositoryException() {
-        when(dealRepository.existsByDealUniqueId("TEST123")).thenReturn(false);
-        when(dealRepository.save(any(Deal.class)))
+        when(dealRepository.insertIfAbsent(any(Deal.class)))
             .thenThrow(new RuntimeException("Database error"));
 
         assertThatThrownBy(() -> dealService.createDeal(validRequest))
@@ -91,46 +120,95 @@ class DealServiceImplTest {
     }
 
     @Test
-    void getAllDeals_ShouldReturnListOfDeals() {
-        List<Deal> expectedDeals = Arrays.asList(validDeal, validDeal);
-        when(dealRepository.findAll()).thenReturn(expectedDeals);
+    void forEachDealAfter_ShouldStreamRepositoryPage() {
+        DealRowCallback callback = (id, dealUniqueId, fromCurrency, toCurrency, dealAmount, dealTimestamp) -> { };
 
-        List<Deal> result = dealService.getAllDeals();
+        dealService.forEachDealAfter(42L, 10, callback);
 
-        assertThat(result).hasSize(2);
-        verify(dealRepository).findAll();
+        verify(dealRepository).forEachAfter(42L, 10, callback);
+        verify(dealRepository, never()).findAll();
     }
 
     @Test
-    void getAllDeals_ShouldReturnEmptyList_WhenNoDeals() {
-        when(dealRepository.findAll()).thenReturn(Collections.emptyList());
+    void createDeal_ShouldSetAllFieldsCorrectly() {
+        when(dealRepository.insertIfAbsent(any(Deal.class))).thenReturn(Optional.of(new InsertedDeal(7L, 0)));
 
-        List<Deal> result = dealService.getAllDeals();
+        Deal result = dealService.createDeal(validRequest);
 
-        assertThat(result).isEmpty();
-        verify(dealRepository).findAll();
+        assertThat(result.getDealUniqueId()).isEqualTo(validRequest.getDealUniqueId());
+        assertThat(result.getFromCurrency()).isEqualTo(validRequest.getFromCurrency());
+        assertThat(result.getToCurrency()).isEqualTo(validRequest.getToCurrency());
+        assertThat(result.getDealAmount()).isEqualTo(validRequest.getDealAmount());
+        assertThat(result.getDealTimestamp()).isEqualTo(validRequest.getDealTimestamp());
     }
 
     @Test
-    void getAllDeals_ShouldCallRepositoryOnce() {
-        when(dealRepository.findAll()).thenReturn(Collections.emptyList());
-
-        dealService.getAllDeals();
+    void createDeals_ShouldReportCreatedDuplicateAndInvalidPerItem() {
+        DealRequest existing = copyOf(validRequest, "EXISTING");
+        DealRequest invalid = copyOf(validRequest, "BAD");
+        invalid.setFromCurrency("USDOLLAR");
+        DealRequest repeated = copyOf(validRequest, "TEST123");
+
+        when(dealRepository.insertIgnoringDuplicates(anyList())).thenReturn(InsertedDeals.of(0, "TEST123"));
+
+        BatchDealResponse response = dealService.createDeals(
+            Arrays.asList(validRequest, existing, invalid, repeated, null));
+
+        assertThat(response.getReceived()).isEqualTo(5);
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getDuplicates()).isEqualTo(2);
+        assertThat(response.getInvalid()).isEqualTo(2);
+        assertThat(response.getResults())
+            .extracting(BatchDealResult::getStatus)
+            .containsExactly(
+                BatchDealResult.Status.CREATED,
+                BatchDealResult.Status.DUPLICATE,
+                BatchDealResult.Status.INVALID,
+                BatchDealResult.Status.DUPLICATE,
+                BatchDealResult.Status.INVALID);
+        assertThat(response.getResults().get(2).getMessage()).contains("Invalid fromCurrency");
+        assertThat(response.getResults().get(3).getIndex()).isEqualTo(3);
+
+        assertThat(registry.get("fxdeals.deals.created").counter().count()).isEqualTo(1);
+        assertThat(registry.get("fxdeals.deals.duplicate").counter().count()).isEqualTo(2);
+        assertThat(registry.get("fxdeals.deals.rejected").tag("reason", "invalid_from_currency").counter().count())
+            .isEqualTo(1);
+        assertThat(registry.get("fxdeals.deals.rejected").tag("reason", "missing_deal").counter().count())
+            .isEqualTo(1);
+    }
 
-        verify(dealRepository, times(1)).findAll();
+    @Test
+    @SuppressWarnings("unchecked")
+    void createDeals_ShouldSendOnlyValidFirstOccurrencesToRepository() {
+        DealRequest second = copyOf(validRequest, "TEST456");
+        when(dealRepository.insertIgnoringDuplicates(anyList())).thenReturn(InsertedDeals.of(0, "TEST123", "TEST456"));
+
+        dealService.createDeals(Arrays.asList(validRequest, validRequest, second));
+
+        org.mockito.ArgumentCaptor<List<Deal>> captor = org.mockito.ArgumentCaptor.forClass(List.class);
+        verify(dealRepository).insertIgnoringDuplicates(captor.capture());
+        assertThat(captor.getValue())
+            .extracting(Deal::getDealUniqueId)
+            .containsExactly("TEST123", "TEST456");
     }
 
     @Test
-    void createDeal_ShouldSetAllFieldsCorrectly() {
-        when(dealRepository.existsByDealUniqueId("TEST123")).thenReturn(false);
-        when(dealRepository.save(any(Deal.class))).thenAnswer(i -> i.getArgument(0));
+    void createDeals_ShouldNotHitRepository_WhenNothingIsValid() {
+        DealRequest invalid = copyOf(validRequest, null);
 
-        Deal result = dealService.createDeal(validRequest);
+        BatchDealResponse response = dealService.createDeals(List.of(invalid));
 
-        assertThat(result.getDealUniqueId()).isEqualTo(validRequest.getDealUniqueId());
-        assertThat(result.getFromCurrency()).isEqualTo(validRequest.getFromCurrency());
-        assertThat(result.getToCurrency()).isEqualTo(validRequest.getToCurrency());
-        assertThat(result.getDealAmount()).isEqualTo(validRequest.getDealAmount());
-        assertThat(result.getDealTimestamp()).isEqualTo(validRequest.getDealTimestamp());
+        assertThat(response.getInvalid()).isEqualTo(1);
+        verifyNoInteractions(dealRepository);
+    }
+
+    private DealRequest copyOf(DealRequest source, String dealUniqueId) {
+        DealRequest copy = new DealRequest();
+        copy.setDealUniqueId(dealUniqueId);
+        copy.setFromCurrency(source.getFromCurrency());
+        copy.setToCurrency(source.getToCurrency());
+        copy.setDealAmount(source.getDealAmount());
+        copy.setDealTimestamp(source.getDealTimestamp());
+        return copy;
     }
 }
\ No newline at end of file
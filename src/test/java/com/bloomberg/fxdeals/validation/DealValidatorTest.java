@@ -9,6 +9,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
@@ -267,6 +268,48 @@ class DealValidatorTest {
             .hasMessageContaining("Invalid timestamp");
     }
 
+    @Test
+    void check_ShouldRejectDealUniqueIdLongerThanColumn() {
+        validRequest.setDealUniqueId("D".repeat(256));
+        assertThat(DealValidator.check(validRequest)).isEqualTo(ValidationResult.DEAL_UNIQUE_ID_TOO_LONG);
+
+        // 255 characters, 510 UTF-16 units
+        validRequest.setDealUniqueId("\uD83D\uDCB1".repeat(255));
+        assertThat(DealValidator.check(validRequest)).isEqualTo(ValidationResult.VALID);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1E+40", "1000000000000000000000000000000000000", "10.505", "10.5050",
+        "1000000000000000000000000000000000000.000"})
+    void check_ShouldRejectAmountThatDoesNotFitColumn(String amount) {
+        validRequest.setDealAmount(new BigDecimal(amount));
+        assertThat(DealValidator.check(validRequest)).isEqualTo(ValidationResult.DEAL_AMOUNT_OUT_OF_RANGE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"999999999999999999999999999999999999.99", "1E+3", "0.01",
+        "1000.500", "20.000", "0.0100000000", "999999999999999999999999999999999999.990"})
+    void check_ShouldAcceptAmountThatFitsColumn(String amount) {
+        validRequest.setDealAmount(new BigDecimal(amount));
+        assertThat(DealValidator.check(validRequest)).isEqualTo(ValidationResult.VALID);
+    }
+
+    @Test
+    void check_ShouldAcceptOldTimestamp_WhenTimeWindowIsNotEnforced() {
+        validRequest.setDealTimestamp(LocalDateTime.of(2009, 7, 1, 12, 0));
+
+        assertThat(DealValidator.check(validRequest, false)).isEqualTo(ValidationResult.VALID);
+        assertThat(DealValidator.check(validRequest, true)).isEqualTo(ValidationResult.TIMESTAMP_OUT_OF_RANGE);
+    }
+
+    @Test
+    void check_ShouldApplyOtherRules_WhenTimeWindowIsNotEnforced() {
+        validRequest.setDealTimestamp(LocalDateTime.of(2009, 7, 1, 12, 0));
+        validRequest.setFromCurrency("XXX");
+
+        assertThat(DealValidator.check(validRequest, false)).isEqualTo(ValidationResult.INVALID_FROM_CURRENCY);
+    }
+
     @Test
     void validate_ShouldThrow_WhenTimestampTooFuture() {
         validRequest.setDealTimestamp(LocalDateTime.now().plusDays(2));  // 2 days future
@@ -283,5 +326,22 @@ void validate_ShouldThrow_WhenTimestampInvalid() {
         .hasMessageContaining("Invalid timestamp");
 }
 
+    // ===== FAST-PATH EQUIVALENCE =====
+    @ParameterizedTest
+    @ValueSource(strings = {"\t", "\n", " \r\n ", "\u0000"})
+    void validate_ShouldThrow_WhenDealUniqueIdOnlyControlOrWhitespace(String id) {
+        validRequest.setDealUniqueId(id);
+        assertThatThrownBy(() -> DealValidator.validate(validRequest))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("dealUniqueId is required");
+    }
 
-}
\ No newline at end of file
+    @ParameterizedTest
+    @ValueSource(strings = {"AAA", "ZZZ", "U$D", "ÜSD", "US@", "[SD"})
+    void validate_ShouldThrow_WhenCurrencyOutsideLookupTable(String currency) {
+        validRequest.setFromCurrency(currency);
+        assertThatThrownBy(() -> DealValidator.validate(validRequest))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid fromCurrency");
+    }
+}